@@ -57,16 +57,18 @@ public class EdgeController extends Controller {
 
     Edge edge;
 
+    boolean committed = false;
     try {
       JsonNode requestBody = request().body().asJson();
       Map<String, Tag> tags = ControllerUtils.getTagsFromJson(requestBody);
 
       edge = this.edgeFactory.create(name, sourceKey, fromNodeId, toNodeId, tags);
       this.dbClient.commit();
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+      committed = true;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
 
     JsonNode json = Json.toJson(edge);
@@ -76,6 +78,7 @@ public class EdgeController extends Controller {
 
 
   public Result createEdgeVersion(String sourceKey) throws GroundException {
+    boolean committed = false;
     try {
       long edgeId;
       edgeId = this.edgeFactory.retrieveFromDatabase(sourceKey).getId();
@@ -101,11 +104,12 @@ public class EdgeController extends Controller {
           toNodeVersionStartId, toNodeVersionEndId, parents);
 
       this.dbClient.commit();
+      committed = true;
       return ok(Json.toJson(created));
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
   }
 }
@@ -54,16 +54,18 @@ public class GraphController extends Controller {
 
   public Result createGraph(String sourceKey, String name) throws GroundException {
     Graph graph;
+    boolean committed = false;
     try {
       JsonNode requestBody = request().body().asJson();
       Map<String, Tag> tags = ControllerUtils.getTagsFromJson(requestBody);
 
       graph = this.graphFactory.create(name, sourceKey, tags);
       this.dbClient.commit();
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+      committed = true;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
 
     JsonNode json = Json.toJson(graph);
@@ -72,6 +74,7 @@ public class GraphController extends Controller {
   }
 
   public Result createGraphVersion(String sourceKey) throws GroundException {
+    boolean committed = false;
     try {
       long graphId;
 
@@ -100,11 +103,12 @@ public class GraphController extends Controller {
           referenceParameters, graphId, edgeVersionIds, parents);
 
       this.dbClient.commit();
+      committed = true;
       return ok(Json.toJson(created));
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
   }
 }
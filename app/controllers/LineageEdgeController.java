@@ -13,6 +13,7 @@ import javax.inject.Inject;
 import models.models.Tag;
 import models.usage.LineageEdge;
 import models.usage.LineageEdgeVersion;
+import play.Configuration;
 import play.libs.Json;
 import play.mvc.Controller;
 import play.mvc.Result;
@@ -20,14 +21,22 @@ import util.ControllerUtils;
 import util.FactoryGenerator;
 
 public class LineageEdgeController extends Controller {
+  private static final int DEFAULT_MAX_DOWNSTREAM_DEPTH = 10;
+
   private final LineageEdgeFactory lineageEdgeFactory;
   private final LineageEdgeVersionFactory lineageEdgeVersionFactory;
 
   private final DbClient dbClient;
 
+  // the deepest downstream traversal that a request may ask for
+  private final int maxDownstreamDepth;
+
   @Inject
-  public LineageEdgeController(FactoryGenerator generator) throws GroundException {
+  public LineageEdgeController(FactoryGenerator generator, Configuration configuration)
+      throws GroundException {
     this.dbClient = generator.getDbClient();
+    this.maxDownstreamDepth = configuration.getInt("lineage.maxDownstreamDepth",
+        DEFAULT_MAX_DOWNSTREAM_DEPTH);
     this.lineageEdgeFactory = generator.getLineageEdgeFactory();
     this.lineageEdgeVersionFactory = generator.getLineageEdgeVersionFactory();
   }
@@ -52,18 +61,39 @@ public class LineageEdgeController extends Controller {
     }
   }
 
+  public Result getDownstreamVersions(Long id, Integer depth) throws GroundException {
+    if (depth < 1) {
+      return badRequest("The depth must be at least 1.");
+    }
+
+    if (depth > this.maxDownstreamDepth) {
+      return badRequest("The depth must be at most " + this.maxDownstreamDepth + ".");
+    }
+
+    try {
+      JsonNode json = Json.toJson(this.lineageEdgeVersionFactory.getDownstreamVersions(id,
+          depth));
+
+      return ok(json);
+    } finally {
+      this.dbClient.commit();
+    }
+  }
+
   public Result createLineageEdge(String sourceKey, String name) throws GroundException {
     LineageEdge lineageEdge;
+    boolean committed = false;
     try {
       JsonNode requestBody = request().body().asJson();
       Map<String, Tag> tags = ControllerUtils.getTagsFromJson(requestBody);
 
       lineageEdge = this.lineageEdgeFactory.create(name, sourceKey, tags);
       this.dbClient.commit();
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+      committed = true;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
 
     JsonNode json = Json.toJson(lineageEdge);
@@ -72,6 +102,7 @@ public class LineageEdgeController extends Controller {
   }
 
   public Result createLineageEdgeVersion(String sourceKey) throws GroundException {
+    boolean committed = false;
     try {
       long lineageEdgeId;
 
@@ -102,11 +133,12 @@ public class LineageEdgeController extends Controller {
           parents);
 
       this.dbClient.commit();
+      committed = true;
       return ok(Json.toJson(created));
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
   }
 }
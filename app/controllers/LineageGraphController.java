@@ -54,16 +54,18 @@ public class LineageGraphController extends Controller {
 
   public Result createLineageGraph(String sourceKey, String name) throws GroundException {
     LineageGraph lineageGraph;
+    boolean committed = false;
     try {
       JsonNode requestBody = request().body().asJson();
       Map<String, Tag> tags = ControllerUtils.getTagsFromJson(requestBody);
 
       lineageGraph = this.lineageGraphFactory.create(name, sourceKey, tags);
       this.dbClient.commit();
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+      committed = true;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
 
     JsonNode json = Json.toJson(lineageGraph);
@@ -72,6 +74,7 @@ public class LineageGraphController extends Controller {
   }
 
   public Result createLineageGraphVersion(String sourceKey) throws GroundException {
+    boolean committed = false;
     try {
       long lineageGraphId;
 
@@ -101,11 +104,12 @@ public class LineageGraphController extends Controller {
           reference, referenceParameters, lineageGraphId, lineageEdgeVersionIds, parents);
 
       this.dbClient.commit();
+      committed = true;
       return ok(Json.toJson(created));
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
   }
 }
@@ -0,0 +1,58 @@
+package controllers;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.CacheStats;
+import dao.models.StructureVersionCache;
+import dao.versions.ItemCache;
+import dao.versions.VersionCache;
+import dao.versions.VersionHistoryDagCache;
+import javax.inject.Inject;
+import play.libs.Json;
+import play.mvc.Controller;
+import play.mvc.Result;
+import util.FactoryGenerator;
+
+public class MetricsController extends Controller {
+  private final ItemCache itemCache;
+  private final StructureVersionCache structureVersionCache;
+  private final VersionCache versionCache;
+  private final VersionHistoryDagCache versionHistoryDagCache;
+
+  @Inject
+  public MetricsController(FactoryGenerator generator) {
+    this.itemCache = generator.getItemCache();
+    this.structureVersionCache = generator.getStructureVersionCache();
+    this.versionCache = generator.getVersionCache();
+    this.versionHistoryDagCache = generator.getVersionHistoryDagCache();
+  }
+
+  public Result getItemCacheStats() {
+    return ok(MetricsController.toJson(this.itemCache.getStats(), this.itemCache.size()));
+  }
+
+  public Result getStructureVersionCacheStats() {
+    return ok(MetricsController.toJson(this.structureVersionCache.getStats(),
+        this.structureVersionCache.size()));
+  }
+
+  public Result getVersionCacheStats() {
+    return ok(MetricsController.toJson(this.versionCache.getStats(), this.versionCache.size()));
+  }
+
+  public Result getVersionHistoryDagCacheStats() {
+    return ok(MetricsController.toJson(this.versionHistoryDagCache.getStats(),
+        this.versionHistoryDagCache.size()));
+  }
+
+  private static ObjectNode toJson(CacheStats stats, long size) {
+    ObjectNode json = Json.newObject();
+    json.put("size", size);
+    json.put("requestCount", stats.requestCount());
+    json.put("hitCount", stats.hitCount());
+    json.put("missCount", stats.missCount());
+    json.put("hitRate", stats.hitRate());
+    json.put("evictionCount", stats.evictionCount());
+
+    return json;
+  }
+}
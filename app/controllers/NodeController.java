@@ -56,16 +56,18 @@ public class NodeController extends Controller {
 
   public Result createNode(String sourceKey, String name) throws GroundException {
     Node node;
+    boolean committed = false;
     try {
       JsonNode requestBody = request().body().asJson();
       Map<String, Tag> tags = ControllerUtils.getTagsFromJson(requestBody);
 
       node = this.nodeFactory.create(name, sourceKey, tags);
       this.dbClient.commit();
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+      committed = true;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
 
     JsonNode json = Json.toJson(node);
@@ -74,6 +76,7 @@ public class NodeController extends Controller {
   }
 
   public Result createNodeVersion(String sourceKey) throws GroundException {
+    boolean committed = false;
     try {
       long nodeId;
 
@@ -99,11 +102,12 @@ public class NodeController extends Controller {
           referenceParameters, nodeId, parents);
 
       this.dbClient.commit();
+      committed = true;
       return ok(Json.toJson(created));
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
   }
 }
\ No newline at end of file
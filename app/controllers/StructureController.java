@@ -56,16 +56,18 @@ public class StructureController extends Controller {
 
   public Result createStructure(String sourceKey, String name) throws GroundException {
     Structure structure;
+    boolean committed = false;
     try {
       JsonNode requestBody = request().body().asJson();
       Map<String, Tag> tags = ControllerUtils.getTagsFromJson(requestBody);
 
       structure = this.structureFactory.create(name, sourceKey, tags);
       this.dbClient.commit();
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+      committed = true;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
 
     JsonNode json = Json.toJson(structure);
@@ -74,6 +76,7 @@ public class StructureController extends Controller {
   }
 
   public Result createStructureVersion(String sourceKey) throws GroundException {
+    boolean committed = false;
     try {
       long structureId;
 
@@ -107,11 +110,12 @@ public class StructureController extends Controller {
           parents);
 
       this.dbClient.commit();
+      committed = true;
       return ok(Json.toJson(created));
-    } catch (GroundException e) {
-      this.dbClient.abort();
-
-      throw e;
+    } finally {
+      if (!committed) {
+        this.dbClient.abort();
+      }
     }
   }
 }
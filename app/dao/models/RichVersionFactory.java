@@ -15,13 +15,11 @@
 package dao.models;
 
 import dao.versions.VersionFactory;
-import exceptions.GroundDbException;
 import exceptions.GroundException;
 import java.util.function.Function;
 import models.models.RichVersion;
 import models.models.StructureVersion;
 import models.models.Tag;
-import models.versions.GroundType;
 
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -57,29 +55,6 @@ public interface RichVersionFactory<T extends RichVersion> extends VersionFactor
   static void checkStructureTags(StructureVersion structureVersion, Map<String, Tag> tags)
       throws GroundException {
 
-    Map<String, GroundType> structureVersionAttributes = structureVersion.getAttributes();
-
-    if (tags.isEmpty()) {
-      throw new GroundDbException("No tags were specified");
-    }
-
-    for (String key : structureVersionAttributes.keySet()) {
-      if (!tags.keySet().contains(key)) {
-        // check if such a tag exists
-        throw new GroundDbException("No tag with key " + key + " was specified.");
-      } else if (tags.get(key).getValueType() == null) {
-        // check that value type is specified
-        throw new GroundDbException("Tag with key " + key + " did not have a value.");
-      } else if (!tags.get(key).getValueType().equals(structureVersionAttributes.get(key))) {
-        // check that the value type is the same
-        throw new GroundDbException("Tag with key "
-            + key
-            + " did not have a value of the correct type: expected [" +
-            structureVersionAttributes.get(key) +
-            "] but found [" +
-            tags.get(key).getValueType() +
-            "].");
-      }
-    }
+    new StructureVersionValidator(structureVersion).validate(tags);
   }
 }
@@ -0,0 +1,123 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dao.models;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import dao.versions.VersionCache;
+import db.DbClient;
+import exceptions.GroundException;
+import models.models.StructureVersion;
+
+/**
+ * An in-process cache of structure versions and their validators, used to check the tags of
+ * every rich version that names a structure version. A structure version never changes once it
+ * is written, so an entry only has to be evicted when the structure version is truncated.
+ *
+ * <p>As in VersionCache, a loaded structure version is only cached once the unit of work that
+ * loaded it commits, and a load that races with an eviction is not cached.
+ */
+public class StructureVersionCache {
+  private final Cache<Long, StructureVersionValidator> validators;
+  private final boolean enabled;
+
+  // incremented by every eviction; guarded by this
+  private long generation = 0;
+
+  /**
+   * Create a structure version cache.
+   *
+   * @param maxSize the maximum number of cached structure versions; 0 disables caching
+   */
+  public StructureVersionCache(long maxSize) {
+    this.validators = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+    this.enabled = maxSize > 0;
+  }
+
+  /**
+   * Return the validator for a structure version, loading the structure version if it is not
+   * cached.
+   *
+   * @param id the id of the structure version
+   * @param loader reads the structure version from the database, bypassing the version cache
+   * @param dbClient the client whose unit of work the structure version is loaded in
+   * @return the validator, which also holds the structure version
+   * @throws GroundException an error while loading the structure version
+   */
+  public StructureVersionValidator get(long id, VersionCache.Loader<StructureVersion> loader,
+                                       DbClient dbClient) throws GroundException {
+    if (!this.enabled) {
+      return new StructureVersionValidator(loader.load(id));
+    }
+
+    StructureVersionValidator cached = this.validators.getIfPresent(id);
+
+    if (cached != null) {
+      return cached;
+    }
+
+    long loadGeneration = this.currentGeneration();
+    StructureVersionValidator validator = new StructureVersionValidator(loader.load(id));
+    dbClient.onCommit(() -> this.put(id, validator, loadGeneration));
+
+    return validator;
+  }
+
+  /**
+   * Evict a structure version, so that the next read goes to the database.
+   *
+   * @param id the id of the structure version
+   */
+  public synchronized void invalidate(long id) {
+    this.generation++;
+    this.validators.invalidate(id);
+  }
+
+  /**
+   * Evict a structure version that the current unit of work deletes, at once and again when the
+   * unit of work ends.
+   *
+   * @param id the id of the structure version
+   * @param dbClient the client whose unit of work deletes the structure version
+   */
+  public void invalidate(long id, DbClient dbClient) {
+    this.invalidate(id);
+    dbClient.onCommit(() -> this.invalidate(id));
+    dbClient.onAbort(() -> this.invalidate(id));
+  }
+
+  private synchronized long currentGeneration() {
+    return this.generation;
+  }
+
+  private synchronized void put(long id, StructureVersionValidator validator,
+                                long loadGeneration) {
+    if (this.generation == loadGeneration) {
+      this.validators.put(id, validator);
+    }
+  }
+
+  public CacheStats getStats() {
+    return this.validators.stats();
+  }
+
+  public long size() {
+    return this.validators.size();
+  }
+}
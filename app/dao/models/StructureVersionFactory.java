@@ -35,4 +35,14 @@ public interface StructureVersionFactory extends VersionFactory<StructureVersion
 
   @Override
   StructureVersion retrieveFromDatabase(long id) throws GroundException;
+
+  /**
+   * Retrieve the validator for a structure version, which checks the tags of rich versions that
+   * name it.
+   *
+   * @param id the id of the structure version
+   * @return the validator
+   * @throws GroundException either the structure version doesn't exist or couldn't be retrieved
+   */
+  StructureVersionValidator retrieveValidator(long id) throws GroundException;
 }
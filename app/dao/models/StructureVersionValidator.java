@@ -0,0 +1,90 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dao.models;
+
+import exceptions.GroundDbException;
+import exceptions.GroundException;
+import models.models.StructureVersion;
+import models.models.Tag;
+import models.versions.GroundType;
+
+import java.util.Map;
+
+/**
+ * Checks the tags of rich versions against a structure version. The structure version's
+ * attributes are copied into arrays once, so that checking a set of tags only does one map
+ * lookup per attribute.
+ */
+public class StructureVersionValidator {
+  private final StructureVersion structureVersion;
+  private final String[] keys;
+  private final GroundType[] types;
+
+  /**
+   * Create a validator for a structure version.
+   *
+   * @param structureVersion the structure version that tags are checked against
+   */
+  public StructureVersionValidator(StructureVersion structureVersion) {
+    Map<String, GroundType> attributes = structureVersion.getAttributes();
+
+    this.structureVersion = structureVersion;
+    this.keys = new String[attributes.size()];
+    this.types = new GroundType[attributes.size()];
+
+    int index = 0;
+    for (Map.Entry<String, GroundType> attribute : attributes.entrySet()) {
+      this.keys[index] = attribute.getKey();
+      this.types[index] = attribute.getValue();
+      index++;
+    }
+  }
+
+  public StructureVersion getStructureVersion() {
+    return this.structureVersion;
+  }
+
+  /**
+   * Validate that the given Tags satisfy the StructureVersion's requirements.
+   *
+   * @param tags the provided tags
+   * @throws GroundException a required tag is missing, or has no value or the wrong type
+   */
+  public void validate(Map<String, Tag> tags) throws GroundException {
+    if (tags.isEmpty()) {
+      throw new GroundDbException("No tags were specified");
+    }
+
+    for (int i = 0; i < this.keys.length; i++) {
+      Tag tag = tags.get(this.keys[i]);
+
+      if (tag == null) {
+        // check if such a tag exists
+        throw new GroundDbException("No tag with key " + this.keys[i] + " was specified.");
+      } else if (tag.getValueType() == null) {
+        // check that value type is specified
+        throw new GroundDbException("Tag with key " + this.keys[i] + " did not have a value.");
+      } else if (!tag.getValueType().equals(this.types[i])) {
+        // check that the value type is the same
+        throw new GroundDbException("Tag with key "
+            + this.keys[i]
+            + " did not have a value of the correct type: expected ["
+            + this.types[i]
+            + "] but found ["
+            + tag.getValueType()
+            + "].");
+      }
+    }
+  }
+}
@@ -14,6 +14,8 @@
 
 package dao.models.cassandra;
 
+import com.datastax.driver.core.ResultSetFuture;
+
 import dao.models.EdgeFactory;
 import dao.versions.cassandra.CassandraItemFactory;
 import dao.versions.cassandra.CassandraVersionHistoryDagFactory;
@@ -27,6 +29,7 @@ import models.models.EdgeVersion;
 import models.models.Tag;
 import models.versions.GroundType;
 import models.versions.VersionHistoryDag;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -53,13 +56,15 @@ public class CassandraEdgeFactory extends CassandraItemFactory<Edge> implements
    * @param idGenerator a unique ID generator
    * @param versionHistoryDagFactory a CassandraVersionHistoryDAGFactory singleton
    * @param tagFactory a CassandraTagFactory singleton
+   * @param caches the caches shared by the factories
    */
   public CassandraEdgeFactory(CassandraClient dbClient,
                               CassandraVersionHistoryDagFactory versionHistoryDagFactory,
                               CassandraTagFactory tagFactory,
-                              IdGenerator idGenerator) {
+                              IdGenerator idGenerator,
+                              Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -89,12 +94,8 @@ public class CassandraEdgeFactory extends CassandraItemFactory<Edge> implements
                      long toNodeId,
                      Map<String, Tag> tags) throws GroundException {
 
-    super.verifyItemNotExists(sourceKey);
-
     long uniqueId = this.idGenerator.generateItemId();
 
-    super.insertIntoDatabase(uniqueId, tags);
-
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("name", GroundType.STRING, name));
     insertions.add(new DbDataContainer("item_id", GroundType.LONG, uniqueId));
@@ -102,10 +103,18 @@ public class CassandraEdgeFactory extends CassandraItemFactory<Edge> implements
     insertions.add(new DbDataContainer("to_node_id", GroundType.LONG, toNodeId));
     insertions.add(new DbDataContainer("source_key", GroundType.STRING, sourceKey));
 
-    this.dbClient.insert("edge", insertions);
+    // claim the source key first, so concurrent creates of the same item cannot both succeed
+    super.claimSourceKey("edge_by_source_key", insertions, sourceKey);
+
+    List<ResultSetFuture> writes = super.insertIntoDatabaseAsync(uniqueId, tags);
+    writes.add(this.dbClient.insertAsync("edge", insertions));
+    this.dbClient.awaitAll(writes);
 
     LOGGER.info("Created edge " + name + ".");
-    return new Edge(uniqueId, name, sourceKey, fromNodeId, toNodeId, tags);
+    Edge edge = new Edge(uniqueId, name, sourceKey, fromNodeId, toNodeId, tags);
+    super.cacheItem(sourceKey, edge);
+
+    return edge;
   }
 
   /**
@@ -123,22 +132,24 @@ public class CassandraEdgeFactory extends CassandraItemFactory<Edge> implements
 
 
   @Override
-  public Edge retrieveFromDatabase(String sourceKey) throws GroundException {
-    return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
+  protected Edge loadFromDatabase(String sourceKey) throws GroundException {
+    return this.retrieveByPredicate("edge_by_source_key", "source_key", sourceKey,
+        GroundType.STRING);
   }
 
   @Override
   public Edge retrieveFromDatabase(long id) throws GroundException {
-    return this.retrieveByPredicate("item_id", id, GroundType.LONG);
+    return this.retrieveByPredicate("edge", "item_id", id, GroundType.LONG);
   }
 
-  private Edge retrieveByPredicate(String fieldName, Object value, GroundType valueType)
+  private Edge retrieveByPredicate(String table, String fieldName, Object value,
+                                   GroundType valueType)
       throws GroundException {
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer(fieldName, valueType, value));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("edge",
+    CassandraResults resultSet = this.dbClient.equalitySelect(table,
         DbClient.SELECT_STAR,
         predicates);
     super.verifyResultSet(resultSet, fieldName, value);
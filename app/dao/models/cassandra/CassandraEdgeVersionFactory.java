@@ -14,9 +14,14 @@
 
 package dao.models.cassandra;
 
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import dao.models.EdgeVersionFactory;
 import dao.models.RichVersionFactory;
 import db.CassandraClient;
+import db.CassandraOperation;
 import db.CassandraResults;
 import db.DbClient;
 import db.DbDataContainer;
@@ -25,6 +30,7 @@ import models.models.EdgeVersion;
 import models.models.RichVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -51,14 +57,16 @@ public class CassandraEdgeVersionFactory
    * @param edgeFactory the CassandraEdgeFactory singleton
    * @param dbClient the Cassandra client
    * @param idGenerator a unique ID generator
+   * @param caches the caches shared by the factories
    */
   public CassandraEdgeVersionFactory(CassandraClient dbClient,
                                      CassandraEdgeFactory edgeFactory,
                                      CassandraStructureVersionFactory structureVersionFactory,
                                      CassandraTagFactory tagFactory,
-                                     IdGenerator idGenerator) {
+                                     IdGenerator idGenerator,
+                                     Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.edgeFactory = edgeFactory;
@@ -95,7 +103,8 @@ public class CassandraEdgeVersionFactory
     long id = this.idGenerator.generateVersionId();
     tags = RichVersionFactory.addIdToTags(id, tags);
 
-    super.insertIntoDatabase(id, tags, structureVersionId, reference, referenceParameters);
+    List<ResultSetFuture> writes = super.insertIntoDatabaseAsync(id, tags, structureVersionId,
+        reference, referenceParameters);
 
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
@@ -108,7 +117,8 @@ public class CassandraEdgeVersionFactory
         toNodeVersionStartId));
     insertions.add(new DbDataContainer("to_node_end_id", GroundType.LONG, toNodeVersionEndId));
 
-    this.dbClient.insert("edge_version", insertions);
+    writes.add(this.dbClient.insertAsync("edge_version", insertions, this.getRetentionSeconds()));
+    this.dbClient.awaitAll(writes);
     this.edgeFactory.update(edgeId, id, parentIds);
     LOGGER.info("Created edge version " + id + " in edge " + edgeId + ".");
 
@@ -125,15 +135,18 @@ public class CassandraEdgeVersionFactory
    * @throws GroundException either the version doesn't exist or wasn't able to be retrieved
    */
   @Override
-  public EdgeVersion retrieveFromDatabase(long id) throws GroundException {
-    final RichVersion version = super.retrieveRichVersionData(id);
-
+  protected EdgeVersion loadFromDatabase(long id) throws GroundException {
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("edge_version",
-        DbClient.SELECT_STAR,
-        predicates);
+    // issued first so that it runs concurrently with the rich version reads; the end ids are
+    // updated when the next version of an endpoint is created, so this is a mutable read
+    ListenableFuture<ResultSet> versionFuture = this.dbClient.equalitySelectAsync(
+        "edge_version", DbClient.SELECT_STAR, predicates, CassandraOperation.MUTABLE_READ);
+
+    final RichVersion version = super.retrieveRichVersionData(id);
+
+    CassandraResults resultSet = this.dbClient.getResults(versionFuture);
     super.verifyResultSet(resultSet, id);
 
     long edgeId = resultSet.getLong("edge_id");
@@ -167,6 +180,25 @@ public class CassandraEdgeVersionFactory
     }
 
     wherePredicates.add(new DbDataContainer("id", GroundType.LONG, id));
-    this.dbClient.update(setPredicates, wherePredicates, "edge_version");
+
+    int ttl = 0;
+    if (this.getRetentionSeconds() > 0) {
+      // the row was inserted with the retention ttl, so the new end ids must expire with it
+      List<String> projection = new ArrayList<>();
+      projection.add("TTL(edge_id) AS remaining_ttl");
+
+      CassandraResults resultSet = this.dbClient.equalitySelect("edge_version", projection,
+          wherePredicates);
+
+      if (resultSet.isEmpty()) {
+        // the version has expired, and updating it would write a row with only the end ids
+        return;
+      }
+
+      ttl = resultSet.getTtl("remaining_ttl");
+    }
+
+    this.dbClient.update(setPredicates, wherePredicates, "edge_version", ttl);
+    this.evictFromCache(id);
   }
 }
@@ -14,6 +14,8 @@
 
 package dao.models.cassandra;
 
+import com.datastax.driver.core.ResultSetFuture;
+
 import dao.models.GraphFactory;
 import dao.versions.cassandra.CassandraItemFactory;
 import dao.versions.cassandra.CassandraVersionHistoryDagFactory;
@@ -25,6 +27,7 @@ import exceptions.GroundException;
 import models.models.Graph;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -46,12 +49,14 @@ public class CassandraGraphFactory extends CassandraItemFactory<Graph> implement
    *
    * @param dbClient the Cassandra client
    * @param idGenerator a unique ID generator
+   * @param caches the caches shared by the factories
    */
   public CassandraGraphFactory(CassandraClient dbClient,
                                CassandraVersionHistoryDagFactory versionHistoryDagFactory,
                                CassandraTagFactory tagFactory,
-                               IdGenerator idGenerator) {
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+                               IdGenerator idGenerator,
+                               Caches caches) {
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -68,21 +73,26 @@ public class CassandraGraphFactory extends CassandraItemFactory<Graph> implement
    */
   @Override
   public Graph create(String name, String sourceKey, Map<String, Tag> tags) throws GroundException {
-    super.verifyItemNotExists(sourceKey);
     long uniqueId = this.idGenerator.generateItemId();
 
-    super.insertIntoDatabase(uniqueId, tags);
-
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("name", GroundType.STRING, name));
     insertions.add(new DbDataContainer("item_id", GroundType.LONG, uniqueId));
     insertions.add(new DbDataContainer("source_key", GroundType.STRING, sourceKey));
 
-    this.dbClient.insert("graph", insertions);
+    // claim the source key first, so concurrent creates of the same item cannot both succeed
+    super.claimSourceKey("graph_by_source_key", insertions, sourceKey);
+
+    List<ResultSetFuture> writes = super.insertIntoDatabaseAsync(uniqueId, tags);
+    writes.add(this.dbClient.insertAsync("graph", insertions));
+    this.dbClient.awaitAll(writes);
 
     LOGGER.info("Created graph " + name + ".");
 
-    return new Graph(uniqueId, name, sourceKey, tags);
+    Graph graph = new Graph(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, graph);
+
+    return graph;
   }
 
   /**
@@ -106,8 +116,9 @@ public class CassandraGraphFactory extends CassandraItemFactory<Graph> implement
    * @throws GroundException either the graph doesn't exist or couldn't be retrieved
    */
   @Override
-  public Graph retrieveFromDatabase(String sourceKey) throws GroundException {
-    return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
+  protected Graph loadFromDatabase(String sourceKey) throws GroundException {
+    return this.retrieveByPredicate("graph_by_source_key", "source_key", sourceKey,
+        GroundType.STRING);
   }
 
   /**
@@ -119,16 +130,17 @@ public class CassandraGraphFactory extends CassandraItemFactory<Graph> implement
    */
   @Override
   public Graph retrieveFromDatabase(long id) throws GroundException {
-    return this.retrieveByPredicate("id", id, GroundType.LONG);
+    return this.retrieveByPredicate("graph", "item_id", id, GroundType.LONG);
   }
 
-  private Graph retrieveByPredicate(String fieldName, Object value, GroundType valueType)
+  private Graph retrieveByPredicate(String table, String fieldName, Object value,
+                                    GroundType valueType)
       throws GroundException {
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer(fieldName, valueType, value));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("graph",
+    CassandraResults resultSet = this.dbClient.equalitySelect(table,
         DbClient.SELECT_STAR,
         predicates);
     super.verifyResultSet(resultSet, fieldName, value);
@@ -14,9 +14,14 @@
 
 package dao.models.cassandra;
 
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import dao.models.GraphVersionFactory;
 import dao.models.RichVersionFactory;
 import db.CassandraClient;
+import db.CassandraOperation;
 import db.CassandraResults;
 import db.DbClient;
 import db.DbDataContainer;
@@ -25,6 +30,7 @@ import models.models.GraphVersion;
 import models.models.RichVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -51,13 +57,15 @@ public class CassandraGraphVersionFactory
    * @param graphFactory the singleton CassandraGraphFactory
    * @param dbClient the CassandraClient
    * @param idGenerator a unique ID generator
+   * @param caches the caches shared by the factories
    */
   public CassandraGraphVersionFactory(CassandraClient dbClient,
                                       CassandraGraphFactory graphFactory,
                                       CassandraStructureVersionFactory structureVersionFactory,
                                       CassandraTagFactory tagFactory,
-                                      IdGenerator idGenerator) {
-    super(dbClient, structureVersionFactory, tagFactory);
+                                      IdGenerator idGenerator,
+                                      Caches caches) {
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.graphFactory = graphFactory;
@@ -89,22 +97,29 @@ public class CassandraGraphVersionFactory
     long id = this.idGenerator.generateVersionId();
     tags = RichVersionFactory.addIdToTags(id, tags);
 
-    super.insertIntoDatabase(id, tags, structureVersionId, reference, referenceParameters);
+    List<ResultSetFuture> writes = super.insertIntoDatabaseAsync(id, tags, structureVersionId,
+        reference, referenceParameters);
 
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
     insertions.add(new DbDataContainer("graph_id", GroundType.LONG, graphId));
 
-    this.dbClient.insert("graph_version", insertions);
+    writes.add(this.dbClient.insertAsync("graph_version", insertions, this.getRetentionSeconds()));
 
+    List<List<DbDataContainer>> edgeRows = new ArrayList<>();
     for (long edgeVersionId : edgeVersionIds) {
       List<DbDataContainer> edgeInsertion = new ArrayList<>();
       edgeInsertion.add(new DbDataContainer("graph_version_id", GroundType.LONG, id));
       edgeInsertion.add(new DbDataContainer("edge_version_id", GroundType.LONG, edgeVersionId));
 
-      this.dbClient.insert("graph_version_edge", edgeInsertion);
+      edgeRows.add(edgeInsertion);
     }
 
+    writes.addAll(this.dbClient.insertBatchAsync("graph_version_edge",
+        "graph_version_id", edgeRows, this.getRetentionSeconds()));
+
+    this.dbClient.awaitAll(writes);
+
     this.graphFactory.update(graphId, id, parentIds);
 
     LOGGER.info("Created graph version " + id + " in graph " + graphId + ".");
@@ -120,26 +135,28 @@ public class CassandraGraphVersionFactory
    * @throws GroundException either the graph version doesn't exist or couldn't be retrieved
    */
   @Override
-  public GraphVersion retrieveFromDatabase(long id) throws GroundException {
-    final RichVersion version = super.retrieveRichVersionData(id);
-
+  protected GraphVersion loadFromDatabase(long id) throws GroundException {
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
     List<DbDataContainer> edgePredicate = new ArrayList<>();
     edgePredicate.add(new DbDataContainer("graph_version_id", GroundType.LONG, id));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("graph_version",
-        DbClient.SELECT_STAR,
-        predicates);
+    // issued first so that they run concurrently with the rich version reads
+    ListenableFuture<ResultSet> versionFuture = this.dbClient.equalitySelectAsync(
+        "graph_version", DbClient.SELECT_STAR, predicates, CassandraOperation.IMMUTABLE_READ);
+    ListenableFuture<ResultSet> edgeFuture = this.dbClient.equalitySelectAsync(
+        "graph_version_edge", DbClient.SELECT_STAR, edgePredicate,
+        CassandraOperation.IMMUTABLE_READ, false);
+
+    final RichVersion version = super.retrieveRichVersionData(id);
 
+    CassandraResults resultSet = this.dbClient.getResults(versionFuture);
 
     long graphId = resultSet.getLong("graph_id");
 
     List<Long> edgeVersionIds = new ArrayList<>();
-    CassandraResults edgeSet = this.dbClient.equalitySelect("graph_version_edge",
-        DbClient.SELECT_STAR,
-        edgePredicate);
+    CassandraResults edgeSet = this.dbClient.getResults(edgeFuture);
 
     if (!edgeSet.isEmpty()) {
       do {
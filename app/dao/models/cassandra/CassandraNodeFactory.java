@@ -14,6 +14,8 @@
 
 package dao.models.cassandra;
 
+import com.datastax.driver.core.ResultSetFuture;
+
 import dao.models.NodeFactory;
 import dao.versions.cassandra.CassandraItemFactory;
 import dao.versions.cassandra.CassandraVersionHistoryDagFactory;
@@ -25,6 +27,7 @@ import exceptions.GroundException;
 import models.models.Node;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -46,12 +49,14 @@ public class CassandraNodeFactory extends CassandraItemFactory<Node> implements
    *
    * @param dbClient the Cassandra client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public CassandraNodeFactory(CassandraClient dbClient,
                               CassandraVersionHistoryDagFactory versionHistoryDagFactory,
                               CassandraTagFactory tagFactory,
-                              IdGenerator idGenerator) {
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+                              IdGenerator idGenerator,
+                              Caches caches) {
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -69,20 +74,24 @@ public class CassandraNodeFactory extends CassandraItemFactory<Node> implements
   @Override
   public Node create(String name, String sourceKey, Map<String, Tag> tags) throws GroundException {
 
-    super.verifyItemNotExists(sourceKey);
-
     long uniqueId = this.idGenerator.generateItemId();
-    super.insertIntoDatabase(uniqueId, tags);
-
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("name", GroundType.STRING, name));
     insertions.add(new DbDataContainer("item_id", GroundType.LONG, uniqueId));
     insertions.add(new DbDataContainer("source_key", GroundType.STRING, sourceKey));
 
-    this.dbClient.insert("node", insertions);
+    // claim the source key first, so concurrent creates of the same item cannot both succeed
+    super.claimSourceKey("node_by_source_key", insertions, sourceKey);
+
+    List<ResultSetFuture> writes = super.insertIntoDatabaseAsync(uniqueId, tags);
+    writes.add(this.dbClient.insertAsync("node", insertions));
+    this.dbClient.awaitAll(writes);
 
     LOGGER.info("Created node " + name + ".");
-    return new Node(uniqueId, name, sourceKey, tags);
+    Node node = new Node(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, node);
+
+    return node;
   }
 
   /**
@@ -106,8 +115,9 @@ public class CassandraNodeFactory extends CassandraItemFactory<Node> implements
    * @throws GroundException either the node doesn't exist or couldn't be retrieved
    */
   @Override
-  public Node retrieveFromDatabase(String sourceKey) throws GroundException {
-    return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
+  protected Node loadFromDatabase(String sourceKey) throws GroundException {
+    return this.retrieveByPredicate("node_by_source_key", "source_key", sourceKey,
+        GroundType.STRING);
   }
 
   /**
@@ -119,16 +129,17 @@ public class CassandraNodeFactory extends CassandraItemFactory<Node> implements
    */
   @Override
   public Node retrieveFromDatabase(long id) throws GroundException {
-    return this.retrieveByPredicate("id", id, GroundType.LONG);
+    return this.retrieveByPredicate("node", "item_id", id, GroundType.LONG);
   }
 
-  private Node retrieveByPredicate(String fieldName, Object value, GroundType valueType)
+  private Node retrieveByPredicate(String table, String fieldName, Object value,
+                                   GroundType valueType)
       throws GroundException {
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer(fieldName, valueType, value));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("node",
+    CassandraResults resultSet = this.dbClient.equalitySelect(table,
         DbClient.SELECT_STAR,
         predicates);
     super.verifyResultSet(resultSet, fieldName, value);
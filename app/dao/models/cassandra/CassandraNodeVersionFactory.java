@@ -14,9 +14,14 @@
 
 package dao.models.cassandra;
 
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import dao.models.NodeVersionFactory;
 import dao.models.RichVersionFactory;
 import db.CassandraClient;
+import db.CassandraOperation;
 import db.CassandraResults;
 import db.DbClient;
 import db.DbDataContainer;
@@ -25,6 +30,7 @@ import models.models.NodeVersion;
 import models.models.RichVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -50,14 +56,16 @@ public class CassandraNodeVersionFactory
    * @param nodeFactory the singleton CassandraNodeFactory
    * @param dbClient the Cassandra client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public CassandraNodeVersionFactory(CassandraClient dbClient,
                                      CassandraNodeFactory nodeFactory,
                                      CassandraStructureVersionFactory structureVersionFactory,
                                      CassandraTagFactory tagFactory,
-                                     IdGenerator idGenerator) {
+                                     IdGenerator idGenerator,
+                                     Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.nodeFactory = nodeFactory;
@@ -89,13 +97,16 @@ public class CassandraNodeVersionFactory
 
     // add the id of the version to the tag
     tags = RichVersionFactory.addIdToTags(id, tags);
-    super.insertIntoDatabase(id, tags, structureVersionId, reference, referenceParameters);
+    List<ResultSetFuture> writes = super.insertIntoDatabaseAsync(id, tags, structureVersionId,
+        reference, referenceParameters);
 
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
     insertions.add(new DbDataContainer("node_id", GroundType.LONG, nodeId));
 
-    this.dbClient.insert("node_version", insertions);
+    writes.add(this.dbClient.insertAsync("node_version", insertions, this.getRetentionSeconds()));
+
+    this.dbClient.awaitAll(writes);
 
     this.nodeFactory.update(nodeId, id, parentIds);
 
@@ -111,15 +122,17 @@ public class CassandraNodeVersionFactory
    * @throws GroundException either the version doesn't exist or couldn't be retrieved
    */
   @Override
-  public NodeVersion retrieveFromDatabase(long id) throws GroundException {
-    final RichVersion version = super.retrieveRichVersionData(id);
-
+  protected NodeVersion loadFromDatabase(long id) throws GroundException {
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("node_version",
-        DbClient.SELECT_STAR,
-        predicates);
+    // issued first so that it runs concurrently with the rich version reads
+    ListenableFuture<ResultSet> versionFuture = this.dbClient.equalitySelectAsync(
+        "node_version", DbClient.SELECT_STAR, predicates, CassandraOperation.IMMUTABLE_READ);
+
+    final RichVersion version = super.retrieveRichVersionData(id);
+
+    CassandraResults resultSet = this.dbClient.getResults(versionFuture);
     super.verifyResultSet(resultSet, id);
 
 
@@ -14,18 +14,23 @@
 
 package dao.models.cassandra;
 
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import dao.models.RichVersionFactory;
 import dao.versions.cassandra.CassandraVersionFactory;
 import db.CassandraClient;
+import db.CassandraOperation;
 import db.CassandraResults;
 import db.DbClient;
 import db.DbDataContainer;
 import exceptions.GroundException;
 import exceptions.GroundVersionNotFoundException;
 import models.models.RichVersion;
-import models.models.StructureVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -46,12 +51,14 @@ public abstract class CassandraRichVersionFactory<T extends RichVersion>
    * @param dbClient the Cassandra client
    * @param structureVersionFactory the singleton CassandraStructureVerisonFactory
    * @param tagFactory the singleton CassandraTagFactory
+   * @param caches the caches shared by the factories
    */
   public CassandraRichVersionFactory(CassandraClient dbClient,
                                      CassandraStructureVersionFactory structureVersionFactory,
-                                     CassandraTagFactory tagFactory) {
+                                     CassandraTagFactory tagFactory,
+                                     Caches caches) {
 
-    super(dbClient);
+    super(dbClient, caches);
 
     this.dbClient = dbClient;
     this.structureVersionFactory = structureVersionFactory;
@@ -74,23 +81,47 @@ public abstract class CassandraRichVersionFactory<T extends RichVersion>
                                  long structureVersionId,
                                  String reference,
                                  Map<String, String> referenceParameters) throws GroundException {
-    super.insertIntoDatabase(id);
+    this.dbClient.awaitAll(this.insertIntoDatabaseAsync(id, tags, structureVersionId, reference,
+        referenceParameters));
+  }
 
-    if (structureVersionId != -1) {
-      StructureVersion structureVersion = this.structureVersionFactory
-          .retrieveFromDatabase(structureVersionId);
+  /**
+   * Issue the writes for rich version data without waiting for them to complete. Callers must
+   * pass the returned futures to CassandraClient.awaitAll before relying on the data.
+   *
+   * @param id the id of the rich version
+   * @param tags tags associated with this version
+   * @param structureVersionId the id of the StructureVersion associated with this version
+   * @param reference an optional external reference
+   * @param referenceParameters access parameters for the reference
+   * @return the futures for the pending writes
+   * @throws GroundException the tags are invalid or a write couldn't be issued
+   */
+  protected List<ResultSetFuture> insertIntoDatabaseAsync(long id,
+                                                          Map<String, Tag> tags,
+                                                          long structureVersionId,
+                                                          String reference,
+                                                          Map<String, String> referenceParameters)
+      throws GroundException {
 
-      RichVersionFactory.checkStructureTags(structureVersion, tags);
+    if (structureVersionId != -1) {
+      this.structureVersionFactory.retrieveValidator(structureVersionId).validate(tags);
     }
 
+    int ttl = this.getRetentionSeconds();
+
+    List<ResultSetFuture> writes = new ArrayList<>();
+    writes.add(super.insertIntoDatabaseAsync(id));
+
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
     insertions.add(new DbDataContainer("structure_version_id", GroundType.LONG,
         structureVersionId));
     insertions.add(new DbDataContainer("reference", GroundType.STRING, reference));
 
-    this.dbClient.insert("rich_version", insertions);
+    writes.add(this.dbClient.insertAsync("rich_version", insertions, ttl));
 
+    List<List<DbDataContainer>> tagRows = new ArrayList<>();
     for (String key : tags.keySet()) {
       Tag tag = tags.get(key);
 
@@ -108,9 +139,14 @@ public abstract class CassandraRichVersionFactory<T extends RichVersion>
         tagInsertion.add(new DbDataContainer("type", GroundType.STRING, null));
       }
 
-      this.dbClient.insert("rich_version_tag", tagInsertion);
+      tagRows.add(tagInsertion);
     }
 
+    writes.addAll(this.dbClient.insertBatchAsync("rich_version_tag", "rich_version_id", tagRows,
+        ttl));
+    writes.addAll(this.tagFactory.insertTagKeyIndexAsync("rich_version", id, tags.keySet(), ttl));
+
+    List<List<DbDataContainer>> parameterRows = new ArrayList<>();
     for (String key : referenceParameters.keySet()) {
       List<DbDataContainer> parameterInsertion = new ArrayList<>();
       parameterInsertion.add(new DbDataContainer("rich_version_id", GroundType.LONG, id));
@@ -118,8 +154,13 @@ public abstract class CassandraRichVersionFactory<T extends RichVersion>
       parameterInsertion.add(new DbDataContainer("value", GroundType.STRING,
           referenceParameters.get(key)));
 
-      this.dbClient.insert("rich_version_external_parameter", parameterInsertion);
+      parameterRows.add(parameterInsertion);
     }
+
+    writes.addAll(this.dbClient.insertBatchAsync("rich_version_external_parameter",
+        "rich_version_id", parameterRows, ttl));
+
+    return writes;
   }
 
   /**
@@ -133,18 +174,25 @@ public abstract class CassandraRichVersionFactory<T extends RichVersion>
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("rich_version",
-        DbClient.SELECT_STAR,
-        predicates);
+    List<DbDataContainer> parameterPredicates = new ArrayList<>();
+    parameterPredicates.add(new DbDataContainer("rich_version_id", GroundType.LONG, id));
+
+    // the three reads are independent, so they are all issued before waiting on any of them
+    ListenableFuture<ResultSet> versionFuture = this.dbClient.equalitySelectAsync(
+        "rich_version", DbClient.SELECT_STAR, predicates, CassandraOperation.IMMUTABLE_READ);
+    ListenableFuture<ResultSet> parameterFuture = this.dbClient.equalitySelectAsync(
+        "rich_version_external_parameter", DbClient.SELECT_STAR, parameterPredicates,
+        CassandraOperation.IMMUTABLE_READ, false);
+    ListenableFuture<ResultSet> tagFuture =
+        this.tagFactory.retrieveFromDatabaseByVersionIdAsync(id);
+
+    CassandraResults resultSet = this.dbClient.getResults(versionFuture);
     if (resultSet.isEmpty()) {
       throw new GroundVersionNotFoundException(RichVersion.class, id);
     }
 
-    List<DbDataContainer> parameterPredicates = new ArrayList<>();
-    parameterPredicates.add(new DbDataContainer("rich_version_id", GroundType.LONG, id));
     Map<String, String> referenceParameters = new HashMap<>();
-    CassandraResults parameterSet = this.dbClient.equalitySelect("rich_version_external_parameter",
-        DbClient.SELECT_STAR, parameterPredicates);
+    CassandraResults parameterSet = this.dbClient.getResults(parameterFuture);
 
     if (!parameterSet.isEmpty()) {
       do {
@@ -152,7 +200,7 @@ public abstract class CassandraRichVersionFactory<T extends RichVersion>
       } while (parameterSet.next());
     }
 
-    Map<String, Tag> tags = this.tagFactory.retrieveFromDatabaseByVersionId(id);
+    Map<String, Tag> tags = this.tagFactory.getTags(id, tagFuture);
 
     String reference = resultSet.getString("reference");
     long structureVersionId = resultSet.getLong("structure_version_id");
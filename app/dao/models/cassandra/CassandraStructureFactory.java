@@ -14,6 +14,8 @@
 
 package dao.models.cassandra;
 
+import com.datastax.driver.core.ResultSetFuture;
+
 import dao.models.StructureFactory;
 import dao.versions.cassandra.CassandraItemFactory;
 import dao.versions.cassandra.CassandraVersionHistoryDagFactory;
@@ -25,6 +27,7 @@ import exceptions.GroundException;
 import models.models.Structure;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -49,12 +52,14 @@ public class CassandraStructureFactory
    *
    * @param dbClient the Cassandra client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public CassandraStructureFactory(CassandraClient dbClient,
                                    CassandraVersionHistoryDagFactory versionHistoryDagFactory,
                                    CassandraTagFactory tagFactory,
-                                   IdGenerator idGenerator) {
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+                                   IdGenerator idGenerator,
+                                   Caches caches) {
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -73,20 +78,24 @@ public class CassandraStructureFactory
   public Structure create(String name, String sourceKey, Map<String, Tag> tags)
       throws GroundException {
 
-    super.verifyItemNotExists(sourceKey);
-
     long uniqueId = this.idGenerator.generateItemId();
-    super.insertIntoDatabase(uniqueId, tags);
-
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("name", GroundType.STRING, name));
     insertions.add(new DbDataContainer("item_id", GroundType.LONG, uniqueId));
     insertions.add(new DbDataContainer("source_key", GroundType.STRING, sourceKey));
 
-    this.dbClient.insert("structure", insertions);
+    // claim the source key first, so concurrent creates of the same item cannot both succeed
+    super.claimSourceKey("structure_by_source_key", insertions, sourceKey);
+
+    List<ResultSetFuture> writes = super.insertIntoDatabaseAsync(uniqueId, tags);
+    writes.add(this.dbClient.insertAsync("structure", insertions));
+    this.dbClient.awaitAll(writes);
 
     LOGGER.info("Created structure " + name + ".");
-    return new Structure(uniqueId, name, sourceKey, tags);
+    Structure structure = new Structure(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, structure);
+
+    return structure;
   }
 
   /**
@@ -110,8 +119,9 @@ public class CassandraStructureFactory
    * @throws GroundException either the structure doesn't exist or couldn't be retrieved
    */
   @Override
-  public Structure retrieveFromDatabase(String sourceKey) throws GroundException {
-    return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
+  protected Structure loadFromDatabase(String sourceKey) throws GroundException {
+    return this.retrieveByPredicate("structure_by_source_key", "source_key", sourceKey,
+        GroundType.STRING);
   }
 
   /**
@@ -123,16 +133,17 @@ public class CassandraStructureFactory
    */
   @Override
   public Structure retrieveFromDatabase(long id) throws GroundException {
-    return this.retrieveByPredicate("id", id, GroundType.LONG);
+    return this.retrieveByPredicate("structure", "item_id", id, GroundType.LONG);
   }
 
-  private Structure retrieveByPredicate(String fieldName, Object value, GroundType valueType)
+  private Structure retrieveByPredicate(String table, String fieldName, Object value,
+                                        GroundType valueType)
       throws GroundException {
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer(fieldName, valueType, value));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("structure",
+    CassandraResults resultSet = this.dbClient.equalitySelect(table,
         DbClient.SELECT_STAR,
         predicates);
     super.verifyResultSet(resultSet, fieldName, value);
@@ -14,15 +14,21 @@
 
 package dao.models.cassandra;
 
+import com.datastax.driver.core.ResultSetFuture;
+
+import dao.models.StructureVersionCache;
 import dao.models.StructureVersionFactory;
+import dao.models.StructureVersionValidator;
 import dao.versions.cassandra.CassandraVersionFactory;
 import db.CassandraClient;
+import db.CassandraOperation;
 import db.CassandraResults;
 import db.DbClient;
 import db.DbDataContainer;
 import exceptions.GroundException;
 import models.models.StructureVersion;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -44,6 +50,7 @@ public class CassandraStructureVersionFactory
   private final CassandraStructureFactory structureFactory;
 
   private final IdGenerator idGenerator;
+  private final StructureVersionCache structureVersionCache;
 
   /**
    * Constructor for the Cassandra structure version factory.
@@ -51,16 +58,19 @@ public class CassandraStructureVersionFactory
    * @param structureFactory the singleton CassandraStructureFactory
    * @param dbClient the Cassandra client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public CassandraStructureVersionFactory(CassandraClient dbClient,
                                           CassandraStructureFactory structureFactory,
-                                          IdGenerator idGenerator) {
+                                          IdGenerator idGenerator,
+                                          Caches caches) {
 
-    super(dbClient);
+    super(dbClient, caches);
 
     this.dbClient = dbClient;
     this.structureFactory = structureFactory;
     this.idGenerator = idGenerator;
+    this.structureVersionCache = caches.getStructureVersionCache();
   }
 
   /**
@@ -79,14 +89,17 @@ public class CassandraStructureVersionFactory
 
     long id = this.idGenerator.generateVersionId();
 
-    super.insertIntoDatabase(id);
+    List<ResultSetFuture> writes = new ArrayList<>();
+    writes.add(super.insertIntoDatabaseAsync(id));
 
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
     insertions.add(new DbDataContainer("structure_id", GroundType.LONG, structureId));
 
-    this.dbClient.insert("structure_version", insertions);
+    writes.add(this.dbClient.insertAsync("structure_version", insertions,
+        this.getRetentionSeconds()));
 
+    List<List<DbDataContainer>> attributeRows = new ArrayList<>();
     for (String key : attributes.keySet()) {
       List<DbDataContainer> itemInsertions = new ArrayList<>();
       itemInsertions.add(new DbDataContainer("structure_version_id", GroundType.LONG, id));
@@ -94,9 +107,14 @@ public class CassandraStructureVersionFactory
       itemInsertions.add(new DbDataContainer("type", GroundType.STRING,
           attributes.get(key).toString()));
 
-      this.dbClient.insert("structure_version_attribute", itemInsertions);
+      attributeRows.add(itemInsertions);
     }
 
+    writes.addAll(this.dbClient.insertBatchAsync("structure_version_attribute",
+        "structure_version_id", attributeRows, this.getRetentionSeconds()));
+
+    this.dbClient.awaitAll(writes);
+
     this.structureFactory.update(structureId, id, parentIds);
 
     LOGGER.info("Created structure version " + id + " in structure " + structureId + ".");
@@ -111,13 +129,14 @@ public class CassandraStructureVersionFactory
    * @throws GroundException either the version doesn't exist or couldn't be retrieved
    */
   @Override
-  public StructureVersion retrieveFromDatabase(long id) throws GroundException {
+  protected StructureVersion loadFromDatabase(long id) throws GroundException {
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
     CassandraResults resultSet = this.dbClient.equalitySelect("structure_version",
         DbClient.SELECT_STAR,
-        predicates);
+        predicates,
+        CassandraOperation.IMMUTABLE_READ);
     super.verifyResultSet(resultSet, id);
 
     Map<String, GroundType> attributes = new HashMap<>();
@@ -125,7 +144,7 @@ public class CassandraStructureVersionFactory
     List<DbDataContainer> attributePredicates = new ArrayList<>();
     attributePredicates.add(new DbDataContainer("structure_version_id", GroundType.LONG, id));
     CassandraResults attributesSet = this.dbClient.equalitySelect("structure_version_attribute",
-        DbClient.SELECT_STAR, attributePredicates);
+        DbClient.SELECT_STAR, attributePredicates, CassandraOperation.IMMUTABLE_READ, false);
 
     if (attributesSet.isEmpty()) {
       throw new GroundException("No StructureVersion attributes found for id " + id + ".");
@@ -141,4 +160,23 @@ public class CassandraStructureVersionFactory
     LOGGER.info("Retrieved structure version " + id + " in structure " + structureId + ".");
     return new StructureVersion(id, structureId, attributes);
   }
+
+  /**
+   * Retrieve the validator for a structure version, from the structure version cache if it is
+   * there. A miss reads the database directly, since the structure version cache already holds
+   * the structure version and caching it in the version cache as well would keep it twice.
+   *
+   * @param id the id of the structure version
+   * @return the validator
+   * @throws GroundException either the structure version doesn't exist or couldn't be retrieved
+   */
+  @Override
+  public StructureVersionValidator retrieveValidator(long id) throws GroundException {
+    // an expired structure version disappears without the cache hearing about it
+    if (this.getRetentionSeconds() > 0) {
+      return new StructureVersionValidator(this.loadFromDatabase(id));
+    }
+
+    return this.structureVersionCache.get(id, this::loadFromDatabase, this.dbClient);
+  }
 }
@@ -14,8 +14,15 @@
 
 package dao.models.cassandra;
 
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import dao.models.TagFactory;
 import db.CassandraClient;
+import db.CassandraOperation;
+import db.CassandraPage;
 import db.CassandraResults;
 import db.DbClient;
 import db.DbDataContainer;
@@ -24,11 +31,16 @@ import models.models.Tag;
 import models.versions.GroundType;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class CassandraTagFactory implements TagFactory {
+  // the number of partitions each key of the tag key index is spread over
+  @VisibleForTesting
+  static final int TAG_KEY_BUCKETS = 16;
+
   private final CassandraClient dbClient;
 
   public CassandraTagFactory(CassandraClient dbClient) {
@@ -45,17 +57,30 @@ public class CassandraTagFactory implements TagFactory {
     return this.retrieveFromDatabaseById(id, "item");
   }
 
-  private Map<String, Tag> retrieveFromDatabaseById(long id, String keyPrefix)
+  /**
+   * Start retrieving the tags of a version without waiting for them.
+   *
+   * @param id the id of the version
+   * @return a future for the tag rows; pass it to getTags to read them
+   */
+  public ListenableFuture<ResultSet> retrieveFromDatabaseByVersionIdAsync(long id)
       throws GroundException {
+    return this.retrieveFromDatabaseByIdAsync(id, "rich_version");
+  }
 
-    List<DbDataContainer> predicates = new ArrayList<>();
-    predicates.add(new DbDataContainer(keyPrefix + "_id", GroundType.LONG, id));
-
+  /**
+   * Wait for the tags requested by retrieveFromDatabaseByVersionIdAsync.
+   *
+   * @param id the id of the version
+   * @param future the pending tag query
+   * @return the tags of the version
+   * @throws GroundException an error while retrieving the tags
+   */
+  public Map<String, Tag> getTags(long id, ListenableFuture<ResultSet> future)
+      throws GroundException {
     Map<String, Tag> result = new HashMap<>();
 
-    CassandraResults resultSet = this.dbClient.equalitySelect(keyPrefix + "_tag",
-        DbClient.SELECT_STAR,
-        predicates);
+    CassandraResults resultSet = this.dbClient.getResults(future);
 
     if (resultSet.isEmpty()) {
       // this means that there are no tags
@@ -75,6 +100,25 @@ public class CassandraTagFactory implements TagFactory {
     return result;
   }
 
+  private Map<String, Tag> retrieveFromDatabaseById(long id, String keyPrefix)
+      throws GroundException {
+    return this.getTags(id, this.retrieveFromDatabaseByIdAsync(id, keyPrefix));
+  }
+
+  private ListenableFuture<ResultSet> retrieveFromDatabaseByIdAsync(long id, String keyPrefix)
+      throws GroundException {
+    List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer(keyPrefix + "_id", GroundType.LONG, id));
+
+    // the tags of a version are written along with it and never change
+    CassandraOperation operation = keyPrefix.equals("rich_version")
+        ? CassandraOperation.IMMUTABLE_READ : CassandraOperation.MUTABLE_READ;
+
+    // most versions have no tags, so a miss is not retried
+    return this.dbClient.equalitySelectAsync(keyPrefix + "_tag", DbClient.SELECT_STAR,
+        predicates, operation, false);
+  }
+
   @Override
   public List<Long> getVersionIdsByTag(String tag) throws GroundException {
     return this.getIdsByTag(tag, "rich_version");
@@ -85,32 +129,211 @@ public class CassandraTagFactory implements TagFactory {
     return this.getIdsByTag(tag, "item");
   }
 
-  private List<Long> getIdsByTag(String tag, String keyPrefix) throws GroundException {
+  /**
+   * Retrieve one page of the ids of the versions with a given tag.
+   *
+   * @param tag the tag to look for
+   * @param pageSize the maximum number of ids to return
+   * @param pagingState the paging state of the previous page, or null for the first page
+   * @return the ids in this page and the paging state of the next one
+   * @throws GroundException the page size or the paging state was invalid
+   */
+  public CassandraPage<Long> getVersionIdsByTag(String tag, int pageSize, String pagingState)
+      throws GroundException {
+    return this.getIdsByTag(tag, "rich_version", pageSize, pagingState);
+  }
+
+  /**
+   * Retrieve one page of the ids of the items with a given tag.
+   *
+   * @param tag the tag to look for
+   * @param pageSize the maximum number of ids to return
+   * @param pagingState the paging state of the previous page, or null for the first page
+   * @return the ids in this page and the paging state of the next one
+   * @throws GroundException the page size or the paging state was invalid
+   */
+  public CassandraPage<Long> getItemIdsByTag(String tag, int pageSize, String pagingState)
+      throws GroundException {
+    return this.getIdsByTag(tag, "item", pageSize, pagingState);
+  }
+
+  /**
+   * Walk the buckets of the tag key index in order. The paging state is the bucket to resume in,
+   * optionally followed by a colon and the driver's paging state within that bucket.
+   */
+  private CassandraPage<Long> getIdsByTag(String tag, String keyPrefix, int pageSize,
+                                          String pagingState) throws GroundException {
+    if (pageSize < 1) {
+      throw new GroundException("Invalid page size " + pageSize + ".");
+    }
+
     List<Long> result = new ArrayList<>();
 
-    List<DbDataContainer> predicates = new ArrayList<>();
-    predicates.add(new DbDataContainer("key", GroundType.STRING, tag));
+    int bucket = 0;
+    String bucketPagingState = null;
+    if (pagingState != null) {
+      String[] splits = pagingState.split(":", 2);
+
+      try {
+        bucket = Integer.parseInt(splits[0]);
+      } catch (NumberFormatException e) {
+        throw new GroundException("Invalid paging state " + pagingState + ".");
+      }
+
+      if (bucket < 0 || bucket >= TAG_KEY_BUCKETS) {
+        throw new GroundException("Invalid paging state " + pagingState + ".");
+      }
+
+      if (splits.length > 1) {
+        bucketPagingState = splits[1];
+      }
+    }
 
-    List<String> projections = new ArrayList<>();
     String idColumn = keyPrefix + "_id";
+    List<String> projections = new ArrayList<>();
     projections.add(idColumn);
 
-    CassandraResults resultSet = this.dbClient.equalitySelect(keyPrefix + "_tag",
-        projections,
-        predicates);
+    while (bucket < TAG_KEY_BUCKETS) {
+      CassandraResults resultSet = this.dbClient.equalitySelectPage(keyPrefix + "_tag_by_key",
+          projections, this.indexPredicates(tag, bucket), pageSize - result.size(),
+          bucketPagingState);
 
-    if (resultSet.isEmpty()) {
-      // this means that there are no tags
-      return result;
+      if (!resultSet.isEmpty()) {
+        do {
+          result.add(resultSet.getLong(idColumn));
+        } while (resultSet.next());
+      }
+
+      bucketPagingState = resultSet.getPagingState();
+      if (bucketPagingState != null) {
+        return new CassandraPage<>(result, bucket + ":" + bucketPagingState);
+      }
+
+      bucket++;
+      if (result.size() >= pageSize && bucket < TAG_KEY_BUCKETS) {
+        return new CassandraPage<>(result, Integer.toString(bucket));
+      }
     }
 
-    do {
-      result.add(resultSet.getLong(idColumn));
-    } while (resultSet.next());
+    return new CassandraPage<>(result, null);
+  }
+
+  private List<Long> getIdsByTag(String tag, String keyPrefix) throws GroundException {
+    String idColumn = keyPrefix + "_id";
+    List<String> projections = new ArrayList<>();
+    projections.add(idColumn);
+
+    // each bucket is its own partition, so they are all read in parallel
+    List<ListenableFuture<ResultSet>> futures = new ArrayList<>();
+    for (int bucket = 0; bucket < TAG_KEY_BUCKETS; bucket++) {
+      futures.add(this.dbClient.equalitySelectAsync(keyPrefix + "_tag_by_key", projections,
+          this.indexPredicates(tag, bucket)));
+    }
+
+    List<Long> result = new ArrayList<>();
+    for (ListenableFuture<ResultSet> future : futures) {
+      CassandraResults resultSet = this.dbClient.getResults(future);
+
+      if (resultSet.isEmpty()) {
+        continue;
+      }
+
+      do {
+        result.add(resultSet.getLong(idColumn));
+      } while (resultSet.next());
+    }
 
     return result;
   }
 
+  /**
+   * Add the tag keys of an item or version to the tag key index.
+   *
+   * @param keyPrefix either "item" or "rich_version"
+   * @param id the id of the tagged item or version
+   * @param keys the keys of its tags
+   * @param ttl the number of seconds until the index rows expire, or 0 if they never do
+   * @return the futures for the pending writes
+   * @throws GroundException an error while writing the index
+   */
+  public List<ResultSetFuture> insertTagKeyIndexAsync(String keyPrefix, long id,
+                                                      Collection<String> keys, int ttl)
+      throws GroundException {
+    List<List<DbDataContainer>> rows = new ArrayList<>();
+    for (String key : keys) {
+      List<DbDataContainer> row = this.indexPredicates(key, CassandraTagFactory.bucketOf(id));
+      row.add(new DbDataContainer(keyPrefix + "_id", GroundType.LONG, id));
+
+      rows.add(row);
+    }
+
+    return this.dbClient.insertBatchAsync(keyPrefix + "_tag_by_key", "key", rows, ttl);
+  }
+
+  /**
+   * Remove the tag keys of a set of items or versions from the tag key index. This must be called
+   * before their tags are deleted. The tags of every id are read concurrently, and the index rows
+   * that share a key and bucket are removed by a single delete.
+   *
+   * @param keyPrefix either "item" or "rich_version"
+   * @param ids the ids of the tagged items or versions
+   */
+  public void deleteTagKeyIndex(String keyPrefix, List<Long> ids) throws GroundException {
+    List<String> projection = new ArrayList<>();
+    projection.add("key");
+
+    Map<Long, ListenableFuture<ResultSet>> reads = new HashMap<>();
+    for (long id : ids) {
+      List<DbDataContainer> predicates = new ArrayList<>();
+      predicates.add(new DbDataContainer(keyPrefix + "_id", GroundType.LONG, id));
+
+      reads.put(id, this.dbClient.equalitySelectAsync(keyPrefix + "_tag", projection,
+          predicates));
+    }
+
+    // the ids to remove from each index partition, keyed by tag key and then bucket
+    Map<String, Map<Integer, List<DbDataContainer>>> partitions = new HashMap<>();
+    for (Map.Entry<Long, ListenableFuture<ResultSet>> read : reads.entrySet()) {
+      CassandraResults resultSet = this.dbClient.getResults(read.getValue());
+
+      if (resultSet.isEmpty()) {
+        continue;
+      }
+
+      long id = read.getKey();
+      do {
+        partitions.computeIfAbsent(resultSet.getString("key"), key -> new HashMap<>())
+            .computeIfAbsent(CassandraTagFactory.bucketOf(id), bucket -> new ArrayList<>())
+            .add(new DbDataContainer(keyPrefix + "_id", GroundType.LONG, id));
+      } while (resultSet.next());
+    }
+
+    List<ResultSetFuture> deletes = new ArrayList<>();
+    for (Map.Entry<String, Map<Integer, List<DbDataContainer>>> key : partitions.entrySet()) {
+      for (Map.Entry<Integer, List<DbDataContainer>> bucket : key.getValue().entrySet()) {
+        deletes.addAll(this.dbClient.deleteInAsync(
+            this.indexPredicates(key.getKey(), bucket.getKey()), bucket.getValue(),
+            keyPrefix + "_tag_by_key"));
+      }
+    }
+
+    this.dbClient.awaitAll(deletes);
+  }
+
+  private List<DbDataContainer> indexPredicates(String key, int bucket)
+      throws GroundException {
+    List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer("key", GroundType.STRING, key));
+    predicates.add(new DbDataContainer("bucket", GroundType.INTEGER, bucket));
+
+    return predicates;
+  }
+
+  @VisibleForTesting
+  static int bucketOf(long id) {
+    return Math.floorMod(Long.hashCode(id), TAG_KEY_BUCKETS);
+  }
+
   private Object getValue(GroundType type, CassandraResults resultSet) throws GroundException {
     if (type == null) {
       return null;
@@ -27,6 +27,7 @@ import models.models.EdgeVersion;
 import models.models.Tag;
 import models.versions.GroundType;
 import models.versions.VersionHistoryDag;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -52,13 +53,15 @@ public class Neo4jEdgeFactory extends Neo4jItemFactory<Edge> implements EdgeFact
    * @param dbClient the Neo4j client
    * @param idGenerator a unique ID generator
    * @param versionHistoryDagFactory a Neo4jVersionHistoryDAGFactory singleton
+   * @param caches the caches shared by the factories
    */
   public Neo4jEdgeFactory(Neo4jClient dbClient,
                           Neo4jVersionHistoryDagFactory versionHistoryDagFactory,
                           Neo4jTagFactory tagFactory,
-                          IdGenerator idGenerator) {
+                          IdGenerator idGenerator,
+                          Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -103,7 +106,10 @@ public class Neo4jEdgeFactory extends Neo4jItemFactory<Edge> implements EdgeFact
     this.dbClient.addVertex("GroundEdge", insertions);
 
     LOGGER.info("Created edge " + name + ".");
-    return new Edge(uniqueId, name, sourceKey, fromNodeId, toNodeId, tags);
+    Edge edge = new Edge(uniqueId, name, sourceKey, fromNodeId, toNodeId, tags);
+    super.cacheItem(sourceKey, edge);
+
+    return edge;
   }
 
   /**
@@ -120,7 +126,7 @@ public class Neo4jEdgeFactory extends Neo4jItemFactory<Edge> implements EdgeFact
   }
 
   @Override
-  public Edge retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected Edge loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
   }
 
@@ -131,20 +137,17 @@ public class Neo4jEdgeFactory extends Neo4jItemFactory<Edge> implements EdgeFact
 
   private Edge retrieveByPredicate(String fieldName, Object value, GroundType valueType)
       throws GroundException {
-    List<DbDataContainer> predicates = new ArrayList<>();
-    predicates.add(new DbDataContainer(fieldName, valueType, value));
-
-    Record record = this.dbClient.getVertex(predicates);
-    super.verifyResultSet(record, fieldName, value);
+    Record record = super.retrieveItemVertex("GroundEdge", fieldName, value, valueType,
+        "from_node_id", "to_node_id");
 
-    long id = record.get("v").asNode().get("id").asLong();
-    long fromNodeId = record.get("v").asNode().get("from_node_id").asLong();
-    long toNodeId = record.get("v").asNode().get("to_node_id").asLong();
+    long id = record.get("id").asLong();
+    long fromNodeId = record.get("from_node_id").asLong();
+    long toNodeId = record.get("to_node_id").asLong();
 
-    String name = record.get("v").asNode().get("name").asString();
-    String sourceKey = record.get("v").asNode().get("source_key").asString();
+    String name = record.get("name").asString();
+    String sourceKey = record.get("source_key").asString();
 
-    Map<String, Tag> tags = super.retrieveItemTags(id);
+    Map<String, Tag> tags = super.retrieveItemTags(id, record);
 
 
     LOGGER.info("Retrieved edge " + name + ".");
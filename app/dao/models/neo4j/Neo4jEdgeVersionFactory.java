@@ -23,9 +23,11 @@ import models.models.EdgeVersion;
 import models.models.RichVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -49,14 +51,16 @@ public class Neo4jEdgeVersionFactory
    * @param edgeFactory the Neo4jEdgeFactory singleton
    * @param dbClient the Neo4j client
    * @param idGenerator a unique ID generator
+   * @param caches the caches shared by the factories
    */
   public Neo4jEdgeVersionFactory(Neo4jClient dbClient,
                                  Neo4jEdgeFactory edgeFactory,
                                  Neo4jStructureVersionFactory structureVersionFactory,
                                  Neo4jTagFactory tagFactory,
-                                 IdGenerator idGenerator) {
+                                 IdGenerator idGenerator,
+                                 Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.edgeFactory = edgeFactory;
@@ -105,21 +109,23 @@ public class Neo4jEdgeVersionFactory
         toNodeVersionStartId));
     insertions.add(new DbDataContainer("to_node_end_id", GroundType.LONG, toNodeVersionEndId));
 
-    this.dbClient.addVertex("EdgeVersion", insertions);
-    super.insertIntoDatabase(id, tags, structureVersionId, reference,
-        referenceParameters);
-
-    this.dbClient.addEdge("EdgeVersionConnection", fromNodeVersionStartId, id, new ArrayList<>());
-    this.dbClient.addEdge("EdgeVersionConnection", id, toNodeVersionStartId, new ArrayList<>());
+    List<Long> incomingIds = new ArrayList<>();
+    incomingIds.add(fromNodeVersionStartId);
 
     if (fromNodeVersionEndId != -1) {
-      this.dbClient.addEdge("EdgeVersionConnection", fromNodeVersionEndId, id, new ArrayList<>());
+      incomingIds.add(fromNodeVersionEndId);
     }
 
     if (toNodeVersionEndId != -1) {
-      this.dbClient.addEdge("EdgeVersionConnection", toNodeVersionEndId, id, new ArrayList<>());
+      incomingIds.add(toNodeVersionEndId);
     }
 
+    List<Long> outgoingIds = new ArrayList<>();
+    outgoingIds.add(toNodeVersionStartId);
+
+    super.insertIntoDatabase("EdgeVersion", insertions, id, tags, structureVersionId, reference,
+        referenceParameters, "EdgeVersionConnection", incomingIds, outgoingIds);
+
     this.edgeFactory.update(edgeId, id, parentIds);
 
     LOGGER.info("Created edge version " + id + " in edge " + edgeId + ".");
@@ -135,23 +141,25 @@ public class Neo4jEdgeVersionFactory
    * @throws GroundException either the version doesn't exist or wasn't able to be retrieved
    */
   @Override
-  public EdgeVersion retrieveFromDatabase(long id) throws GroundException {
+  protected EdgeVersion loadFromDatabase(long id) throws GroundException {
     final RichVersion version = super.retrieveRichVersionData(id);
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    Record versionRecord = this.dbClient.getVertex("EdgeVersion", predicates);
+    Record versionRecord = this.dbClient.getVertexProperties("EdgeVersion", predicates,
+        Arrays.asList("edge_id", "from_node_start_id",
+        "from_node_end_id", "to_node_start_id", "to_node_end_id"));
     super.verifyResultSet(versionRecord, id);
 
-    long edgeId = versionRecord.get("v").asNode() .get("edge_id").asLong();
-    long fromNodeVersionStartId = versionRecord.get("v").asNode().get("from_node_start_id")
+    long edgeId = versionRecord.get("edge_id").asLong();
+    long fromNodeVersionStartId = versionRecord.get("from_node_start_id")
         .asLong();
-    long fromNodeVersionEndId = versionRecord.get("v").asNode().get("from_node_end_id")
+    long fromNodeVersionEndId = versionRecord.get("from_node_end_id")
         .asLong();
-    long toNodeVersionStartId = versionRecord.get("v").asNode().get("to_node_start_id")
+    long toNodeVersionStartId = versionRecord.get("to_node_start_id")
         .asLong();
-    long toNodeVersionEndId = versionRecord.get("v").asNode().get("to_node_end_id")
+    long toNodeVersionEndId = versionRecord.get("to_node_end_id")
         .asLong();
 
     LOGGER.info("Retrieved edge version " + id + " in edge " + edgeId + ".");
@@ -174,5 +182,7 @@ public class Neo4jEdgeVersionFactory
       this.dbClient.setProperty(id, "to_node_end_id", toEndId, false);
       this.dbClient.addEdge("EdgeVersionConnection", id, toEndId, new ArrayList<>());
     }
+
+    this.evictFromCache(id);
   }
 }
@@ -23,6 +23,7 @@ import exceptions.GroundException;
 import models.models.Graph;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -45,13 +46,15 @@ public class Neo4jGraphFactory extends Neo4jItemFactory<Graph> implements GraphF
    *
    * @param dbClient the Neo4j client
    * @param idGenerator a unique ID generator
+   * @param caches the caches shared by the factories
    */
   public Neo4jGraphFactory(Neo4jClient dbClient,
                            Neo4jVersionHistoryDagFactory versionHistoryDagFactory,
                            Neo4jTagFactory tagFactory,
-                           IdGenerator idGenerator) {
+                           IdGenerator idGenerator,
+                           Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -82,7 +85,10 @@ public class Neo4jGraphFactory extends Neo4jItemFactory<Graph> implements GraphF
 
     LOGGER.info("Created graph " + name + ".");
 
-    return new Graph(uniqueId, name, sourceKey, tags);
+    Graph graph = new Graph(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, graph);
+
+    return graph;
   }
 
   /**
@@ -106,7 +112,7 @@ public class Neo4jGraphFactory extends Neo4jItemFactory<Graph> implements GraphF
    * @throws GroundException either the graph doesn't exist or couldn't be retrieved
    */
   @Override
-  public Graph retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected Graph loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
   }
 
@@ -125,17 +131,13 @@ public class Neo4jGraphFactory extends Neo4jItemFactory<Graph> implements GraphF
   private Graph retrieveByPredicate(String fieldName, Object value, GroundType valueType)
       throws GroundException {
 
-    List<DbDataContainer> predicates = new ArrayList<>();
-    predicates.add(new DbDataContainer(fieldName, valueType, value));
-
-    Record record = this.dbClient.getVertex(predicates);
-    super.verifyResultSet(record, fieldName, value);
+    Record record = super.retrieveItemVertex("Graph", fieldName, value, valueType);
 
-    long id = record.get("v").asNode().get("id").asLong();
-    String name = record.get("v").asNode().get("name").asString();
-    String sourceKey = record.get("v").asNode().get("source_key").asString();
+    long id = record.get("id").asLong();
+    String name = record.get("name").asString();
+    String sourceKey = record.get("source_key").asString();
 
-    Map<String, Tag> tags = super.retrieveItemTags(id);
+    Map<String, Tag> tags = super.retrieveItemTags(id, record);
 
     LOGGER.info("Retrieved graph " + value + ".");
 
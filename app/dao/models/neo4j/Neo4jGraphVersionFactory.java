@@ -23,9 +23,11 @@ import models.models.GraphVersion;
 import models.models.RichVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -49,14 +51,16 @@ public class Neo4jGraphVersionFactory
    * @param graphFactory the singleton Neo4jGraphFactory
    * @param dbClient the Neo4jClient
    * @param idGenerator a unique ID generator
+   * @param caches the caches shared by the factories
    */
   public Neo4jGraphVersionFactory(Neo4jClient dbClient,
                                   Neo4jGraphFactory graphFactory,
                                   Neo4jStructureVersionFactory structureVersionFactory,
                                   Neo4jTagFactory tagFactory,
-                                  IdGenerator idGenerator) {
+                                  IdGenerator idGenerator,
+                                  Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.graphFactory = graphFactory;
@@ -93,12 +97,8 @@ public class Neo4jGraphVersionFactory
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
     insertions.add(new DbDataContainer("graph_id", GroundType.LONG, graphId));
 
-    this.dbClient.addVertex("GraphVersion", insertions);
-    super.insertIntoDatabase(id, tags, structureVersionId, reference, referenceParameters);
-
-    for (long edgeVersionId : edgeVersionIds) {
-      this.dbClient.addEdge("GraphVersionEdge", id, edgeVersionId, new ArrayList<>());
-    }
+    super.insertIntoDatabase("GraphVersion", insertions, id, tags, structureVersionId, reference,
+        referenceParameters, "GraphVersionEdge", new ArrayList<>(), edgeVersionIds);
 
     this.graphFactory.update(graphId, id, parentIds);
 
@@ -117,13 +117,14 @@ public class Neo4jGraphVersionFactory
    * @throws GroundException either the graph version doesn't exist or couldn't be retrieved
    */
   @Override
-  public GraphVersion retrieveFromDatabase(long id) throws GroundException {
+  protected GraphVersion loadFromDatabase(long id) throws GroundException {
     final RichVersion version = super.retrieveRichVersionData(id);
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    Record versionRecord = this.dbClient.getVertex(predicates);
+    Record versionRecord = this.dbClient.getVertexProperties("GraphVersion", predicates,
+        Arrays.asList("graph_id"));
     super.verifyResultSet(versionRecord, id);
 
     List<String> returnFields = new ArrayList<>();
@@ -137,7 +138,7 @@ public class Neo4jGraphVersionFactory
         edgeVersionIds.add(edgeVersionVertex.get("id").asLong())
     );
 
-    long graphId = versionRecord.get("v") .asNode().get("graph_id").asLong();
+    long graphId = versionRecord.get("graph_id").asLong();
 
     LOGGER.info("Retrieved graph version " + id + " in graph " + graphId + ".");
     return new GraphVersion(id, version.getTags(), version.getStructureVersionId(),
@@ -23,6 +23,7 @@ import exceptions.GroundException;
 import models.models.Node;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -44,13 +45,15 @@ public class Neo4jNodeFactory extends Neo4jItemFactory<Node> implements NodeFact
    *
    * @param dbClient the Neo4j client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public Neo4jNodeFactory(Neo4jClient dbClient,
                           Neo4jVersionHistoryDagFactory versionHistoryDagFactory,
                           Neo4jTagFactory tagFactory,
-                          IdGenerator idGenerator) {
+                          IdGenerator idGenerator,
+                          Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -81,7 +84,10 @@ public class Neo4jNodeFactory extends Neo4jItemFactory<Node> implements NodeFact
 
     LOGGER.info("Created node " + name + ".");
 
-    return new Node(uniqueId, name, sourceKey, tags);
+    Node node = new Node(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, node);
+
+    return node;
   }
 
   /**
@@ -105,7 +111,7 @@ public class Neo4jNodeFactory extends Neo4jItemFactory<Node> implements NodeFact
    * @throws GroundException either the node doesn't exist or couldn't be retrieved
    */
   @Override
-  public Node retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected Node loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
   }
 
@@ -118,23 +124,19 @@ public class Neo4jNodeFactory extends Neo4jItemFactory<Node> implements NodeFact
    */
   @Override
   public Node retrieveFromDatabase(long id) throws GroundException {
-    return this.retrieveByPredicate("id", id, GroundType.STRING);
+    return this.retrieveByPredicate("id", id, GroundType.LONG);
   }
 
   private Node retrieveByPredicate(String fieldName, Object value, GroundType valueType)
       throws GroundException {
 
-    List<DbDataContainer> predicates = new ArrayList<>();
-    predicates.add(new DbDataContainer(fieldName, valueType, value));
-
-    Record record = this.dbClient.getVertex("Node", predicates);
-    super.verifyResultSet(record, fieldName, value);
+    Record record = super.retrieveItemVertex("Node", fieldName, value, valueType);
 
-    long id = record.get("v").asNode().get("id").asLong();
-    String name = record.get("v").asNode().get("name").asString();
-    String sourceKey = record.get("v").asNode().get("source_key").asString();
+    long id = record.get("id").asLong();
+    String name = record.get("name").asString();
+    String sourceKey = record.get("source_key").asString();
 
-    Map<String, Tag> tags = super.retrieveItemTags(id);
+    Map<String, Tag> tags = super.retrieveItemTags(id, record);
 
     LOGGER.info("Retrieved node " + value + ".");
 
@@ -23,9 +23,11 @@ import models.models.NodeVersion;
 import models.models.RichVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -48,14 +50,16 @@ public class Neo4jNodeVersionFactory
    * @param nodeFactory the singleton Neo4jNodeFactory
    * @param dbClient the Neo4j client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public Neo4jNodeVersionFactory(Neo4jClient dbClient,
                                  Neo4jNodeFactory nodeFactory,
                                  Neo4jStructureVersionFactory structureVersionFactory,
                                  Neo4jTagFactory tagFactory,
-                                 IdGenerator idGenerator) {
+                                 IdGenerator idGenerator,
+                                 Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.nodeFactory = nodeFactory;
@@ -91,8 +95,8 @@ public class Neo4jNodeVersionFactory
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
     insertions.add(new DbDataContainer("node_id", GroundType.LONG, nodeId));
 
-    this.dbClient.addVertex("NodeVersion", insertions);
-    super.insertIntoDatabase(id, tags, structureVersionId, reference, referenceParameters);
+    super.insertIntoDatabase("NodeVersion", insertions, id, tags, structureVersionId, reference,
+        referenceParameters, null, new ArrayList<>(), new ArrayList<>());
 
     this.nodeFactory.update(nodeId, id, parentIds);
 
@@ -108,16 +112,17 @@ public class Neo4jNodeVersionFactory
    * @throws GroundException either the version doesn't exist or couldn't be retrieved
    */
   @Override
-  public NodeVersion retrieveFromDatabase(long id) throws GroundException {
+  protected NodeVersion loadFromDatabase(long id) throws GroundException {
     final RichVersion version = super.retrieveRichVersionData(id);
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    Record record = this.dbClient.getVertex(predicates);
+    Record record = this.dbClient.getVertexProperties("NodeVersion", predicates,
+        Arrays.asList("node_id"));
     super.verifyResultSet(record, id);
 
-    long nodeId = record.get("v").asNode(). get("node_id").asLong();
+    long nodeId = record.get("node_id").asLong();
     LOGGER.info("Retrieved node version " + id + " in node " + nodeId + ".");
 
     return new NodeVersion(id, version.getTags(), version.getStructureVersionId(),
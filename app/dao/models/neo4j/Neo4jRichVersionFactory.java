@@ -22,18 +22,19 @@ import exceptions.GroundDbException;
 import exceptions.GroundException;
 import exceptions.GroundVersionNotFoundException;
 import models.models.RichVersion;
-import models.models.StructureVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.neo4j.driver.internal.value.NullValue;
-import org.neo4j.driver.internal.value.StringValue;
 import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
 
 public abstract  class Neo4jRichVersionFactory<T extends RichVersion>
     extends Neo4jVersionFactory<T>
@@ -48,10 +49,14 @@ public abstract  class Neo4jRichVersionFactory<T extends RichVersion>
    * @param dbClient the Neo4j client
    * @param structureVersionFactory the singleton Neo4jStructureVerisonFactory
    * @param tagFactory the singleton Neo4jTagFactory
+   * @param caches the caches shared by the factories
    */
   public Neo4jRichVersionFactory(Neo4jClient dbClient,
                                  Neo4jStructureVersionFactory structureVersionFactory,
-                                 Neo4jTagFactory tagFactory) {
+                                 Neo4jTagFactory tagFactory,
+                                 Caches caches) {
+    super(dbClient, caches);
+
     this.dbClient = dbClient;
     this.structureVersionFactory = structureVersionFactory;
     this.tagFactory = tagFactory;
@@ -75,23 +80,12 @@ public abstract  class Neo4jRichVersionFactory<T extends RichVersion>
                                  Map<String, String> referenceParameters
   ) throws GroundException {
     if (structureVersionId != -1) {
-      StructureVersion structureVersion =
-          this.structureVersionFactory.retrieveFromDatabase(structureVersionId);
-      RichVersionFactory.checkStructureTags(structureVersion, tags);
+      this.structureVersionFactory.retrieveValidator(structureVersionId).validate(tags);
     }
 
-    for (String key : referenceParameters.keySet()) {
-      String value = referenceParameters.get(key);
-
-      List<DbDataContainer> insertions = new ArrayList<>();
-      insertions.add(new DbDataContainer("rich_version_id", GroundType.LONG, id));
-      insertions.add(new DbDataContainer("pkey", GroundType.STRING, key));
-      insertions.add(new DbDataContainer("value", GroundType.STRING, value));
-
+    for (List<DbDataContainer> insertions : this.parameterVertices(id, referenceParameters)) {
       this.dbClient.addVertexAndEdge("RichVersionExternalParameter", insertions,
           "RichVersionExternalParameterConnection", id, new ArrayList<>());
-
-      insertions.clear();
     }
 
     if (structureVersionId != -1) {
@@ -102,6 +96,73 @@ public abstract  class Neo4jRichVersionFactory<T extends RichVersion>
       this.dbClient.setProperty(id, "reference", reference, true);
     }
 
+    if (this.tagFactory.storesTagsAsProperties()) {
+      this.dbClient.setProperties(id, this.tagFactory.toVersionProperties(tags));
+      return;
+    }
+
+    for (List<DbDataContainer> tagInsertion : this.tagVertices(id, tags)) {
+      this.dbClient.addVertexAndEdge("RichVersionTag", tagInsertion, "RichVersionTagConnection",
+          id, new ArrayList<>());
+    }
+  }
+
+  /**
+   * Create a version vertex together with its rich version data and its edges to other versions
+   * in a single statement.
+   *
+   * @param label the label of the version vertex (e.g. EdgeVersion)
+   * @param attributes the type-specific attributes of the version, including its id
+   * @param id the id of the version
+   * @param tags tags associated with this version
+   * @param structureVersionId the id of the StructureVersion associated with this version
+   * @param reference an optional external reference
+   * @param referenceParameters access parameters for the reference
+   * @param connectionLabel the label of the edges to other versions, or null if there are none
+   * @param incomingIds the ids of the versions with an edge to this one
+   * @param outgoingIds the ids of the versions this one has an edge to
+   * @throws GroundException the tags don't match the structure version, or an error while
+   *     persisting data
+   */
+  protected void insertIntoDatabase(String label,
+                                    List<DbDataContainer> attributes,
+                                    long id,
+                                    Map<String, Tag> tags,
+                                    long structureVersionId,
+                                    String reference,
+                                    Map<String, String> referenceParameters,
+                                    String connectionLabel,
+                                    List<Long> incomingIds,
+                                    List<Long> outgoingIds) throws GroundException {
+    if (structureVersionId != -1) {
+      this.structureVersionFactory.retrieveValidator(structureVersionId).validate(tags);
+    }
+
+    List<DbDataContainer> insertions = new ArrayList<>(attributes);
+
+    if (structureVersionId != -1) {
+      insertions.add(new DbDataContainer("structure_id", GroundType.LONG, structureVersionId));
+    }
+
+    insertions.add(new DbDataContainer("reference", GroundType.STRING, reference));
+
+    Map<String, List<List<DbDataContainer>>> children = new LinkedHashMap<>();
+    if (this.tagFactory.storesTagsAsProperties()) {
+      insertions.addAll(this.tagFactory.toVersionProperties(tags));
+    } else {
+      children.put("RichVersionTag", this.tagVertices(id, tags));
+    }
+    children.put("RichVersionExternalParameter",
+        this.parameterVertices(id, referenceParameters));
+
+    this.dbClient.addVertexWithNeighbors(label, insertions, children, connectionLabel,
+        incomingIds, outgoingIds);
+  }
+
+  private List<List<DbDataContainer>> tagVertices(long id, Map<String, Tag> tags)
+      throws GroundException {
+    List<List<DbDataContainer>> vertices = new ArrayList<>();
+
     for (String key : tags.keySet()) {
       Tag tag = tags.get(key);
 
@@ -119,10 +180,28 @@ public abstract  class Neo4jRichVersionFactory<T extends RichVersion>
         tagInsertion.add(new DbDataContainer("type", GroundType.STRING, null));
       }
 
-      this.dbClient.addVertexAndEdge("RichVersionTag", tagInsertion, "RichVersionTagConnection",
-          id, new ArrayList<>());
-      tagInsertion.clear();
+      vertices.add(tagInsertion);
+    }
+
+    return vertices;
+  }
+
+  private List<List<DbDataContainer>> parameterVertices(long id,
+                                                        Map<String, String> referenceParameters)
+      throws GroundException {
+    List<List<DbDataContainer>> vertices = new ArrayList<>();
+
+    for (String key : referenceParameters.keySet()) {
+      List<DbDataContainer> insertions = new ArrayList<>();
+      insertions.add(new DbDataContainer("rich_version_id", GroundType.LONG, id));
+      insertions.add(new DbDataContainer("pkey", GroundType.STRING, key));
+      insertions.add(new DbDataContainer("value", GroundType.STRING,
+          referenceParameters.get(key)));
+
+      vertices.add(insertions);
     }
+
+    return vertices;
   }
 
   /**
@@ -133,46 +212,42 @@ public abstract  class Neo4jRichVersionFactory<T extends RichVersion>
    * @throws GroundException either the rich version didn't exist or couldn't be retrieved
    */
   public RichVersion retrieveRichVersionData(long id) throws GroundException {
-    List<DbDataContainer> predicates = new ArrayList<>();
-    predicates.add(new DbDataContainer("id", GroundType.LONG, id));
+    // the version, its parameters and its tags are read in one round trip
+    boolean tagsAsProperties = this.tagFactory.storesTagsAsProperties();
+
+    List<String> returnFields = new ArrayList<>();
+    returnFields.add("reference");
+    returnFields.add("structure_id");
+
+    Map<String, List<String>> adjacentFields = new LinkedHashMap<>();
+    adjacentFields.put("RichVersionExternalParameterConnection", Arrays.asList("pkey", "value"));
+    if (!tagsAsProperties) {
+      adjacentFields.put("RichVersionTagConnection", Arrays.asList("tkey", "value", "type"));
+    }
 
-    Record record = this.dbClient.getVertex(predicates);
+    Record record = this.dbClient.getVertexWithAdjacentVertices(id, returnFields,
+        tagsAsProperties, adjacentFields);
 
     if (record == null) {
       throw new GroundVersionNotFoundException(this.getType(), id);
     }
 
-    List<String> returnFields = new ArrayList<>();
-    returnFields.add("pkey");
-    returnFields.add("value");
-
-    List<Record> parameterVertices = this.dbClient.getAdjacentVerticesByEdgeLabel(
-        "RichVersionExternalParameterConnection", id, returnFields);
     Map<String, String> referenceParameters = new HashMap<>();
-
-    if (!parameterVertices.isEmpty()) {
-      for (Record parameter : parameterVertices) {
-        referenceParameters.put(Neo4jClient.getStringFromValue((StringValue) parameter.get("pkey")),
-            Neo4jClient.getStringFromValue((StringValue) parameter.get("value")));
-      }
+    for (Value parameter : record.get("RichVersionExternalParameterConnection").values()) {
+      referenceParameters.put(parameter.get("pkey").asString(), parameter.get("value").asString());
     }
 
-    Map<String, Tag> tags = tagFactory.retrieveFromDatabaseByVersionId(id);
-
-    String reference;
-    if (record.get("v").asNode().get("reference") instanceof NullValue) {
-      reference = null;
+    Map<String, Tag> tags;
+    if (tagsAsProperties) {
+      tags = this.tagFactory.retrieveFromVersionProperties(id, record.get("properties"));
     } else {
-      reference = Neo4jClient.getStringFromValue((StringValue) record.get("v").asNode()
-          .get("reference"));
+      tags = this.tagFactory.retrieveFromVertices(id, record.get("RichVersionTagConnection"));
     }
 
-    long structureVersionId;
-    if (record.get("v").asNode().get("structure_id") instanceof NullValue) {
-      structureVersionId = -1;
-    } else {
-      structureVersionId = record.get("v").asNode().get("structure_id").asLong();
-    }
+    String reference = record.get("reference").isNull() ? null
+        : record.get("reference").asString();
+    long structureVersionId = record.get("structure_id").isNull() ? -1
+        : record.get("structure_id").asLong();
 
     return new RichVersion(id, tags, structureVersionId, reference, referenceParameters);
   }
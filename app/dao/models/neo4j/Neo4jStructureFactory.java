@@ -23,6 +23,7 @@ import exceptions.GroundException;
 import models.models.Structure;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -45,13 +46,15 @@ public class Neo4jStructureFactory extends Neo4jItemFactory<Structure> implement
    *
    * @param dbClient the Neo4j client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public Neo4jStructureFactory(Neo4jClient dbClient,
                                Neo4jVersionHistoryDagFactory versionHistoryDagFactory,
                                Neo4jTagFactory tagFactory,
-                               IdGenerator idGenerator) {
+                               IdGenerator idGenerator,
+                               Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -83,7 +86,10 @@ public class Neo4jStructureFactory extends Neo4jItemFactory<Structure> implement
     LOGGER.info("Created structure " + name + ".");
     super.insertIntoDatabase(uniqueId, tags);
 
-    return new Structure(uniqueId, name, sourceKey, tags);
+    Structure structure = new Structure(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, structure);
+
+    return structure;
   }
 
   /**
@@ -107,7 +113,7 @@ public class Neo4jStructureFactory extends Neo4jItemFactory<Structure> implement
    * @throws GroundException either the structure doesn't exist or couldn't be retrieved
    */
   @Override
-  public Structure retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected Structure loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
   }
 
@@ -120,23 +126,19 @@ public class Neo4jStructureFactory extends Neo4jItemFactory<Structure> implement
    */
   @Override
   public Structure retrieveFromDatabase(long id) throws GroundException {
-    return this.retrieveByPredicate("id", id, GroundType.STRING);
+    return this.retrieveByPredicate("id", id, GroundType.LONG);
   }
 
   private Structure retrieveByPredicate(String fieldName, Object value, GroundType valueType)
       throws GroundException {
 
-    List<DbDataContainer> predicates = new ArrayList<>();
-    predicates.add(new DbDataContainer(fieldName, valueType, value));
-
-    Record record = this.dbClient.getVertex("Structure", predicates);
-    super.verifyResultSet(record, fieldName, value);
+    Record record = super.retrieveItemVertex("Structure", fieldName, value, valueType);
 
-    long id = record.get("v").asNode().get("id").asLong();
-    String name = record.get("v").asNode().get("name").asString();
-    String sourceKey = record.get("v").asNode().get("source_key").asString();
+    long id = record.get("id").asLong();
+    String name = record.get("name").asString();
+    String sourceKey = record.get("source_key").asString();
 
-    Map<String, Tag> tags = super.retrieveItemTags(id);
+    Map<String, Tag> tags = super.retrieveItemTags(id, record);
 
     LOGGER.info("Retrieved structure " + value + ".");
 
@@ -14,7 +14,9 @@
 
 package dao.models.neo4j;
 
+import dao.models.StructureVersionCache;
 import dao.models.StructureVersionFactory;
+import dao.models.StructureVersionValidator;
 import dao.versions.neo4j.Neo4jVersionFactory;
 import db.DbDataContainer;
 import db.Neo4jClient;
@@ -22,14 +24,16 @@ import exceptions.GroundDbException;
 import exceptions.GroundException;
 import models.models.StructureVersion;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.neo4j.driver.internal.value.StringValue;
 import org.neo4j.driver.v1.Record;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +47,7 @@ public class Neo4jStructureVersionFactory
   private final Neo4jStructureFactory structureFactory;
 
   private final IdGenerator idGenerator;
+  private final StructureVersionCache structureVersionCache;
 
   /**
    * Constructor for the Neo4j structure version factory.
@@ -50,13 +55,18 @@ public class Neo4jStructureVersionFactory
    * @param structureFactory the singleton Neo4jStructureFactory
    * @param dbClient the Neo4j client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public Neo4jStructureVersionFactory(Neo4jClient dbClient,
                                       Neo4jStructureFactory structureFactory,
-                                      IdGenerator idGenerator) {
+                                      IdGenerator idGenerator,
+                                      Caches caches) {
+    super(dbClient, caches);
+
     this.dbClient = dbClient;
     this.structureFactory = structureFactory;
     this.idGenerator = idGenerator;
+    this.structureVersionCache = caches.getStructureVersionCache();
   }
 
   /**
@@ -78,8 +88,7 @@ public class Neo4jStructureVersionFactory
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
     insertions.add(new DbDataContainer("structure_id", GroundType.LONG, structureId));
 
-    this.dbClient.addVertex("StructureVersion", insertions);
-
+    List<List<DbDataContainer>> items = new ArrayList<>();
     for (String key : attributes.keySet()) {
       List<DbDataContainer> itemInsertions = new ArrayList<>();
       itemInsertions.add(new DbDataContainer("svid", GroundType.LONG, id));
@@ -87,10 +96,14 @@ public class Neo4jStructureVersionFactory
       itemInsertions.add(new DbDataContainer("stype", GroundType.STRING,
           attributes.get(key).toString()));
 
-      this.dbClient.addVertexAndEdge("StructureVersionItem", itemInsertions,
-          "StructureVersionItemConnection", id, new ArrayList<>());
+      items.add(itemInsertions);
     }
 
+    // the version and all of its attribute vertices are created by a single statement
+    this.dbClient.addVertexWithNeighbors("StructureVersion", insertions,
+        Collections.singletonMap("StructureVersionItem", items), null, new ArrayList<>(),
+        new ArrayList<>());
+
     this.structureFactory.update(structureId, id, parentIds);
 
     LOGGER.info("Created structure version " + id + " in structure " + structureId + ".");
@@ -106,14 +119,15 @@ public class Neo4jStructureVersionFactory
    * @throws GroundException either the version doesn't exist or couldn't be retrieved
    */
   @Override
-  public StructureVersion retrieveFromDatabase(long id) throws GroundException {
+  protected StructureVersion loadFromDatabase(long id) throws GroundException {
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    Record record = this.dbClient.getVertex(predicates);
+    Record record = this.dbClient.getVertexProperties("StructureVersion", predicates,
+        Arrays.asList("structure_id"));
     super.verifyResultSet(record, id);
 
-    long structureId = record.get("v").asNode().get("structure_id").asLong();
+    long structureId = record.get("structure_id").asLong();
 
     List<String> returnFields = new ArrayList<>();
     returnFields.add("svid");
@@ -126,13 +140,26 @@ public class Neo4jStructureVersionFactory
 
 
     for (Record edge : edges) {
-      attributes.put(Neo4jClient.getStringFromValue((StringValue) edge.get("skey")),
-          GroundType.fromString(Neo4jClient.getStringFromValue((StringValue) edge.get("stype")))
-      );
+      attributes.put(edge.get("skey").asString(),
+          GroundType.fromString(edge.get("stype").asString()));
     }
 
     LOGGER.info("Retrieved structure version " + id + " in structure " + structureId + ".");
 
     return new StructureVersion(id, structureId, attributes);
   }
+
+  /**
+   * Retrieve the validator for a structure version, from the structure version cache if it is
+   * there. A miss reads the database directly, since the structure version cache already holds
+   * the structure version and caching it in the version cache as well would keep it twice.
+   *
+   * @param id the id of the structure version
+   * @return the validator
+   * @throws GroundException either the structure version doesn't exist or couldn't be retrieved
+   */
+  @Override
+  public StructureVersionValidator retrieveValidator(long id) throws GroundException {
+    return this.structureVersionCache.get(id, this::loadFromDatabase, this.dbClient);
+  }
 }
@@ -27,29 +27,63 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.neo4j.driver.internal.value.NullValue;
-import org.neo4j.driver.internal.value.StringValue;
 import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
 
 public class Neo4jTagFactory implements TagFactory {
+  private static final String VERSION_PREFIX = "RichVersion";
+  private static final String ITEM_PREFIX = "Item";
+
   private final Neo4jClient dbClient;
 
+  // if set, a tag is stored on the vertex it belongs to as two properties, <prefix>Tag.<key>
+  // holding its value and <prefix>TagType.<key> holding its type (empty if it has none);
+  // otherwise, each tag is a vertex of its own
+  private final boolean tagsAsProperties;
+
   public Neo4jTagFactory(Neo4jClient dbClient) {
+    this(dbClient, false);
+  }
+
+  /**
+   * Constructor for the Neo4j tag factory.
+   *
+   * @param dbClient the Neo4j client
+   * @param tagsAsProperties whether tags are stored as properties of the vertex they belong to
+   */
+  public Neo4jTagFactory(Neo4jClient dbClient, boolean tagsAsProperties) {
     this.dbClient = dbClient;
+    this.tagsAsProperties = tagsAsProperties;
+  }
+
+  public boolean storesTagsAsProperties() {
+    return this.tagsAsProperties;
   }
 
   @Override
   public Map<String, Tag> retrieveFromDatabaseByVersionId(long id) throws GroundException {
-    return this.retrieveFromDatabaseById(id, "RichVersion");
+    return this.retrieveFromDatabaseById(id, VERSION_PREFIX);
   }
 
   @Override
   public Map<String, Tag> retrieveFromDatabaseByItemId(long id) throws GroundException {
-    return this.retrieveFromDatabaseById(id, "Item");
+    return this.retrieveFromDatabaseById(id, ITEM_PREFIX);
   }
 
   private Map<String, Tag> retrieveFromDatabaseById(long id, String keyPrefix)
       throws GroundException {
+    if (this.tagsAsProperties) {
+      List<DbDataContainer> predicates = new ArrayList<>();
+      predicates.add(new DbDataContainer("id", GroundType.LONG, id));
+
+      Record record = this.dbClient.getVertexProperties(null, predicates, new ArrayList<>(), true);
+
+      if (record == null) {
+        return new HashMap<>();
+      }
+
+      return this.retrieveFromProperties(id, record.get("properties"), keyPrefix);
+    }
 
     List<String> returnFields = new ArrayList<>();
     returnFields.add("tkey");
@@ -62,44 +96,192 @@ public class Neo4jTagFactory implements TagFactory {
     Map<String, Tag> tags = new HashMap<>();
 
     for (Record record : tagsRecords) {
-      String key = Neo4jClient.getStringFromValue((StringValue) record.get("tkey"));
+      Tag tag = this.createTag(id, record.get("tkey"), record.get("value"), record.get("type"));
 
-      Object value;
-      if (record.containsKey("value") && !(record.get("value") instanceof NullValue)) {
-        value = Neo4jClient.getStringFromValue((StringValue) record.get("value"));
-      } else {
-        value = null;
+      tags.put(tag.getKey(), tag);
+    }
+
+    return tags;
+  }
+
+  /**
+   * Build the tags of a version from the properties of tag vertices that have already been
+   * retrieved.
+   *
+   * @param id the id of the version
+   * @param tagVertices the list of the tkey, value and type properties of each tag vertex
+   *     connected to the version
+   * @return the tags of the version
+   * @throws GroundException an error while parsing the tags
+   */
+  public Map<String, Tag> retrieveFromVertices(long id, Value tagVertices)
+      throws GroundException {
+    Map<String, Tag> tags = new HashMap<>();
+
+    for (Value vertex : tagVertices.values()) {
+      Tag tag = this.createTag(id, vertex.get("tkey"), vertex.get("value"), vertex.get("type"));
+
+      tags.put(tag.getKey(), tag);
+    }
+
+    return tags;
+  }
+
+  /**
+   * Build the tags of a version from the properties of its vertex. Only valid when tags are stored
+   * as properties.
+   *
+   * @param id the id of the version
+   * @param properties the map of every property of the version's vertex
+   * @return the tags of the version
+   * @throws GroundException an error while parsing the tags
+   */
+  public Map<String, Tag> retrieveFromVersionProperties(long id, Value properties)
+      throws GroundException {
+    return this.retrieveFromProperties(id, properties, VERSION_PREFIX);
+  }
+
+  /**
+   * Build the tags of an item from the properties of its vertex. Only valid when tags are stored
+   * as properties.
+   *
+   * @param id the id of the item
+   * @param properties the map of every property of the item's vertex
+   * @return the tags of the item
+   * @throws GroundException an error while parsing the tags
+   */
+  public Map<String, Tag> retrieveFromItemProperties(long id, Value properties)
+      throws GroundException {
+    return this.retrieveFromProperties(id, properties, ITEM_PREFIX);
+  }
+
+  private Map<String, Tag> retrieveFromProperties(long id, Value properties, String keyPrefix)
+      throws GroundException {
+    String typePrefix = keyPrefix + "TagType.";
+    Map<String, Tag> tags = new HashMap<>();
+
+    for (String property : properties.keys()) {
+      if (!property.startsWith(typePrefix)) {
+        continue;
       }
 
-      GroundType gType;
-      if (record.containsKey("type") && !(record.get("type") instanceof NullValue)) {
-        gType = GroundType.fromString(
-            Neo4jClient.getStringFromValue((StringValue) record.get("type")));
-        value = gType.parse(value.toString());
+      String key = property.substring(typePrefix.length());
+      String typeName = properties.get(property).asString();
+      GroundType type = typeName.isEmpty() ? null : GroundType.fromString(typeName);
+
+      Value value = properties.get(keyPrefix + "Tag." + key);
+      tags.put(key, new Tag(id, key, Neo4jTagFactory.fromValue(value, type), type));
+    }
+
+    return tags;
+  }
+
+  private static Object fromValue(Value value, GroundType type) {
+    if (type == null || value == null || value.isNull()) {
+      return null;
+    }
+
+    switch (type) {
+      case INTEGER:
+        return value.asInt();
+      case LONG:
+        return value.asLong();
+      case BOOLEAN:
+        return value.asBoolean();
+      default:
+        return value.asString();
+    }
+  }
+
+  /**
+   * Convert the tags of a version into the properties that store them on its vertex.
+   *
+   * @param tags the tags of the version
+   * @return the properties to set on the version's vertex
+   * @throws GroundDbException a tag whose value doesn't match its type
+   */
+  public List<DbDataContainer> toVersionProperties(Map<String, Tag> tags)
+      throws GroundDbException {
+    return this.toProperties(tags, VERSION_PREFIX);
+  }
+
+  /**
+   * Convert the tags of an item into the properties that store them on its vertex.
+   *
+   * @param tags the tags of the item
+   * @return the properties to set on the item's vertex
+   * @throws GroundDbException a tag whose value doesn't match its type
+   */
+  public List<DbDataContainer> toItemProperties(Map<String, Tag> tags) throws GroundDbException {
+    return this.toProperties(tags, ITEM_PREFIX);
+  }
+
+  private List<DbDataContainer> toProperties(Map<String, Tag> tags, String keyPrefix)
+      throws GroundDbException {
+    List<DbDataContainer> properties = new ArrayList<>();
+
+    for (String key : tags.keySet()) {
+      Tag tag = tags.get(key);
+
+      // searches by tag key look the vertices up by the type property
+      this.dbClient.indexProperty(keyPrefix + "TagType." + key);
+
+      // the value keeps its own type, so it can be read back without parsing
+      if (tag.getValue() != null) {
+        properties.add(new DbDataContainer(keyPrefix + "Tag." + key, tag.getValueType(),
+            tag.getValue()));
+        properties.add(new DbDataContainer(keyPrefix + "TagType." + key, GroundType.STRING,
+            tag.getValueType().toString()));
       } else {
-        gType = null;
+        properties.add(new DbDataContainer(keyPrefix + "TagType." + key, GroundType.STRING, ""));
       }
+    }
+
+    return properties;
+  }
 
-      tags.put(key, new Tag(id, key, value, gType));
+  private Tag createTag(long id, Value keyValue, Value valueValue, Value typeValue)
+      throws GroundException {
+    String key = keyValue.asString();
+
+    // tag vertices store every value as a string, alongside the name of its type
+    Object value;
+    if (!valueValue.isNull()) {
+      value = valueValue.asString();
+    } else {
+      value = null;
     }
 
-    return tags;
+    GroundType gType;
+    if (!typeValue.isNull()) {
+      gType = GroundType.fromString(typeValue.asString());
+      value = gType.parse(value.toString());
+    } else {
+      gType = null;
+    }
+
+    return new Tag(id, key, value, gType);
   }
 
   @Override
   public List<Long> getVersionIdsByTag(String tag) throws GroundDbException {
-    return this.getIdsByTag(tag, "rich_version_id");
+    return this.getIdsByTag(tag, VERSION_PREFIX, "rich_version_id");
   }
 
   @Override
   public List<Long> getItemIdsByTag(String tag) throws GroundDbException {
-    return this.getIdsByTag(tag, "item_id");
+    return this.getIdsByTag(tag, ITEM_PREFIX, "item_id");
   }
 
-  private List<Long> getIdsByTag(String tag, String idAttribute) throws GroundDbException {
+  private List<Long> getIdsByTag(String tag, String keyPrefix, String idAttribute)
+      throws GroundDbException {
+    if (this.tagsAsProperties) {
+      return this.dbClient.getVertexIdsWithProperty(keyPrefix + "TagType." + tag);
+    }
+
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("tkey", GroundType.STRING, tag));
 
-    return this.dbClient.getVerticesByAttributes(predicates, idAttribute);
+    return this.dbClient.getVerticesByAttributes(keyPrefix + "Tag", predicates, idAttribute);
   }
 }
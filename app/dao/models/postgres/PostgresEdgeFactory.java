@@ -27,6 +27,7 @@ import models.models.EdgeVersion;
 import models.models.Tag;
 import models.versions.GroundType;
 import models.versions.VersionHistoryDag;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -52,13 +53,15 @@ public class PostgresEdgeFactory extends PostgresItemFactory<Edge> implements Ed
    * @param dbClient the Postgres client
    * @param idGenerator a unique ID generator
    * @param versionHistoryDagFactory a PostgresVersionHistoryDAGFactory singleton
+   * @param caches the caches shared by the factories
    */
   public PostgresEdgeFactory(PostgresClient dbClient,
                              PostgresVersionHistoryDagFactory versionHistoryDagFactory,
                              PostgresTagFactory tagFactory,
-                             IdGenerator idGenerator) {
+                             IdGenerator idGenerator,
+                             Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -103,7 +106,10 @@ public class PostgresEdgeFactory extends PostgresItemFactory<Edge> implements Ed
     this.dbClient.insert("edge", insertions);
 
     LOGGER.info("Created edge " + name + ".");
-    return new Edge(uniqueId, name, sourceKey, fromNodeId, toNodeId, tags);
+    Edge edge = new Edge(uniqueId, name, sourceKey, fromNodeId, toNodeId, tags);
+    super.cacheItem(sourceKey, edge);
+
+    return edge;
   }
 
   /**
@@ -120,7 +126,7 @@ public class PostgresEdgeFactory extends PostgresItemFactory<Edge> implements Ed
   }
 
   @Override
-  public Edge retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected Edge loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
   }
 
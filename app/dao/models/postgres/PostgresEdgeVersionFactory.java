@@ -25,6 +25,7 @@ import models.models.EdgeVersion;
 import models.models.RichVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -51,14 +52,16 @@ public class PostgresEdgeVersionFactory
    * @param edgeFactory the PostgresEdgeFactory singleton
    * @param dbClient the Postgres client
    * @param idGenerator a unique ID generator
+   * @param caches the caches shared by the factories
    */
   public PostgresEdgeVersionFactory(PostgresClient dbClient,
                                     PostgresEdgeFactory edgeFactory,
                                     PostgresStructureVersionFactory structureVersionFactory,
                                     PostgresTagFactory tagFactory,
-                                    IdGenerator idGenerator) {
+                                    IdGenerator idGenerator,
+                                    Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.edgeFactory = edgeFactory;
@@ -129,7 +132,7 @@ public class PostgresEdgeVersionFactory
    * @throws GroundException either the version doesn't exist or wasn't able to be retrieved
    */
   @Override
-  public EdgeVersion retrieveFromDatabase(long id) throws GroundException {
+  protected EdgeVersion loadFromDatabase(long id) throws GroundException {
     final RichVersion version = super.retrieveRichVersionData(id);
 
     List<DbDataContainer> predicates = new ArrayList<>();
@@ -170,5 +173,6 @@ public class PostgresEdgeVersionFactory
 
     wherePredicates.add(new DbDataContainer("id", GroundType.LONG, id));
     this.dbClient.update(setPredicates, wherePredicates, "edge_version");
+    this.evictFromCache(id);
   }
 }
@@ -25,6 +25,7 @@ import exceptions.GroundException;
 import models.models.Graph;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -45,13 +46,15 @@ public class PostgresGraphFactory extends PostgresItemFactory<Graph> implements
    *
    * @param dbClient the Postgres client
    * @param idGenerator a unique ID generator
+   * @param caches the caches shared by the factories
    */
   public PostgresGraphFactory(PostgresClient dbClient,
                               PostgresVersionHistoryDagFactory versionHistoryDagFactory,
                               PostgresTagFactory tagFactory,
-                              IdGenerator idGenerator) {
+                              IdGenerator idGenerator,
+                              Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -81,7 +84,10 @@ public class PostgresGraphFactory extends PostgresItemFactory<Graph> implements
     this.dbClient.insert("graph", insertions);
 
     LOGGER.info("Created graph " + name + ".");
-    return new Graph(uniqueId, name, sourceKey, tags);
+    Graph graph = new Graph(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, graph);
+
+    return graph;
   }
 
 
@@ -106,7 +112,7 @@ public class PostgresGraphFactory extends PostgresItemFactory<Graph> implements
    * @throws GroundException either the graph doesn't exist or couldn't be retrieved
    */
   @Override
-  public Graph retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected Graph loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
   }
 
@@ -25,6 +25,7 @@ import models.models.GraphVersion;
 import models.models.RichVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -51,14 +52,16 @@ public class PostgresGraphVersionFactory
    * @param graphFactory the singleton PostgresGraphFactory
    * @param dbClient the PostgresClient
    * @param idGenerator a unique ID generator
+   * @param caches the caches shared by the factories
    */
   public PostgresGraphVersionFactory(PostgresClient dbClient,
                                      PostgresGraphFactory graphFactory,
                                      PostgresStructureVersionFactory structureVersionFactory,
                                      PostgresTagFactory tagFactory,
-                                     IdGenerator idGenerator) {
+                                     IdGenerator idGenerator,
+                                     Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.graphFactory = graphFactory;
@@ -122,7 +125,7 @@ public class PostgresGraphVersionFactory
    * @throws GroundException either the graph version doesn't exist or couldn't be retrieved
    */
   @Override
-  public GraphVersion retrieveFromDatabase(long id) throws GroundException {
+  protected GraphVersion loadFromDatabase(long id) throws GroundException {
     final RichVersion version = super.retrieveRichVersionData(id);
 
     List<DbDataContainer> predicates = new ArrayList<>();
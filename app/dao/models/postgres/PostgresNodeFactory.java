@@ -25,6 +25,7 @@ import exceptions.GroundException;
 import models.models.Node;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -45,13 +46,15 @@ public class PostgresNodeFactory extends PostgresItemFactory<Node> implements No
    *
    * @param dbClient the Postgres client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public PostgresNodeFactory(PostgresClient dbClient,
                              PostgresVersionHistoryDagFactory versionHistoryDagFactory,
                              PostgresTagFactory tagFactory,
-                             IdGenerator idGenerator) {
+                             IdGenerator idGenerator,
+                             Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -81,7 +84,10 @@ public class PostgresNodeFactory extends PostgresItemFactory<Node> implements No
     this.dbClient.insert("node", insertions);
 
     LOGGER.info("Created node " + name + ".");
-    return new Node(uniqueId, name, sourceKey, tags);
+    Node node = new Node(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, node);
+
+    return node;
   }
 
   /**
@@ -106,7 +112,7 @@ public class PostgresNodeFactory extends PostgresItemFactory<Node> implements No
    * @throws GroundException either the node doesn't exist or couldn't be retrieved
    */
   @Override
-  public Node retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected Node loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
   }
 
@@ -25,6 +25,7 @@ import models.models.NodeVersion;
 import models.models.RichVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -50,14 +51,16 @@ public class PostgresNodeVersionFactory
    * @param nodeFactory the singleton PostgresNodeFactory
    * @param dbClient the Postgres client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public PostgresNodeVersionFactory(PostgresClient dbClient,
                                     PostgresNodeFactory nodeFactory,
                                     PostgresStructureVersionFactory structureVersionFactory,
                                     PostgresTagFactory tagFactory,
-                                    IdGenerator idGenerator) {
+                                    IdGenerator idGenerator,
+                                    Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.nodeFactory = nodeFactory;
@@ -111,7 +114,7 @@ public class PostgresNodeVersionFactory
    * @throws GroundException either the version doesn't exist or couldn't be retrieved
    */
   @Override
-  public NodeVersion retrieveFromDatabase(long id) throws GroundException {
+  protected NodeVersion loadFromDatabase(long id) throws GroundException {
     final RichVersion version = super.retrieveRichVersionData(id);
 
     List<DbDataContainer> predicates = new ArrayList<>();
@@ -23,9 +23,9 @@ import db.PostgresResults;
 import exceptions.GroundException;
 import exceptions.GroundVersionNotFoundException;
 import models.models.RichVersion;
-import models.models.StructureVersion;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -46,12 +46,14 @@ public abstract class PostgresRichVersionFactory<T extends RichVersion>
    * @param dbClient the Postgres client
    * @param structureVersionFactory the singleton PostgresStructureVerisonFactory
    * @param tagFactory the singleton PostgresTagFactory
+   * @param caches the caches shared by the factories
    */
   public PostgresRichVersionFactory(PostgresClient dbClient,
                                     PostgresStructureVersionFactory structureVersionFactory,
-                                    PostgresTagFactory tagFactory) {
+                                    PostgresTagFactory tagFactory,
+                                    Caches caches) {
 
-    super(dbClient);
+    super(dbClient, caches);
 
     this.dbClient = dbClient;
     this.structureVersionFactory = structureVersionFactory;
@@ -77,9 +79,7 @@ public abstract class PostgresRichVersionFactory<T extends RichVersion>
     super.insertIntoDatabase(id);
 
     if (structureVersionId != -1) {
-      StructureVersion structureVersion = this.structureVersionFactory
-          .retrieveFromDatabase(structureVersionId);
-      RichVersionFactory.checkStructureTags(structureVersion, tags);
+      this.structureVersionFactory.retrieveValidator(structureVersionId).validate(tags);
     }
 
     List<DbDataContainer> insertions = new ArrayList<>();
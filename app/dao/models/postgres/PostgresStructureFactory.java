@@ -25,6 +25,7 @@ import exceptions.GroundException;
 import models.models.Structure;
 import models.models.Tag;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -48,13 +49,15 @@ public class PostgresStructureFactory
    *
    * @param dbClient the Postgres client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public PostgresStructureFactory(PostgresClient dbClient,
                                   PostgresVersionHistoryDagFactory versionHistoryDagFactory,
                                   PostgresTagFactory tagFactory,
-                                  IdGenerator idGenerator) {
+                                  IdGenerator idGenerator,
+                                  Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -85,7 +88,10 @@ public class PostgresStructureFactory
     this.dbClient.insert("structure", insertions);
 
     LOGGER.info("Created structure " + name + ".");
-    return new Structure(uniqueId, name, sourceKey, tags);
+    Structure structure = new Structure(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, structure);
+
+    return structure;
   }
 
   /**
@@ -109,7 +115,7 @@ public class PostgresStructureFactory
    * @throws GroundException either the structure doesn't exist or couldn't be retrieved
    */
   @Override
-  public Structure retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected Structure loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
   }
 
@@ -14,7 +14,9 @@
 
 package dao.models.postgres;
 
+import dao.models.StructureVersionCache;
 import dao.models.StructureVersionFactory;
+import dao.models.StructureVersionValidator;
 import dao.versions.postgres.PostgresVersionFactory;
 import db.DbClient;
 import db.DbDataContainer;
@@ -23,6 +25,7 @@ import db.PostgresResults;
 import exceptions.GroundException;
 import models.models.StructureVersion;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -43,6 +46,7 @@ public class PostgresStructureVersionFactory
   private final PostgresStructureFactory structureFactory;
 
   private final IdGenerator idGenerator;
+  private final StructureVersionCache structureVersionCache;
 
   /**
    * Constructor for the Postgres structure version factory.
@@ -50,16 +54,19 @@ public class PostgresStructureVersionFactory
    * @param structureFactory the singleton PostgresStructureFactory
    * @param dbClient the Postgres client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public PostgresStructureVersionFactory(PostgresClient dbClient,
                                          PostgresStructureFactory structureFactory,
-                                         IdGenerator idGenerator) {
+                                         IdGenerator idGenerator,
+                                         Caches caches) {
 
-    super(dbClient);
+    super(dbClient, caches);
 
     this.dbClient = dbClient;
     this.structureFactory = structureFactory;
     this.idGenerator = idGenerator;
+    this.structureVersionCache = caches.getStructureVersionCache();
   }
 
   /**
@@ -110,7 +117,7 @@ public class PostgresStructureVersionFactory
    * @throws GroundException either the version doesn't exist or couldn't be retrieved
    */
   @Override
-  public StructureVersion retrieveFromDatabase(long id) throws GroundException {
+  protected StructureVersion loadFromDatabase(long id) throws GroundException {
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
@@ -141,4 +148,18 @@ public class PostgresStructureVersionFactory
     LOGGER.info("Retrieved structure version " + id + " in structure " + structureId + ".");
     return new StructureVersion(id, structureId, attributes);
   }
+
+  /**
+   * Retrieve the validator for a structure version, from the structure version cache if it is
+   * there. A miss reads the database directly, since the structure version cache already holds
+   * the structure version and caching it in the version cache as well would keep it twice.
+   *
+   * @param id the id of the structure version
+   * @return the validator
+   * @throws GroundException either the structure version doesn't exist or couldn't be retrieved
+   */
+  @Override
+  public StructureVersionValidator retrieveValidator(long id) throws GroundException {
+    return this.structureVersionCache.get(id, this::loadFromDatabase, this.dbClient);
+  }
 }
@@ -40,4 +40,17 @@ public interface LineageEdgeVersionFactory extends RichVersionFactory<LineageEdg
 
   @Override
   LineageEdgeVersion retrieveFromDatabase(long id) throws GroundException;
+
+  /**
+   * Find the rich versions downstream of a rich version, i.e., those that can be reached from it
+   * by following lineage edge versions from their source to their destination.
+   *
+   * @param richVersionId the id of the version to start from
+   * @param maxDepth the maximum number of lineage edge versions to follow
+   * @return the id of each reachable version, mapped to the least number of lineage edge versions
+   *     between it and the starting version
+   * @throws GroundException an error while following the lineage edge versions
+   */
+  Map<Long, Integer> getDownstreamVersions(long richVersionId, int maxDepth)
+      throws GroundException;
 }
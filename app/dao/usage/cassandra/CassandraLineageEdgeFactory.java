@@ -14,6 +14,8 @@
 
 package dao.usage.cassandra;
 
+import com.datastax.driver.core.ResultSetFuture;
+
 import dao.models.cassandra.CassandraTagFactory;
 import dao.usage.LineageEdgeFactory;
 import dao.versions.cassandra.CassandraItemFactory;
@@ -26,6 +28,7 @@ import exceptions.GroundException;
 import models.models.Tag;
 import models.usage.LineageEdge;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -49,13 +52,15 @@ public class CassandraLineageEdgeFactory
    *
    * @param dbClient the Cassandra client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public CassandraLineageEdgeFactory(CassandraClient dbClient,
                                      CassandraVersionHistoryDagFactory versionHistoryDagFactory,
                                      CassandraTagFactory tagFactory,
-                                     IdGenerator idGenerator) {
+                                     IdGenerator idGenerator,
+                                     Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -74,20 +79,24 @@ public class CassandraLineageEdgeFactory
   public LineageEdge create(String name, String sourceKey, Map<String, Tag> tags)
       throws GroundException {
 
-    super.verifyItemNotExists(sourceKey);
-
     long uniqueId = this.idGenerator.generateItemId();
-    super.insertIntoDatabase(uniqueId, tags);
-
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("name", GroundType.STRING, name));
     insertions.add(new DbDataContainer("item_id", GroundType.LONG, uniqueId));
     insertions.add(new DbDataContainer("source_key", GroundType.STRING, sourceKey));
 
-    this.dbClient.insert("lineage_edge", insertions);
+    // claim the source key first, so concurrent creates of the same item cannot both succeed
+    super.claimSourceKey("lineage_edge_by_source_key", insertions, sourceKey);
+
+    List<ResultSetFuture> writes = super.insertIntoDatabaseAsync(uniqueId, tags);
+    writes.add(this.dbClient.insertAsync("lineage_edge", insertions));
+    this.dbClient.awaitAll(writes);
 
     LOGGER.info("Created lineage edge " + name + ".");
-    return new LineageEdge(uniqueId, name, sourceKey, tags);
+    LineageEdge lineageEdge = new LineageEdge(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, lineageEdge);
+
+    return lineageEdge;
   }
 
   /**
@@ -111,8 +120,9 @@ public class CassandraLineageEdgeFactory
    * @throws GroundException either the lineage edge doesn't exist or couldn't be retrieved
    */
   @Override
-  public LineageEdge retrieveFromDatabase(String sourceKey) throws GroundException {
-    return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
+  protected LineageEdge loadFromDatabase(String sourceKey) throws GroundException {
+    return this.retrieveByPredicate("lineage_edge_by_source_key", "source_key", sourceKey,
+        GroundType.STRING);
   }
 
   /**
@@ -124,16 +134,17 @@ public class CassandraLineageEdgeFactory
    */
   @Override
   public LineageEdge retrieveFromDatabase(long id) throws GroundException {
-    return this.retrieveByPredicate("id", id, GroundType.LONG);
+    return this.retrieveByPredicate("lineage_edge", "item_id", id, GroundType.LONG);
   }
 
-  private LineageEdge retrieveByPredicate(String fieldName, Object value, GroundType valueType)
+  private LineageEdge retrieveByPredicate(String table, String fieldName, Object value,
+                                          GroundType valueType)
       throws GroundException {
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer(fieldName, valueType, value));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("lineage_edge",
+    CassandraResults resultSet = this.dbClient.equalitySelect(table,
         DbClient.SELECT_STAR,
         predicates);
     super.verifyResultSet(resultSet, fieldName, value);
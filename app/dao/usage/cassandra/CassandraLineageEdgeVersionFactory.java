@@ -14,12 +14,17 @@
 
 package dao.usage.cassandra;
 
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import dao.models.RichVersionFactory;
 import dao.models.cassandra.CassandraRichVersionFactory;
 import dao.models.cassandra.CassandraStructureVersionFactory;
 import dao.models.cassandra.CassandraTagFactory;
 import dao.usage.LineageEdgeVersionFactory;
 import db.CassandraClient;
+import db.CassandraOperation;
 import db.CassandraResults;
 import db.DbClient;
 import db.DbDataContainer;
@@ -28,9 +33,12 @@ import models.models.RichVersion;
 import models.models.Tag;
 import models.usage.LineageEdgeVersion;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -54,15 +62,17 @@ public class CassandraLineageEdgeVersionFactory
    * @param lineageEdgeFactory the singleton CassandraLineageEdgeFactory
    * @param dbClient the Cassandra client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public CassandraLineageEdgeVersionFactory(
       CassandraClient dbClient,
       CassandraLineageEdgeFactory lineageEdgeFactory,
       CassandraStructureVersionFactory structureVersionFactory,
       CassandraTagFactory tagFactory,
-      IdGenerator idGenerator) {
+      IdGenerator idGenerator,
+      Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.lineageEdgeFactory = lineageEdgeFactory;
@@ -98,7 +108,8 @@ public class CassandraLineageEdgeVersionFactory
 
     tags = RichVersionFactory.addIdToTags(id, tags);
 
-    super.insertIntoDatabase(id, tags, structureVersionId, reference, referenceParameters);
+    List<ResultSetFuture> writes = super.insertIntoDatabaseAsync(id, tags, structureVersionId,
+        reference, referenceParameters);
 
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
@@ -106,7 +117,18 @@ public class CassandraLineageEdgeVersionFactory
     insertions.add(new DbDataContainer("from_rich_version_id", GroundType.LONG, fromId));
     insertions.add(new DbDataContainer("to_rich_version_id", GroundType.LONG, toId));
 
-    this.dbClient.insert("lineage_edge_version", insertions);
+    writes.add(this.dbClient.insertAsync("lineage_edge_version", insertions,
+        this.getRetentionSeconds()));
+
+    List<DbDataContainer> downstream = new ArrayList<>();
+    downstream.add(new DbDataContainer("from_rich_version_id", GroundType.LONG, fromId));
+    downstream.add(new DbDataContainer("lineage_edge_version_id", GroundType.LONG, id));
+    downstream.add(new DbDataContainer("to_rich_version_id", GroundType.LONG, toId));
+
+    writes.add(this.dbClient.insertAsync("lineage_edge_version_by_from", downstream,
+        this.getRetentionSeconds()));
+
+    this.dbClient.awaitAll(writes);
 
     this.lineageEdgeFactory.update(lineageEdgeId, id, parentIds);
 
@@ -123,15 +145,18 @@ public class CassandraLineageEdgeVersionFactory
    * @throws GroundException either the version didn't exist or couldn't be retrieved
    */
   @Override
-  public LineageEdgeVersion retrieveFromDatabase(long id) throws GroundException {
-    final RichVersion version = super.retrieveRichVersionData(id);
-
+  protected LineageEdgeVersion loadFromDatabase(long id) throws GroundException {
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("lineage_edge_version",
-        DbClient.SELECT_STAR,
-        predicates);
+    // issued first so that it runs concurrently with the rich version reads
+    ListenableFuture<ResultSet> versionFuture = this.dbClient.equalitySelectAsync(
+        "lineage_edge_version", DbClient.SELECT_STAR, predicates,
+        CassandraOperation.IMMUTABLE_READ);
+
+    final RichVersion version = super.retrieveRichVersionData(id);
+
+    CassandraResults resultSet = this.dbClient.getResults(versionFuture);
     super.verifyResultSet(resultSet, id);
 
     long lineageEdgeId = resultSet.getLong("lineage_edge_id");
@@ -143,4 +168,58 @@ public class CassandraLineageEdgeVersionFactory
     return new LineageEdgeVersion(id, version.getTags(), version.getStructureVersionId(),
         version.getReference(), version.getParameters(), fromId, toId, lineageEdgeId);
   }
+
+  /**
+   * Find the rich versions downstream of a rich version, one level at a time. The
+   * lineage_edge_version_by_from table is partitioned by source version, so each step reads the
+   * partitions of the whole frontier concurrently.
+   *
+   * @param richVersionId the id of the version to start from
+   * @param maxDepth the maximum number of lineage edge versions to follow
+   * @return the id of each reachable version, mapped to its depth
+   * @throws GroundException an error while reading the lineage edge versions
+   */
+  @Override
+  public Map<Long, Integer> getDownstreamVersions(long richVersionId, int maxDepth)
+      throws GroundException {
+    Map<Long, Integer> depths = new HashMap<>();
+    List<Long> frontier = Collections.singletonList(richVersionId);
+
+    List<String> projection = new ArrayList<>();
+    projection.add("to_rich_version_id");
+
+    for (int depth = 1; depth <= maxDepth && !frontier.isEmpty(); depth++) {
+      List<ListenableFuture<ResultSet>> reads = new ArrayList<>();
+
+      for (long fromId : frontier) {
+        List<DbDataContainer> predicates = new ArrayList<>();
+        predicates.add(new DbDataContainer("from_rich_version_id", GroundType.LONG, fromId));
+
+        reads.add(this.dbClient.equalitySelectAsync("lineage_edge_version_by_from", projection,
+            predicates));
+      }
+
+      List<Long> next = new ArrayList<>();
+      for (ListenableFuture<ResultSet> read : reads) {
+        CassandraResults resultSet = this.dbClient.getResults(read);
+
+        if (resultSet.isEmpty()) {
+          continue;
+        }
+
+        do {
+          long toId = resultSet.getLong("to_rich_version_id");
+
+          if (toId != richVersionId && !depths.containsKey(toId)) {
+            depths.put(toId, depth);
+            next.add(toId);
+          }
+        } while (resultSet.next());
+      }
+
+      frontier = next;
+    }
+
+    return depths;
+  }
 }
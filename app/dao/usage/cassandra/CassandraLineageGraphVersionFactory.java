@@ -14,12 +14,17 @@
 
 package dao.usage.cassandra;
 
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import dao.models.RichVersionFactory;
 import dao.models.cassandra.CassandraRichVersionFactory;
 import dao.models.cassandra.CassandraStructureVersionFactory;
 import dao.models.cassandra.CassandraTagFactory;
 import dao.usage.LineageGraphVersionFactory;
 import db.CassandraClient;
+import db.CassandraOperation;
 import db.CassandraResults;
 import db.DbClient;
 import db.DbDataContainer;
@@ -28,6 +33,7 @@ import models.models.RichVersion;
 import models.models.Tag;
 import models.usage.LineageGraphVersion;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -54,15 +60,17 @@ public class CassandraLineageGraphVersionFactory
    * @param lineageGraphFactory the singleton CassandraLineageGraphFactory
    * @param dbClient the Cassandra client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public CassandraLineageGraphVersionFactory(
       CassandraClient dbClient,
       CassandraLineageGraphFactory lineageGraphFactory,
       CassandraStructureVersionFactory structureVersionFactory,
       CassandraTagFactory tagFactory,
-      IdGenerator idGenerator) {
+      IdGenerator idGenerator,
+      Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.lineageGraphFactory = lineageGraphFactory;
@@ -95,14 +103,17 @@ public class CassandraLineageGraphVersionFactory
 
     tags = RichVersionFactory.addIdToTags(id, tags);
 
-    super.insertIntoDatabase(id, tags, structureVersionId, reference, referenceParameters);
+    List<ResultSetFuture> writes = super.insertIntoDatabaseAsync(id, tags, structureVersionId,
+        reference, referenceParameters);
 
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
     insertions.add(new DbDataContainer("lineage_graph_id", GroundType.LONG, lineageGraphId));
 
-    this.dbClient.insert("lineage_graph_version", insertions);
+    writes.add(this.dbClient.insertAsync("lineage_graph_version", insertions,
+        this.getRetentionSeconds()));
 
+    List<List<DbDataContainer>> edgeRows = new ArrayList<>();
     for (long lineageEdgeVersionId : lineageEdgeVersionIds) {
       List<DbDataContainer> lineageEdgeInsertion = new ArrayList<>();
       lineageEdgeInsertion.add(new DbDataContainer("lineage_graph_version_id", GroundType.LONG,
@@ -110,9 +121,14 @@ public class CassandraLineageGraphVersionFactory
       lineageEdgeInsertion.add(new DbDataContainer("lineage_edge_version_id", GroundType.LONG,
           lineageEdgeVersionId));
 
-      this.dbClient.insert("lineage_graph_version_edge", lineageEdgeInsertion);
+      edgeRows.add(lineageEdgeInsertion);
     }
 
+    writes.addAll(this.dbClient.insertBatchAsync("lineage_graph_version_edge",
+        "lineage_graph_version_id", edgeRows, this.getRetentionSeconds()));
+
+    this.dbClient.awaitAll(writes);
+
     this.lineageGraphFactory.update(lineageGraphId, id, parentIds);
 
     LOGGER.info("Created lineage_graph version " + id + " in lineage_graph " + lineageGraphId
@@ -130,9 +146,7 @@ public class CassandraLineageGraphVersionFactory
    * @throws GroundException either the version doesn't exist or couldn't be retrieved
    */
   @Override
-  public LineageGraphVersion retrieveFromDatabase(long id) throws GroundException {
-
-    final RichVersion version = super.retrieveRichVersionData(id);
+  protected LineageGraphVersion loadFromDatabase(long id) throws GroundException {
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
@@ -141,16 +155,23 @@ public class CassandraLineageGraphVersionFactory
     lineageEdgePredicate.add(new DbDataContainer("lineage_graph_version_id", GroundType.LONG,
         id));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("lineage_graph_version",
-        DbClient.SELECT_STAR,
-        predicates);
+    // issued first so that they run concurrently with the rich version reads
+    ListenableFuture<ResultSet> versionFuture = this.dbClient.equalitySelectAsync(
+        "lineage_graph_version", DbClient.SELECT_STAR, predicates,
+        CassandraOperation.IMMUTABLE_READ);
+    ListenableFuture<ResultSet> lineageEdgeFuture = this.dbClient.equalitySelectAsync(
+        "lineage_graph_version_edge", DbClient.SELECT_STAR, lineageEdgePredicate,
+        CassandraOperation.IMMUTABLE_READ, false);
+
+    final RichVersion version = super.retrieveRichVersionData(id);
+
+    CassandraResults resultSet = this.dbClient.getResults(versionFuture);
     super.verifyResultSet(resultSet, id);
 
     long lineageGraphId = resultSet.getLong("lineage_graph_id");
 
     List<Long> lineageEdgeVersionIds = new ArrayList<>();
-    CassandraResults lineageEdgeSet = this.dbClient.equalitySelect("lineage_graph_version_edge",
-        DbClient.SELECT_STAR, lineageEdgePredicate);
+    CassandraResults lineageEdgeSet = this.dbClient.getResults(lineageEdgeFuture);
 
     if (!lineageEdgeSet.isEmpty()) {
       do {
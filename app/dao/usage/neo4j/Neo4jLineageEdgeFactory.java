@@ -24,6 +24,7 @@ import exceptions.GroundException;
 import models.models.Tag;
 import models.usage.LineageEdge;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -48,13 +49,15 @@ public class Neo4jLineageEdgeFactory
    *
    * @param dbClient the Neo4j client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public Neo4jLineageEdgeFactory(Neo4jClient dbClient,
                                  Neo4jVersionHistoryDagFactory versionHistoryDagFactory,
                                  Neo4jTagFactory tagFactory,
-                                 IdGenerator idGenerator) {
+                                 IdGenerator idGenerator,
+                                 Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -85,7 +88,10 @@ public class Neo4jLineageEdgeFactory
     super.insertIntoDatabase(uniqueId, tags);
 
     LOGGER.info("Created lineage edge " + name + ".");
-    return new LineageEdge(uniqueId, name, sourceKey, tags);
+    LineageEdge lineageEdge = new LineageEdge(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, lineageEdge);
+
+    return lineageEdge;
   }
 
   /**
@@ -109,7 +115,7 @@ public class Neo4jLineageEdgeFactory
    * @throws GroundException either the lineage edge doesn't exist or couldn't be retrieved
    */
   @Override
-  public LineageEdge retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected LineageEdge loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
   }
 
@@ -122,22 +128,18 @@ public class Neo4jLineageEdgeFactory
    */
   @Override
   public LineageEdge retrieveFromDatabase(long id) throws GroundException {
-    return this.retrieveByPredicate("id", id, GroundType.STRING);
+    return this.retrieveByPredicate("id", id, GroundType.LONG);
   }
 
   private LineageEdge retrieveByPredicate(String fieldName, Object value, GroundType valueType)
       throws GroundException {
-    List<DbDataContainer> predicates = new ArrayList<>();
-    predicates.add(new DbDataContainer(fieldName, valueType, value));
-
-    Record record = this.dbClient.getVertex(predicates);
-    super.verifyResultSet(record, fieldName, value);
+    Record record = super.retrieveItemVertex("LineageEdges", fieldName, value, valueType);
 
-    long id = record.get("v").asNode().get("id").asLong();
-    String name = record.get("v").asNode().get("name").asString();
-    String sourceKey = record.get("v").asNode().get("source_key").asString();
+    long id = record.get("id").asLong();
+    String name = record.get("name").asString();
+    String sourceKey = record.get("source_key").asString();
 
-    Map<String, Tag> tags = super.retrieveItemTags(id);
+    Map<String, Tag> tags = super.retrieveItemTags(id, record);
 
     LOGGER.info("Retrieved lineage edge " + value + ".");
     return new LineageEdge(id, name, sourceKey, tags);
@@ -26,9 +26,13 @@ import models.models.RichVersion;
 import models.models.Tag;
 import models.usage.LineageEdgeVersion;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -53,14 +57,16 @@ public class Neo4jLineageEdgeVersionFactory
    * @param lineageEdgeFactory the singleton Neo4jLineageEdgeFactory
    * @param dbClient the Neo4j client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public Neo4jLineageEdgeVersionFactory(Neo4jClient dbClient,
                                         Neo4jLineageEdgeFactory lineageEdgeFactory,
                                         Neo4jStructureVersionFactory structureVersionFactory,
                                         Neo4jTagFactory tagFactory,
-                                        IdGenerator idGenerator) {
+                                        IdGenerator idGenerator,
+                                        Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.lineageEdgeFactory = lineageEdgeFactory;
@@ -101,13 +107,11 @@ public class Neo4jLineageEdgeVersionFactory
     insertions.add(new DbDataContainer("endpoint_one", GroundType.LONG, fromId));
     insertions.add(new DbDataContainer("endpoint_two", GroundType.LONG, toId));
 
-    this.dbClient.addVertex("LineageEdgeVersion", insertions);
+    super.insertIntoDatabase("LineageEdgeVersion", insertions, id, tags, structureVersionId,
+        reference, referenceParameters, "LineageEdgeVersionConnection",
+        Collections.singletonList(fromId), Collections.singletonList(toId));
 
     this.lineageEdgeFactory.update(lineageEdgeId, id, parentIds);
-    super.insertIntoDatabase(id, tags, structureVersionId, reference, referenceParameters);
-
-    this.dbClient.addEdge("LineageEdgeVersionConnection", fromId, id, new ArrayList<>());
-    this.dbClient.addEdge("LineageEdgeVersionConnection", id, toId, new ArrayList<>());
 
     LOGGER.info("Created lineage edge version " + id + " in lineage edge " + lineageEdgeId + ".");
     return new LineageEdgeVersion(id, tags, structureVersionId, reference, referenceParameters,
@@ -122,22 +126,56 @@ public class Neo4jLineageEdgeVersionFactory
    * @throws GroundException either the version didn't exist or couldn't be retrieved
    */
   @Override
-  public LineageEdgeVersion retrieveFromDatabase(long id) throws GroundException {
+  protected LineageEdgeVersion loadFromDatabase(long id) throws GroundException {
     final RichVersion version = super.retrieveRichVersionData(id);
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    Record versionRecord = this.dbClient.getVertex(predicates);
+    Record versionRecord = this.dbClient.getVertexProperties("LineageEdgeVersion", predicates,
+        Arrays.asList("lineageedge_id",
+        "endpoint_one", "endpoint_two"));
     super.verifyResultSet(versionRecord, id);
 
-    long lineageEdgeId = versionRecord. get("v").asNode().get("lineageedge_id").asLong();
-    long fromId = versionRecord.get("v").asNode().get("endpoint_one").asLong();
-    long toId = versionRecord.get("v").asNode().get("endpoint_two").asLong();
+    long lineageEdgeId = versionRecord.get("lineageedge_id").asLong();
+    long fromId = versionRecord.get("endpoint_one").asLong();
+    long toId = versionRecord.get("endpoint_two").asLong();
 
     LOGGER.info("Retrieved lineage edge version " + id + " in lineage edge " + lineageEdgeId
         + ".");
     return new LineageEdgeVersion(id, version.getTags(), version.getStructureVersionId(),
         version.getReference(), version.getParameters(), fromId, toId, lineageEdgeId);
   }
+
+  /**
+   * Find the rich versions downstream of a rich version. A lineage edge version is a vertex with
+   * an edge from its source and an edge to its destination, so each step downstream is two edges
+   * long, and the traversal follows up to twice as many edges as the maximum depth.
+   *
+   * @param richVersionId the id of the version to start from
+   * @param maxDepth the maximum number of lineage edge versions to follow
+   * @return the id of each reachable version, mapped to its depth
+   * @throws GroundException an error while running the traversal
+   */
+  @Override
+  public Map<Long, Integer> getDownstreamVersions(long richVersionId, int maxDepth)
+      throws GroundException {
+    Map<Long, Integer> depths = new HashMap<>();
+
+    if (maxDepth < 1) {
+      return depths;
+    }
+
+    Map<Long, Integer> distances = this.dbClient.getReachableVertices(richVersionId,
+        "LineageEdgeVersionConnection", 2 * maxDepth);
+
+    // the vertices at odd distances are the lineage edge versions themselves
+    for (Map.Entry<Long, Integer> entry : distances.entrySet()) {
+      if (entry.getValue() % 2 == 0) {
+        depths.put(entry.getKey(), entry.getValue() / 2);
+      }
+    }
+
+    return depths;
+  }
 }
@@ -24,6 +24,7 @@ import exceptions.GroundException;
 import models.models.Tag;
 import models.usage.LineageGraph;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -47,13 +48,15 @@ public class Neo4jLineageGraphFactory
    *
    * @param dbClient the Neo4j client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public Neo4jLineageGraphFactory(Neo4jClient dbClient,
                                   Neo4jVersionHistoryDagFactory versionHistoryDagFactory,
                                   Neo4jTagFactory tagFactory,
-                                  IdGenerator idGenerator) {
+                                  IdGenerator idGenerator,
+                                  Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -86,7 +89,10 @@ public class Neo4jLineageGraphFactory
 
     LOGGER.info("Created lineage graph " + name + ".");
 
-    return new LineageGraph(uniqueId, name, sourceKey, tags);
+    LineageGraph lineageGraph = new LineageGraph(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, lineageGraph);
+
+    return lineageGraph;
   }
 
   /**
@@ -110,7 +116,7 @@ public class Neo4jLineageGraphFactory
    * @throws GroundException either the lineage graph doesn't exist or couldn't be retrieved
    */
   @Override
-  public LineageGraph retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected LineageGraph loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPreidcate("source_key", sourceKey, GroundType.STRING);
   }
 
@@ -123,23 +129,19 @@ public class Neo4jLineageGraphFactory
    */
   @Override
   public LineageGraph retrieveFromDatabase(long id) throws GroundException {
-    return this.retrieveByPreidcate("id", id, GroundType.STRING);
+    return this.retrieveByPreidcate("id", id, GroundType.LONG);
   }
 
   private LineageGraph retrieveByPreidcate(String fieldName, Object value, GroundType valueType)
       throws GroundException {
 
-    List<DbDataContainer> predicates = new ArrayList<>();
-    predicates.add(new DbDataContainer(fieldName, valueType, value));
-
-    Record record = this.dbClient.getVertex(predicates);
-    super.verifyResultSet(record, fieldName, value);
+    Record record = super.retrieveItemVertex("LineageGraph", fieldName, value, valueType);
 
-    long id = record.get("v").asNode().get("id").asLong();
-    String name = record.get("v").asNode().get("name").asString();
-    String sourceKey = record.get("v").asNode().get("source_key").asString();
+    long id = record.get("id").asLong();
+    String name = record.get("name").asString();
+    String sourceKey = record.get("source_key").asString();
 
-    Map<String, Tag> tags = super.retrieveItemTags(id);
+    Map<String, Tag> tags = super.retrieveItemTags(id, record);
 
     LOGGER.info("Retrieved lineage graph " + value + ".");
     return new LineageGraph(id, name, sourceKey, tags);
@@ -26,9 +26,11 @@ import models.models.RichVersion;
 import models.models.Tag;
 import models.usage.LineageGraphVersion;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -52,14 +54,16 @@ public class Neo4jLineageGraphVersionFactory
    * @param lineageGraphFactory the singleton Neo4jLineageGraphFactory
    * @param dbClient the Neo4j client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public Neo4jLineageGraphVersionFactory(Neo4jClient dbClient,
                                          Neo4jLineageGraphFactory lineageGraphFactory,
                                          Neo4jStructureVersionFactory structureVersionFactory,
                                          Neo4jTagFactory tagFactory,
-                                         IdGenerator idGenerator) {
+                                         IdGenerator idGenerator,
+                                         Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.lineageGraphFactory = lineageGraphFactory;
@@ -96,13 +100,9 @@ public class Neo4jLineageGraphVersionFactory
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
     insertions.add(new DbDataContainer("lineage_graph_id", GroundType.LONG, lineageGraphId));
 
-    this.dbClient.addVertex("LineageGraphVersion", insertions);
-    super.insertIntoDatabase(id, tags, structureVersionId, reference, referenceParameters);
-
-    for (long lineageEdgeVersionId : lineageEdgeVersionIds) {
-      this.dbClient.addEdge("LineageGraphVersionEdge", id, lineageEdgeVersionId,
-          new ArrayList<>());
-    }
+    super.insertIntoDatabase("LineageGraphVersion", insertions, id, tags, structureVersionId,
+        reference, referenceParameters, "LineageGraphVersionEdge", new ArrayList<>(),
+        lineageEdgeVersionIds);
 
     this.lineageGraphFactory.update(lineageGraphId, id, parentIds);
 
@@ -121,13 +121,14 @@ public class Neo4jLineageGraphVersionFactory
    * @throws GroundException either the version doesn't exist or couldn't be retrieved
    */
   @Override
-  public LineageGraphVersion retrieveFromDatabase(long id) throws GroundException {
+  protected LineageGraphVersion loadFromDatabase(long id) throws GroundException {
     final RichVersion version = super.retrieveRichVersionData(id);
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    Record versionRecord = this.dbClient.getVertex(predicates);
+    Record versionRecord = this.dbClient.getVertexProperties("LineageGraphVersion", predicates,
+        Arrays.asList("lineage_graph_id"));
     super.verifyResultSet(versionRecord, id);
 
     List<String> returnFields = new ArrayList<>();
@@ -140,7 +141,7 @@ public class Neo4jLineageGraphVersionFactory
     lineageEdgeVersionVertices.forEach(edgeVersionVertex -> lineageEdgeVersionIds.add(
         edgeVersionVertex.get("id").asLong()));
 
-    long lineageGraphId = versionRecord.get("v") .asNode().get("lineage_graph_id").asLong();
+    long lineageGraphId = versionRecord.get("lineage_graph_id").asLong();
 
     LOGGER.info("Retrieved lineage graph version " + id + " in lineage graph " + lineageGraphId
         + ".");
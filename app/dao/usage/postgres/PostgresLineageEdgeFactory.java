@@ -26,6 +26,7 @@ import exceptions.GroundException;
 import models.models.Tag;
 import models.usage.LineageEdge;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -49,13 +50,15 @@ public class PostgresLineageEdgeFactory
    *
    * @param dbClient the Postgres client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public PostgresLineageEdgeFactory(PostgresClient dbClient,
                                     PostgresVersionHistoryDagFactory versionHistoryDagFactory,
                                     PostgresTagFactory tagFactory,
-                                    IdGenerator idGenerator) {
+                                    IdGenerator idGenerator,
+                                    Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -88,7 +91,10 @@ public class PostgresLineageEdgeFactory
 
     LOGGER.info("Created lineage edge " + name + ".");
 
-    return new LineageEdge(uniqueId, name, sourceKey, tags);
+    LineageEdge lineageEdge = new LineageEdge(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, lineageEdge);
+
+    return lineageEdge;
   }
 
   /**
@@ -112,7 +118,7 @@ public class PostgresLineageEdgeFactory
    * @throws GroundException either the lineage edge doesn't exist or couldn't be retrieved
    */
   @Override
-  public LineageEdge retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected LineageEdge loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
   }
 
@@ -28,9 +28,12 @@ import models.models.RichVersion;
 import models.models.Tag;
 import models.usage.LineageEdgeVersion;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -54,14 +57,16 @@ public class PostgresLineageEdgeVersionFactory
    * @param lineageEdgeFactory the singleton PostgresLineageEdgeFactory
    * @param dbClient the Postgres client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public PostgresLineageEdgeVersionFactory(PostgresClient dbClient,
                                            PostgresLineageEdgeFactory lineageEdgeFactory,
                                            PostgresStructureVersionFactory structureVersionFactory,
                                            PostgresTagFactory tagFactory,
-                                           IdGenerator idGenerator) {
+                                           IdGenerator idGenerator,
+                                           Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.lineageEdgeFactory = lineageEdgeFactory;
@@ -121,7 +126,7 @@ public class PostgresLineageEdgeVersionFactory
    * @throws GroundException either the version didn't exist or couldn't be retrieved
    */
   @Override
-  public LineageEdgeVersion retrieveFromDatabase(long id) throws GroundException {
+  protected LineageEdgeVersion loadFromDatabase(long id) throws GroundException {
     final RichVersion version = super.retrieveRichVersionData(id);
 
     List<DbDataContainer> predicates = new ArrayList<>();
@@ -142,4 +147,47 @@ public class PostgresLineageEdgeVersionFactory
     return new LineageEdgeVersion(id, version.getTags(), version.getStructureVersionId(),
         version.getReference(), version.getParameters(), fromId, toId, lineageEdgeId);
   }
+
+  /**
+   * Find the rich versions downstream of a rich version, one level at a time.
+   *
+   * @param richVersionId the id of the version to start from
+   * @param maxDepth the maximum number of lineage edge versions to follow
+   * @return the id of each reachable version, mapped to its depth
+   * @throws GroundException an error while reading the lineage edge versions
+   */
+  @Override
+  public Map<Long, Integer> getDownstreamVersions(long richVersionId, int maxDepth)
+      throws GroundException {
+    Map<Long, Integer> depths = new HashMap<>();
+    List<Long> frontier = Collections.singletonList(richVersionId);
+
+    List<String> projection = new ArrayList<>();
+    projection.add("to_rich_version_id");
+
+    for (int depth = 1; depth <= maxDepth && !frontier.isEmpty(); depth++) {
+      List<Long> next = new ArrayList<>();
+
+      for (long fromId : frontier) {
+        List<DbDataContainer> predicates = new ArrayList<>();
+        predicates.add(new DbDataContainer("from_rich_version_id", GroundType.LONG, fromId));
+
+        PostgresResults resultSet = this.dbClient.equalitySelect("lineage_edge_version",
+            projection, predicates);
+
+        while (resultSet.next()) {
+          long toId = resultSet.getLong(1);
+
+          if (toId != richVersionId && !depths.containsKey(toId)) {
+            depths.put(toId, depth);
+            next.add(toId);
+          }
+        }
+      }
+
+      frontier = next;
+    }
+
+    return depths;
+  }
 }
@@ -26,6 +26,7 @@ import exceptions.GroundException;
 import models.models.Tag;
 import models.usage.LineageGraph;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -49,13 +50,15 @@ public class PostgresLineageGraphFactory
    *
    * @param dbClient the Postgres client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public PostgresLineageGraphFactory(PostgresClient dbClient,
                                      PostgresVersionHistoryDagFactory versionHistoryDagFactory,
                                      PostgresTagFactory tagFactory,
-                                     IdGenerator idGenerator) {
+                                     IdGenerator idGenerator,
+                                     Caches caches) {
 
-    super(dbClient, versionHistoryDagFactory, tagFactory);
+    super(dbClient, versionHistoryDagFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
@@ -87,7 +90,10 @@ public class PostgresLineageGraphFactory
 
     LOGGER.info("Created lineage_graph " + name + ".");
 
-    return new LineageGraph(uniqueId, name, sourceKey, tags);
+    LineageGraph lineageGraph = new LineageGraph(uniqueId, name, sourceKey, tags);
+    super.cacheItem(sourceKey, lineageGraph);
+
+    return lineageGraph;
   }
 
   /**
@@ -111,7 +117,7 @@ public class PostgresLineageGraphFactory
    * @throws GroundException either the lineage graph doesn't exist or couldn't be retrieved
    */
   @Override
-  public LineageGraph retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected LineageGraph loadFromDatabase(String sourceKey) throws GroundException {
     return this.retrieveByPredicate("source_key", sourceKey, GroundType.STRING);
   }
 
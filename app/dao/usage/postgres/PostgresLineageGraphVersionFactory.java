@@ -28,6 +28,7 @@ import models.models.RichVersion;
 import models.models.Tag;
 import models.usage.LineageGraphVersion;
 import models.versions.GroundType;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -55,14 +56,16 @@ public class PostgresLineageGraphVersionFactory
    * @param lineageGraphFactory the singleton PostgresLineageGraphFactory
    * @param dbClient the Postgres client
    * @param idGenerator a unique id generator
+   * @param caches the caches shared by the factories
    */
   public PostgresLineageGraphVersionFactory(PostgresClient dbClient,
                                             PostgresLineageGraphFactory lineageGraphFactory,
                                             PostgresStructureVersionFactory structureVersionFactory,
                                             PostgresTagFactory tagFactory,
-                                            IdGenerator idGenerator) {
+                                            IdGenerator idGenerator,
+                                            Caches caches) {
 
-    super(dbClient, structureVersionFactory, tagFactory);
+    super(dbClient, structureVersionFactory, tagFactory, caches);
 
     this.dbClient = dbClient;
     this.lineageGraphFactory = lineageGraphFactory;
@@ -129,7 +132,7 @@ public class PostgresLineageGraphVersionFactory
    * @throws GroundException either the version doesn't exist or couldn't be retrieved
    */
   @Override
-  public LineageGraphVersion retrieveFromDatabase(long id) throws GroundException {
+  protected LineageGraphVersion loadFromDatabase(long id) throws GroundException {
     final RichVersion version = super.retrieveRichVersionData(id);
 
     List<DbDataContainer> predicates = new ArrayList<>();
@@ -0,0 +1,119 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dao.versions;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import db.DbClient;
+import exceptions.GroundException;
+import models.versions.Item;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An in-process cache of items by source key, shared by the item factories of a backend. Items
+ * are never changed or deleted once they are created, so entries are only ever evicted to keep
+ * the cache within its size bound. An item is only cached once the unit of work that created or
+ * loaded it commits, so an item whose creation is aborted is never cached.
+ *
+ * <p>Source keys are only unique within an item type, so entries are keyed by both.
+ */
+public class ItemCache {
+  private final Cache<List<Object>, Item> items;
+  private final boolean enabled;
+
+  /**
+   * Read an item from the database when it is not cached.
+   *
+   * @param <T> the type of the item
+   */
+  @FunctionalInterface
+  public interface Loader<T extends Item> {
+    T load(String sourceKey) throws GroundException;
+  }
+
+  /**
+   * Create an item cache.
+   *
+   * @param maxSize the maximum number of cached items; 0 disables caching
+   */
+  public ItemCache(long maxSize) {
+    this.items = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+    this.enabled = maxSize > 0;
+  }
+
+  /**
+   * Return an item from the cache, or load it if it is missing. A loaded item is cached when the
+   * unit of work that loaded it commits.
+   *
+   * @param type the type of the item
+   * @param sourceKey the source key of the item
+   * @param loader reads the item from the database
+   * @param dbClient the client whose unit of work the item is loaded in
+   * @param <T> the type of the item
+   * @return the item
+   * @throws GroundException an error while loading the item
+   */
+  public <T extends Item> T get(Class<T> type, String sourceKey, Loader<T> loader,
+                                DbClient dbClient) throws GroundException {
+    if (!this.enabled) {
+      return loader.load(sourceKey);
+    }
+
+    Item cached = this.items.getIfPresent(ItemCache.key(type, sourceKey));
+
+    if (cached != null) {
+      return type.cast(cached);
+    }
+
+    T item = loader.load(sourceKey);
+    this.put(type, sourceKey, item, dbClient);
+
+    return item;
+  }
+
+  /**
+   * Cache an item that the current unit of work has created, once the unit of work commits.
+   *
+   * @param type the type of the item
+   * @param sourceKey the source key of the item
+   * @param item the item
+   * @param dbClient the client whose unit of work created the item
+   * @param <T> the type of the item
+   */
+  public <T extends Item> void put(Class<T> type, String sourceKey, T item, DbClient dbClient) {
+    if (this.enabled) {
+      dbClient.onCommit(() -> this.items.put(ItemCache.key(type, sourceKey), item));
+    }
+  }
+
+  public CacheStats getStats() {
+    return this.items.stats();
+  }
+
+  public long size() {
+    return this.items.size();
+  }
+
+  private static List<Object> key(Class<?> type, String sourceKey) {
+    return Arrays.asList(type, sourceKey);
+  }
+}
@@ -0,0 +1,91 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dao.versions;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import db.DbClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-process set of version ids that are known to exist, for backends without foreign key
+ * constraints that otherwise read a version back before connecting it to a successor. A version
+ * is added once the unit of work that wrote or verified it commits.
+ *
+ * <p>Versions are immutable, so an entry only goes stale when the version is truncated. A
+ * truncation through this process removes the entry, but a truncation on another machine does
+ * not, so entries also expire to bound how long this process can keep accepting a successor of
+ * a version that another machine has deleted.
+ */
+public class KnownVersionCache {
+  // how long a known version id is remembered
+  private static final long KNOWN_VERSION_MINUTES = 10;
+
+  private final Cache<Long, Boolean> versions;
+  private final boolean enabled;
+
+  /**
+   * Create a known version cache.
+   *
+   * @param maxSize the maximum number of remembered version ids; 0 disables the cache
+   */
+  public KnownVersionCache(long maxSize) {
+    this.versions = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(KNOWN_VERSION_MINUTES, TimeUnit.MINUTES)
+        .build();
+    this.enabled = maxSize > 0;
+  }
+
+  /**
+   * Return whether a version is known to exist.
+   *
+   * @param id the id of the version
+   * @return true if the version has been written or verified recently
+   */
+  public boolean contains(long id) {
+    return this.enabled && this.versions.getIfPresent(id) != null;
+  }
+
+  /**
+   * Remember that a version exists once the current unit of work commits.
+   *
+   * @param id the id of the version
+   * @param dbClient the client whose unit of work wrote or verified the version
+   */
+  public void add(long id, DbClient dbClient) {
+    if (this.enabled) {
+      dbClient.onCommit(() -> this.versions.put(id, true));
+    }
+  }
+
+  /**
+   * Forget that a version exists. This must be called whenever a version is deleted.
+   *
+   * @param id the id of the deleted version
+   */
+  public void forget(long id) {
+    this.versions.invalidate(id);
+  }
+
+  /**
+   * Forget every known version.
+   */
+  public void forgetAll() {
+    this.versions.invalidateAll();
+  }
+}
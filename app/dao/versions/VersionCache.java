@@ -0,0 +1,187 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dao.versions;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import db.DbClient;
+import exceptions.GroundException;
+import models.models.GraphVersion;
+import models.models.RichVersion;
+import models.models.StructureVersion;
+import models.usage.LineageGraphVersion;
+import models.versions.Version;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * An in-process cache of versions, shared by the version factories of a backend. Versions never
+ * change once they are written, apart from the end ids of an edge version, so an entry only has
+ * to be evicted when an edge version is updated or when a version is truncated.
+ *
+ * <p>A version that is loaded inside a unit of work is only cached once the unit of work commits,
+ * so a version written by a unit of work that is later aborted is never cached. Every eviction
+ * starts a new generation of the evicted id, and a load that began in an earlier generation is
+ * not cached, so a read that races with an update cannot put the old version back.
+ *
+ * <p>An edge version can be updated by any machine, so the cache is disabled when several
+ * machines share the database.
+ *
+ * <p>The cache is bounded by the total weight of its entries rather than by their number. The
+ * weight of a version is one, plus one for each of its tags, parameters, structure attributes
+ * and member edge versions, which roughly tracks its size in memory.
+ */
+public class VersionCache {
+  // the number of generation counters; versions whose ids share a counter also share generations
+  private static final int GENERATION_STRIPES = 1024;
+
+  private final Cache<Long, Version> versions;
+  private final boolean enabled;
+
+  // incremented by every eviction of an id in the stripe; guarded by this
+  private final long[] generations = new long[GENERATION_STRIPES];
+
+  /**
+   * Read a version from the database when it is not cached.
+   *
+   * @param <T> the type of the version
+   */
+  @FunctionalInterface
+  public interface Loader<T extends Version> {
+    T load(long id) throws GroundException;
+  }
+
+  /**
+   * Create a version cache.
+   *
+   * @param maxWeight the maximum total weight of the cached versions; 0 disables caching
+   */
+  public VersionCache(long maxWeight) {
+    this.versions = CacheBuilder.newBuilder()
+        .maximumWeight(maxWeight)
+        .weigher((Long id, Version version) -> VersionCache.weigh(version))
+        .recordStats()
+        .build();
+    this.enabled = maxWeight > 0;
+  }
+
+  /**
+   * Return a version from the cache, or load it if it is missing. A loaded version is cached when
+   * the unit of work that loaded it commits, unless it has been evicted in the meantime.
+   *
+   * @param id the id of the version
+   * @param type the type of the version; a cached version of another type is not returned
+   * @param loader reads the version from the database
+   * @param dbClient the client whose unit of work the version is loaded in
+   * @param <T> the type of the version
+   * @return the version
+   * @throws GroundException an error while loading the version
+   */
+  public <T extends Version> T get(long id, Class<T> type, Loader<T> loader, DbClient dbClient)
+      throws GroundException {
+    if (!this.enabled) {
+      return loader.load(id);
+    }
+
+    Version cached = this.versions.getIfPresent(id);
+
+    if (type.isInstance(cached)) {
+      return type.cast(cached);
+    }
+
+    long loadGeneration = this.currentGeneration(id);
+    T version = loader.load(id);
+    dbClient.onCommit(() -> this.put(id, version, loadGeneration));
+
+    return version;
+  }
+
+  /**
+   * Evict a version, so that the next read goes to the database.
+   *
+   * @param id the id of the version
+   */
+  public synchronized void invalidate(long id) {
+    this.generations[VersionCache.stripe(id)]++;
+    this.versions.invalidate(id);
+  }
+
+  /**
+   * Evict a version that the current unit of work changes or deletes. It is evicted at once, and
+   * again when the unit of work ends, since until then other units of work may still read and
+   * cache the old version.
+   *
+   * @param id the id of the version
+   * @param dbClient the client whose unit of work changes the version
+   */
+  public void invalidate(long id, DbClient dbClient) {
+    this.invalidate(id);
+    dbClient.onCommit(() -> this.invalidate(id));
+    dbClient.onAbort(() -> this.invalidate(id));
+  }
+
+  private synchronized long currentGeneration(long id) {
+    return this.generations[VersionCache.stripe(id)];
+  }
+
+  private synchronized void put(long id, Version version, long loadGeneration) {
+    if (this.generations[VersionCache.stripe(id)] == loadGeneration) {
+      this.versions.put(id, version);
+    }
+  }
+
+  private static int stripe(long id) {
+    return Math.floorMod(Long.hashCode(id), GENERATION_STRIPES);
+  }
+
+  public CacheStats getStats() {
+    return this.versions.stats();
+  }
+
+  public long size() {
+    return this.versions.size();
+  }
+
+  private static int weigh(Version version) {
+    int weight = 1;
+
+    if (version instanceof RichVersion) {
+      RichVersion richVersion = (RichVersion) version;
+      weight += VersionCache.sizeOf(richVersion.getTags())
+          + VersionCache.sizeOf(richVersion.getParameters());
+    }
+
+    if (version instanceof StructureVersion) {
+      weight += VersionCache.sizeOf(((StructureVersion) version).getAttributes());
+    } else if (version instanceof GraphVersion) {
+      weight += VersionCache.sizeOf(((GraphVersion) version).getEdgeVersionIds());
+    } else if (version instanceof LineageGraphVersion) {
+      weight += VersionCache.sizeOf(((LineageGraphVersion) version).getLineageEdgeVersionIds());
+    }
+
+    return weight;
+  }
+
+  private static int sizeOf(Map<?, ?> map) {
+    return map == null ? 0 : map.size();
+  }
+
+  private static int sizeOf(Collection<?> collection) {
+    return collection == null ? 0 : collection.size();
+  }
+}
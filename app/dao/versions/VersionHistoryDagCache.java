@@ -0,0 +1,175 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dao.versions;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import db.DbClient;
+import exceptions.GroundException;
+import models.versions.Version;
+import models.versions.VersionHistoryDag;
+
+/**
+ * An in-process cache of version history DAGs by item id. An edge that a unit of work adds to an
+ * item is applied to its cached DAG once the unit of work commits, so adding a version does not
+ * reload the item's history. A DAG is evicted when its item is truncated.
+ *
+ * <p>A cached DAG is shared by every unit of work that reads it, and only changes when an edge is
+ * committed, so the edges that a unit of work adds are not seen by the others until it commits.
+ * A DAG that is loaded inside a unit of work is only cached once the unit of work commits. As in
+ * {@link VersionCache}, every change to an item starts a new generation of the item, and a load
+ * that began in an earlier generation is not cached.
+ *
+ * <p>The cache only sees the edges added by this process, so it is disabled when several machines
+ * share the database.
+ *
+ * <p>The cache is bounded by the total number of edges in the cached DAGs; each DAG also counts
+ * one towards the bound, so that empty DAGs are not free.
+ */
+public class VersionHistoryDagCache {
+  // the number of generation counters; items whose ids share a counter also share generations
+  private static final int GENERATION_STRIPES = 1024;
+
+  private final Cache<Long, VersionHistoryDag> dags;
+  private final boolean enabled;
+
+  // incremented by every change to an item with an id in the stripe; guarded by this
+  private final long[] generations = new long[GENERATION_STRIPES];
+
+  /**
+   * Read a DAG from the database when it is not cached.
+   */
+  @FunctionalInterface
+  public interface Loader {
+    VersionHistoryDag<?> load(long itemId) throws GroundException;
+  }
+
+  /**
+   * Create a version history DAG cache.
+   *
+   * @param maxEdges the maximum total number of edges in the cached DAGs; 0 disables caching
+   */
+  public VersionHistoryDagCache(long maxEdges) {
+    this.dags = CacheBuilder.newBuilder()
+        .maximumWeight(maxEdges)
+        .weigher((Long itemId, VersionHistoryDag dag) -> 1 + dag.getEdgeIds().size())
+        .recordStats()
+        .build();
+    this.enabled = maxEdges > 0;
+  }
+
+  /**
+   * Return the DAG of an item from the cache, or load it if it is missing. A cached DAG is shared,
+   * so the caller must not add edges to it. A loaded DAG belongs to the caller until the unit of
+   * work that loaded it commits, and is then cached unless the item has changed in the meantime.
+   *
+   * @param itemId the id of the item
+   * @param loader reads the DAG from the database
+   * @param dbClient the client whose unit of work the DAG is loaded in
+   * @param <T> the type of the versions in the DAG
+   * @return the DAG
+   * @throws GroundException an error while loading the DAG
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Version> VersionHistoryDag<T> get(long itemId, Loader loader,
+                                                      DbClient dbClient) throws GroundException {
+    if (!this.enabled) {
+      return (VersionHistoryDag<T>) loader.load(itemId);
+    }
+
+    VersionHistoryDag<T> cached = this.dags.getIfPresent(itemId);
+
+    if (cached != null) {
+      return cached;
+    }
+
+    long loadGeneration = this.currentGeneration(itemId);
+    VersionHistoryDag<T> dag = (VersionHistoryDag<T>) loader.load(itemId);
+    dbClient.onCommit(() -> this.put(itemId, dag, loadGeneration));
+
+    return dag;
+  }
+
+  /**
+   * Apply an edge to the cached DAG of an item, if there is one. This is called once the edge is
+   * committed; an edge that the cached DAG already has is ignored.
+   *
+   * @param itemId the id of the item
+   * @param parentId the id of the parent version
+   * @param childId the id of the child version
+   * @param successorId the id of the version successor of the edge
+   */
+  public synchronized void addEdge(long itemId, long parentId, long childId, long successorId) {
+    this.generations[VersionHistoryDagCache.stripe(itemId)]++;
+
+    VersionHistoryDag<?> cached = this.dags.getIfPresent(itemId);
+
+    if (cached != null && !cached.containsEdge(successorId)) {
+      cached.addEdge(parentId, childId, successorId);
+
+      // put it back so that its weight is updated
+      this.dags.put(itemId, cached);
+    }
+  }
+
+  /**
+   * Evict the DAG of an item, so that the next read goes to the database.
+   *
+   * @param itemId the id of the item
+   */
+  public synchronized void invalidate(long itemId) {
+    this.generations[VersionHistoryDagCache.stripe(itemId)]++;
+    this.dags.invalidate(itemId);
+  }
+
+  /**
+   * Evict the DAG of an item that the current unit of work changes. It is evicted at once, and
+   * again when the unit of work ends, since until then other units of work may still read and
+   * cache the old DAG.
+   *
+   * @param itemId the id of the item
+   * @param dbClient the client whose unit of work changes the DAG
+   */
+  public void invalidate(long itemId, DbClient dbClient) {
+    this.invalidate(itemId);
+    dbClient.onCommit(() -> this.invalidate(itemId));
+    dbClient.onAbort(() -> this.invalidate(itemId));
+  }
+
+  private synchronized long currentGeneration(long itemId) {
+    return this.generations[VersionHistoryDagCache.stripe(itemId)];
+  }
+
+  private synchronized void put(long itemId, VersionHistoryDag<?> dag, long loadGeneration) {
+    if (this.generations[VersionHistoryDagCache.stripe(itemId)] == loadGeneration) {
+      dag.share();
+      this.dags.put(itemId, dag);
+    }
+  }
+
+  private static int stripe(long itemId) {
+    return Math.floorMod(Long.hashCode(itemId), GENERATION_STRIPES);
+  }
+
+  public CacheStats getStats() {
+    return this.dags.stats();
+  }
+
+  public long size() {
+    return this.dags.size();
+  }
+}
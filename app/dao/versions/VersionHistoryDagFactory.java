@@ -31,7 +31,8 @@ public interface VersionHistoryDagFactory {
   /**
    * Add a new edge between parentId and childId in DAG.
    *
-   * @param dag the DAG to update
+   * @param dag the DAG to update; a shared DAG from the cache is updated once the edge is
+   *     committed instead
    * @param parentId the parent's id
    * @param childId the child's id
    * @param itemId the id of the Item whose DAG we're updating
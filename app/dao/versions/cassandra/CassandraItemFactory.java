@@ -14,17 +14,24 @@
 
 package dao.versions.cassandra;
 
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.base.CaseFormat;
+
 import dao.models.cassandra.CassandraTagFactory;
+import dao.versions.ItemCache;
 import dao.versions.ItemFactory;
 import db.CassandraClient;
 import db.CassandraResults;
 import db.DbDataContainer;
 import exceptions.GroundException;
+import exceptions.GroundItemExistsException;
 import exceptions.GroundItemNotFoundException;
 import models.models.Tag;
 import models.versions.GroundType;
 import models.versions.Item;
+import models.versions.Version;
 import models.versions.VersionHistoryDag;
+import util.Caches;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +46,7 @@ public abstract class CassandraItemFactory<T extends Item> implements ItemFactor
   private final CassandraClient dbClient;
   private final CassandraVersionHistoryDagFactory versionHistoryDagFactory;
   private final CassandraTagFactory tagFactory;
+  private final ItemCache itemCache;
 
   /**
    * Constructor for the Cassandra item factory.
@@ -46,13 +54,48 @@ public abstract class CassandraItemFactory<T extends Item> implements ItemFactor
    * @param dbClient the Cassandra client
    * @param versionHistoryDagFactory the singleton CassandraVersionHistoryDagFactory
    * @param tagFactory the singleton CassandraTagFactory
+   * @param caches the caches shared by the factories
    */
   public CassandraItemFactory(CassandraClient dbClient,
                               CassandraVersionHistoryDagFactory versionHistoryDagFactory,
-                              CassandraTagFactory tagFactory) {
+                              CassandraTagFactory tagFactory,
+                              Caches caches) {
     this.dbClient = dbClient;
     this.versionHistoryDagFactory = versionHistoryDagFactory;
     this.tagFactory = tagFactory;
+    this.itemCache = caches.getItemCache();
+  }
+
+  /**
+   * Retrieve an item by source key, from the item cache if it is there and from the database
+   * otherwise.
+   *
+   * @param sourceKey the source key of the item
+   * @return the retrieved item
+   * @throws GroundException either the item doesn't exist or couldn't be retrieved
+   */
+  @Override
+  public T retrieveFromDatabase(String sourceKey) throws GroundException {
+    return this.itemCache.get(this.getType(), sourceKey, this::loadFromDatabase, this.dbClient);
+  }
+
+  /**
+   * Read an item by source key from the database, bypassing the item cache.
+   *
+   * @param sourceKey the source key of the item
+   * @return the retrieved item
+   * @throws GroundException either the item doesn't exist or couldn't be retrieved
+   */
+  protected abstract T loadFromDatabase(String sourceKey) throws GroundException;
+
+  /**
+   * Add a newly created item to the item cache once the current unit of work commits.
+   *
+   * @param sourceKey the source key of the item
+   * @param item the item
+   */
+  protected void cacheItem(String sourceKey, T item) {
+    this.itemCache.put(this.getType(), sourceKey, item, this.dbClient);
   }
 
   /**
@@ -63,11 +106,28 @@ public abstract class CassandraItemFactory<T extends Item> implements ItemFactor
    * @throws GroundException an error inserting data into the database
    */
   public void insertIntoDatabase(long id, Map<String, Tag> tags) throws GroundException {
+    this.dbClient.awaitAll(this.insertIntoDatabaseAsync(id, tags));
+  }
+
+  /**
+   * Issue the writes for item information without waiting for them to complete. Callers must
+   * pass the returned futures to CassandraClient.awaitAll before relying on the data.
+   *
+   * @param id the id of the item
+   * @param tags the tags associated with the item
+   * @return the futures for the pending writes
+   * @throws GroundException an error issuing the writes
+   */
+  protected List<ResultSetFuture> insertIntoDatabaseAsync(long id, Map<String, Tag> tags)
+      throws GroundException {
+    List<ResultSetFuture> writes = new ArrayList<>();
+
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    this.dbClient.insert("item", insertions);
+    writes.add(this.dbClient.insertAsync("item", insertions));
 
+    List<List<DbDataContainer>> tagRows = new ArrayList<>();
     for (String key : tags.keySet()) {
       Tag tag = tags.get(key);
 
@@ -85,7 +145,28 @@ public abstract class CassandraItemFactory<T extends Item> implements ItemFactor
         tagInsertion.add(new DbDataContainer("type", GroundType.STRING, null));
       }
 
-      this.dbClient.insert("item_tag", tagInsertion);
+      tagRows.add(tagInsertion);
+    }
+
+    writes.addAll(this.dbClient.insertBatchAsync("item_tag", "item_id", tagRows));
+    writes.addAll(this.tagFactory.insertTagKeyIndexAsync("item", id, tags.keySet(), 0));
+
+    return writes;
+  }
+
+  /**
+   * Insert the source key lookup row of a new item, unless an item with that source key already
+   * exists. This is a conditional write, so it also catches an item being created concurrently.
+   *
+   * @param table the source key lookup table (e.g. node_by_source_key)
+   * @param insertions the values of the lookup row
+   * @param sourceKey the source key of the new item
+   * @throws GroundException an item with the source key already exists
+   */
+  protected void claimSourceKey(String table, List<DbDataContainer> insertions, String sourceKey)
+      throws GroundException {
+    if (!this.dbClient.insertIfNotExists(table, insertions)) {
+      throw new GroundItemExistsException(this.getType(), sourceKey);
     }
   }
 
@@ -118,7 +199,7 @@ public abstract class CassandraItemFactory<T extends Item> implements ItemFactor
 
     VersionHistoryDag dag;
     try {
-      dag = this.versionHistoryDagFactory.retrieveFromDatabase(itemId);
+      dag = this.retrieveDag(itemId);
     } catch (GroundException e) {
       if (!e.getMessage().contains("No VersionHistoryDAG for Item")) {
         throw e;
@@ -127,7 +208,14 @@ public abstract class CassandraItemFactory<T extends Item> implements ItemFactor
       dag = this.versionHistoryDagFactory.create(itemId);
     }
 
+    boolean reloaded = false;
     for (long parentId : parentIds) {
+      if (parentId != 0 && !dag.checkItemInDag(parentId) && !reloaded) {
+        // the parent may have been added after the DAG was cached, so check the database
+        dag = this.versionHistoryDagFactory.loadFromDatabase(itemId);
+        reloaded = true;
+      }
+
       if (parentId != 0 && !dag.checkItemInDag(parentId)) {
         String errorString = "Parent " + parentId + " is not in Item " + itemId + ".";
 
@@ -135,10 +223,39 @@ public abstract class CassandraItemFactory<T extends Item> implements ItemFactor
         throw new GroundException(errorString);
       }
 
-      this.versionHistoryDagFactory.addEdge(dag, parentId, childId, itemId);
+      // the edge expires along with the child version
+      this.versionHistoryDagFactory.addEdge(dag, parentId, childId, itemId,
+          this.getRetentionSeconds());
     }
   }
 
+  /**
+   * Return the number of seconds that versions of this item type are kept for.
+   *
+   * @return the retention in seconds, or 0 if versions are kept until they are truncated
+   */
+  protected int getRetentionSeconds() {
+    return this.dbClient.getRetentionSeconds(
+        CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, this.getType().getSimpleName()));
+  }
+
+  /**
+   * Retrieve the DAG of an item. The DAGs of item types whose versions expire are never cached,
+   * since their edges disappear from the database without the cache hearing about it.
+   *
+   * @param itemId the id of the item
+   * @return the DAG
+   * @throws GroundException an error retrieving the DAG
+   */
+  private <V extends Version> VersionHistoryDag<V> retrieveDag(long itemId)
+      throws GroundException {
+    if (this.getRetentionSeconds() > 0) {
+      return this.versionHistoryDagFactory.loadFromDatabase(itemId);
+    }
+
+    return this.versionHistoryDagFactory.retrieveFromDatabase(itemId);
+  }
+
   /**
    * Return the list of leaves of this item's DAG.
    *
@@ -148,7 +265,7 @@ public abstract class CassandraItemFactory<T extends Item> implements ItemFactor
    */
   public List<Long> getLeaves(long itemId) throws GroundException {
     try {
-      VersionHistoryDag<?> dag = this.versionHistoryDagFactory.retrieveFromDatabase(itemId);
+      VersionHistoryDag<?> dag = this.retrieveDag(itemId);
 
       return dag.getLeaves();
     } catch (GroundException e) {
@@ -168,7 +285,7 @@ public abstract class CassandraItemFactory<T extends Item> implements ItemFactor
    */
   @Override
   public void truncate(long itemId, int numLevels) throws GroundException {
-    VersionHistoryDag<?> dag = this.versionHistoryDagFactory.retrieveFromDatabase(itemId);
+    VersionHistoryDag<?> dag = this.retrieveDag(itemId);
 
     this.versionHistoryDagFactory.truncate(dag, numLevels, this.getType());
   }
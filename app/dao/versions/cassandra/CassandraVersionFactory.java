@@ -14,6 +14,11 @@
 
 package dao.versions.cassandra;
 
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.base.CaseFormat;
+
+import dao.versions.KnownVersionCache;
+import dao.versions.VersionCache;
 import dao.versions.VersionFactory;
 import db.CassandraClient;
 import db.CassandraResults;
@@ -22,15 +27,55 @@ import exceptions.GroundException;
 import exceptions.GroundVersionNotFoundException;
 import models.versions.GroundType;
 import models.versions.Version;
+import util.Caches;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public abstract class CassandraVersionFactory<T extends Version> implements VersionFactory<T> {
   private final CassandraClient dbClient;
+  private final VersionCache versionCache;
+  private final KnownVersionCache knownVersions;
 
-  public CassandraVersionFactory(CassandraClient dbClient) {
+  public CassandraVersionFactory(CassandraClient dbClient, Caches caches) {
     this.dbClient = dbClient;
+    this.versionCache = caches.getVersionCache();
+    this.knownVersions = caches.getKnownVersionCache();
+  }
+
+  /**
+   * Retrieve a version, from the version cache if it is there and from the database otherwise.
+   *
+   * @param id the id of the version to retrieve
+   * @return the retrieved version
+   * @throws GroundException either the version doesn't exist or couldn't be retrieved
+   */
+  @Override
+  public T retrieveFromDatabase(long id) throws GroundException {
+    // an expired version disappears from the database without the cache hearing about it
+    if (this.getRetentionSeconds() > 0) {
+      return this.loadFromDatabase(id);
+    }
+
+    return this.versionCache.get(id, this.getType(), this::loadFromDatabase, this.dbClient);
+  }
+
+  /**
+   * Read a version from the database, bypassing the version cache.
+   *
+   * @param id the id of the version to retrieve
+   * @return the retrieved version
+   * @throws GroundException either the version doesn't exist or couldn't be retrieved
+   */
+  protected abstract T loadFromDatabase(long id) throws GroundException;
+
+  /**
+   * Evict a version from the version cache when the current unit of work changes or deletes it.
+   *
+   * @param id the id of the version
+   */
+  protected void evictFromCache(long id) {
+    this.versionCache.invalidate(id, this.dbClient);
   }
 
   /**
@@ -44,7 +89,52 @@ public abstract class CassandraVersionFactory<T extends Version> implements Vers
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    this.dbClient.insert("version", insertions);
+    this.dbClient.insert("version", insertions, this.getRetentionSeconds());
+    this.registerVersion(id);
+  }
+
+  /**
+   * Asynchronously insert version information into the database.
+   *
+   * @param id the id to insert
+   * @return a future for the pending write
+   * @throws GroundException an error issuing the write
+   */
+  protected ResultSetFuture insertIntoDatabaseAsync(long id) throws GroundException {
+    List<DbDataContainer> insertions = new ArrayList<>();
+    insertions.add(new DbDataContainer("id", GroundType.LONG, id));
+
+    ResultSetFuture write = this.dbClient.insertAsync("version", insertions,
+        this.getRetentionSeconds());
+    this.registerVersion(id);
+
+    return write;
+  }
+
+  /**
+   * Remember that a version exists once the current unit of work commits, so that connecting it
+   * to a successor does not read it back. A version that expires is not remembered, as it can
+   * disappear before the entry does.
+   *
+   * @param id the id of the inserted version
+   */
+  private void registerVersion(long id) {
+    if (this.getRetentionSeconds() == 0) {
+      this.knownVersions.add(id, this.dbClient);
+    }
+  }
+
+  /**
+   * Return the number of seconds that versions of this type are kept for. Every row written for
+   * a version expires together, so an expired version disappears as a whole.
+   *
+   * @return the retention in seconds, or 0 if versions are kept until they are truncated
+   */
+  protected int getRetentionSeconds() {
+    String typeName = this.getType().getSimpleName().replaceAll("Version$", "");
+
+    return this.dbClient.getRetentionSeconds(
+        CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, typeName));
   }
 
   /**
@@ -14,35 +14,55 @@
 
 package dao.versions.cassandra;
 
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.google.common.base.CaseFormat;
+import com.google.common.util.concurrent.ListenableFuture;
 
+import dao.models.StructureVersionCache;
+import dao.models.cassandra.CassandraTagFactory;
+import dao.versions.VersionCache;
+import dao.versions.VersionHistoryDagCache;
 import dao.versions.VersionHistoryDagFactory;
 import db.CassandraClient;
 import db.CassandraResults;
-import db.DbClient;
 import db.DbDataContainer;
 import exceptions.GroundException;
 import models.models.Structure;
+import models.usage.LineageEdge;
 import models.versions.GroundType;
 import models.versions.Item;
 import models.versions.Version;
 import models.versions.VersionHistoryDag;
 import models.versions.VersionSuccessor;
+import util.Caches;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class CassandraVersionHistoryDagFactory implements VersionHistoryDagFactory {
   private final CassandraClient dbClient;
   private final CassandraVersionSuccessorFactory versionSuccessorFactory;
+  private final CassandraTagFactory tagFactory;
+  private final VersionCache versionCache;
+  private final StructureVersionCache structureVersionCache;
+  private final VersionHistoryDagCache dagCache;
 
   public CassandraVersionHistoryDagFactory(
       CassandraClient dbClient,
-      CassandraVersionSuccessorFactory versionSuccessorFactory) {
+      CassandraVersionSuccessorFactory versionSuccessorFactory,
+      CassandraTagFactory tagFactory,
+      Caches caches) {
     this.dbClient = dbClient;
     this.versionSuccessorFactory = versionSuccessorFactory;
+    this.tagFactory = tagFactory;
+    this.versionCache = caches.getVersionCache();
+    this.structureVersionCache = caches.getStructureVersionCache();
+    this.dagCache = caches.getVersionHistoryDagCache();
   }
 
   @Override
@@ -51,7 +71,7 @@ public class CassandraVersionHistoryDagFactory implements VersionHistoryDagFacto
   }
 
   /**
-   * Retrieve a DAG from the database.
+   * Retrieve a DAG, from the DAG cache if it is there and from the database otherwise.
    *
    * @param itemId the id of the item whose dag we are retrieving
    * @param <T> the type of the versions in this dag
@@ -61,22 +81,43 @@ public class CassandraVersionHistoryDagFactory implements VersionHistoryDagFacto
   @Override
   public <T extends Version> VersionHistoryDag<T> retrieveFromDatabase(long itemId)
       throws GroundException {
-    List<DbDataContainer> predicates = new ArrayList<>();
-    predicates.add(new DbDataContainer("item_id", GroundType.LONG, itemId));
-    CassandraResults resultSet = this.dbClient.equalitySelect("version_history_dag", DbClient.SELECT_STAR,
-          predicates);
+    return this.dagCache.get(itemId, this::loadFromDatabase, this.dbClient);
+  }
 
-    if (resultSet.isEmpty()) {
+  /**
+   * Read a DAG from the database, bypassing the DAG cache.
+   *
+   * @param itemId the id of the item whose dag we are retrieving
+   * @param <T> the type of the versions in this dag
+   * @return the retrieved DAG
+   * @throws GroundException an error retrieving the DAG
+   */
+  public <T extends Version> VersionHistoryDag<T> loadFromDatabase(long itemId)
+      throws GroundException {
+    List<VersionSuccessor<T>> edges = this.retrieveEdges(itemId);
+
+    if (edges.isEmpty()) {
       return new VersionHistoryDag<T>(itemId, new ArrayList<>());
     }
 
-    List<VersionSuccessor<T>> edges = new ArrayList<>();
-    do {
-      edges.add(this.versionSuccessorFactory.retrieveFromDatabase(resultSet
-          .getLong("version_successor_id")));
-    } while (resultSet.next());
+    Set<Long> childIds = new HashSet<>();
+    for (VersionSuccessor<T> edge : edges) {
+      childIds.add(edge.getToId());
+    }
 
-    return new VersionHistoryDag(itemId, edges);
+    // Every version other than the empty version has an incoming edge, which is written with the
+    // same ttl as the version. If a parent has no incoming edge, it has expired, and its children
+    // become the new roots of the DAG, just as if the history had been truncated.
+    List<VersionSuccessor<T>> liveEdges = new ArrayList<>();
+    for (VersionSuccessor<T> edge : edges) {
+      if (edge.getFromId() != 0 && !childIds.contains(edge.getFromId())) {
+        liveEdges.add(new VersionSuccessor<>(edge.getId(), 0, edge.getToId()));
+      } else {
+        liveEdges.add(edge);
+      }
+    }
+
+    return new VersionHistoryDag(itemId, liveEdges);
   }
 
   /**
@@ -91,19 +132,49 @@ public class CassandraVersionHistoryDagFactory implements VersionHistoryDagFacto
   @Override
   public void addEdge(VersionHistoryDag dag, long parentId, long childId, long itemId)
       throws GroundException {
-    VersionSuccessor successor = this.versionSuccessorFactory.create(parentId, childId);
+    this.addEdge(dag, parentId, childId, itemId, 0);
+  }
+
+  /**
+   * Add an edge to the DAG that expires after a number of seconds.
+   *
+   * @param dag the DAG to update
+   * @param parentId the parent's id
+   * @param childId the child's id
+   * @param itemId the id of the Item whose DAG we're updating
+   * @param ttl the number of seconds until the edge expires, or 0 if it never does
+   * @throws GroundException an error adding the edge
+   */
+  public void addEdge(VersionHistoryDag dag, long parentId, long childId, long itemId, int ttl)
+      throws GroundException {
+    VersionSuccessor successor = this.versionSuccessorFactory.create(parentId, childId, ttl);
 
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("item_id", GroundType.LONG, itemId));
     insertions.add(new DbDataContainer("version_successor_id", GroundType.LONG, successor.getId()));
+    insertions.add(new DbDataContainer("from_version_id", GroundType.LONG, parentId));
+    insertions.add(new DbDataContainer("to_version_id", GroundType.LONG, childId));
 
-    this.dbClient.insert("version_history_dag", insertions);
+    this.dbClient.insert("version_history_dag", insertions, ttl);
+
+    // a shared DAG is updated by the cache once the edge is committed
+    if (!dag.isShared()) {
+      dag.addEdge(parentId, childId, successor.getId());
+    }
 
-    dag.addEdge(parentId, childId, successor.getId());
+    // an expiring edge disappears from the database without the cache hearing about it
+    if (ttl > 0) {
+      this.dagCache.invalidate(itemId);
+    } else {
+      this.dbClient.onCommit(() ->
+          this.dagCache.addEdge(itemId, parentId, childId, successor.getId()));
+    }
   }
 
   /**
    * Truncate the DAG to only have a certain number of levels, removing everything before that.
+   * The removed edges are deleted from the item's partition with as few range deletes as
+   * possible, and the rows of the removed versions are deleted with one statement per table.
    *
    * @param dag the DAG to truncate
    * @param numLevels the number of levels to keep
@@ -131,62 +202,239 @@ public class CassandraVersionHistoryDagFactory implements VersionHistoryDagFacto
     List<Long> deleteQueue = new ArrayList<>(new HashSet<>(previousLevel));
     Set<Long> deleted = new HashSet<>();
 
-    List<DbDataContainer> predicates = new ArrayList<>();
+    while (deleteQueue.size() > 0) {
+      long id = deleteQueue.remove(0);
+
+      if (id != 0 && deleted.add(id)) {
+        deleteQueue.addAll(dag.getParent(id));
+      }
+    }
+
+    String[] splits = itemType.getName().split("\\.");
+    String tableNamePrefix = splits[splits.length - 1];
+    tableNamePrefix = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, tableNamePrefix);
+    int ttl = this.dbClient.getRetentionSeconds(tableNamePrefix);
+
+    // the new root edges must expire together with the versions they point to
+    Map<Long, Integer> rootTtls = new HashMap<>();
     for (long id : lastLevel) {
-      this.versionSuccessorFactory.deleteFromDestination(id, dag.getItemId());
-      this.addEdge(dag, 0, id, dag.getItemId());
+      rootTtls.put(id, ttl > 0 ? this.getRemainingTtl(dag.getItemId(), id, ttl) : 0);
     }
 
+    this.deleteEdges(dag.getItemId(), deleted, new HashSet<>(lastLevel));
 
-    while (deleteQueue.size() > 0) {
-      long id = deleteQueue.get(0);
+    for (long id : lastLevel) {
+      this.addEdge(dag, 0, id, dag.getItemId(), rootTtls.get(id));
+    }
 
-      if (id != 0) {
-        String[] splits = itemType.getName().split("\\.");
-        String tableNamePrefix = splits[splits.length - 1];
-        tableNamePrefix = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, tableNamePrefix);
+    this.deleteVersions(new ArrayList<>(deleted), itemType, tableNamePrefix);
+    this.dagCache.invalidate(dag.getItemId());
+  }
 
-        if (itemType.equals(Structure.class)) {
-          predicates.add(new DbDataContainer("structure_version_id", GroundType.LONG, id));
-          this.dbClient.delete(predicates, "structure_version_attribute");
-          predicates.clear();
-        }
+  /**
+   * Delete the edges into a set of versions from an item's DAG. The edges are named one by one
+   * within the item's partition rather than deleted by successor id range: successor ids from
+   * different machines interleave, so a range between two removed edges can hold an edge that
+   * another machine has just added.
+   *
+   * @param itemId the id of the item
+   * @param deleted the versions being deleted
+   * @param newRoots the versions whose incoming edges are being replaced by root edges
+   */
+  private void deleteEdges(long itemId, Set<Long> deleted, Set<Long> newRoots)
+      throws GroundException {
+    List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer("item_id", GroundType.LONG, itemId));
 
-        if (itemType.getName().toLowerCase().contains("graph")) {
-          predicates.add(new DbDataContainer(tableNamePrefix + "_version_id", GroundType.LONG, id));
-          this.dbClient.delete(predicates, tableNamePrefix + "_version_edge");
-          predicates.clear();
-        }
+    List<DbDataContainer> dagIds = new ArrayList<>();
+    List<DbDataContainer> successorIds = new ArrayList<>();
+    for (VersionSuccessor<Version> edge : this.<Version>retrieveEdges(itemId)) {
+      if (deleted.contains(edge.getToId()) || newRoots.contains(edge.getToId())) {
+        dagIds.add(new DbDataContainer("version_successor_id", GroundType.LONG, edge.getId()));
+        successorIds.add(new DbDataContainer("id", GroundType.LONG, edge.getId()));
+      }
+    }
 
-        predicates.add(new DbDataContainer("id", GroundType.LONG, id));
-        this.dbClient.delete(predicates, tableNamePrefix + "_version");
+    this.dbClient.awaitAll(this.dbClient.deleteInAsync(predicates, dagIds,
+        "version_history_dag"));
+    this.dbClient.deleteIn(successorIds, "version_successor");
+  }
 
-        if (!itemType.equals(Structure.class)) {
-          this.dbClient.delete(predicates, "rich_version");
-        }
+  /**
+   * Read the edges of an item's DAG, in clustering order. Rows written before the successor
+   * endpoints were stored inline in version_history_dag have no endpoints, so the endpoints of
+   * those edges are read from version_successor instead.
+   *
+   * @param itemId the id of the item
+   * @param <T> the type of the versions in the DAG
+   * @return the edges of the DAG
+   * @throws GroundException an error reading the edges
+   */
+  private <T extends Version> List<VersionSuccessor<T>> retrieveEdges(long itemId)
+      throws GroundException {
+    List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer("item_id", GroundType.LONG, itemId));
 
-        this.dbClient.delete(predicates, "version");
+    List<String> projection = new ArrayList<>();
+    projection.add("version_successor_id");
+    projection.add("from_version_id");
+    projection.add("to_version_id");
 
-        predicates.clear();
-        predicates.add(new DbDataContainer("rich_version_id", GroundType.LONG, id));
-        this.dbClient.delete(predicates, "rich_version_tag");
+    CassandraResults resultSet = this.dbClient.equalitySelect("version_history_dag", projection,
+        predicates);
 
-        this.versionSuccessorFactory.deleteFromDestination(id, dag.getItemId());
+    List<VersionSuccessor<T>> edges = new ArrayList<>();
+    if (resultSet.isEmpty()) {
+      return edges;
+    }
 
-        deleted.add(id);
+    do {
+      long successorId = resultSet.getLong("version_successor_id");
 
-        List<Long> parents = dag.getParent(id);
+      if (resultSet.isNull("to_version_id")) {
+        edges.add(this.versionSuccessorFactory.retrieveFromDatabase(successorId));
+      } else {
+        edges.add(new VersionSuccessor<>(successorId, resultSet.getLong("from_version_id"),
+            resultSet.getLong("to_version_id")));
+      }
+    } while (resultSet.next());
+
+    return edges;
+  }
+
+  /**
+   * Delete every row of a set of versions, with one statement per table.
+   *
+   * @param ids the ids of the versions to delete
+   * @param itemType the type of the item the versions belong to
+   * @param tableNamePrefix the table name prefix for the item type
+   */
+  private void deleteVersions(List<Long> ids, Class<? extends Item> itemType,
+                              String tableNamePrefix) throws GroundException {
+    if (ids.isEmpty()) {
+      return;
+    }
 
-        parents.forEach(parentId -> {
-          if (!deleted.contains(parentId)) {
-            deleteQueue.add(parentId);
-          }
-        });
+    this.tagFactory.deleteTagKeyIndex("rich_version", ids);
+
+    List<DbDataContainer> versionIds = this.toContainers(ids, "id");
+
+    if (itemType.equals(Structure.class)) {
+      this.dbClient.deleteIn(this.toContainers(ids, "structure_version_id"),
+          "structure_version_attribute");
+    }
+
+    if (itemType.getName().toLowerCase().contains("graph")) {
+      this.dbClient.deleteIn(this.toContainers(ids, tableNamePrefix + "_version_id"),
+          tableNamePrefix + "_version_edge");
+    }
+
+    if (itemType.equals(LineageEdge.class)) {
+      this.deleteDownstreamIndex(ids);
+    }
+
+    this.dbClient.deleteIn(versionIds, tableNamePrefix + "_version");
+
+    if (!itemType.equals(Structure.class)) {
+      this.dbClient.deleteIn(versionIds, "rich_version");
+    }
+
+    this.dbClient.deleteIn(versionIds, "version");
+
+    List<DbDataContainer> richVersionIds = this.toContainers(ids, "rich_version_id");
+    this.dbClient.deleteIn(richVersionIds, "rich_version_tag");
+    this.dbClient.deleteIn(richVersionIds, "rich_version_external_parameter");
+
+    ids.forEach(this.versionSuccessorFactory::forgetVersion);
+    ids.forEach(this.versionCache::invalidate);
+    ids.forEach(this.structureVersionCache::invalidate);
+  }
 
-        predicates.clear();
+  /**
+   * Remove a set of lineage edge versions from the lineage_edge_version_by_from index. This must
+   * be called before the lineage edge versions are deleted. The versions are read concurrently,
+   * and the index rows that share a source version are removed by a single delete.
+   *
+   * @param ids the ids of the lineage edge versions
+   */
+  private void deleteDownstreamIndex(List<Long> ids) throws GroundException {
+    List<String> projection = new ArrayList<>();
+    projection.add("id");
+    projection.add("from_rich_version_id");
+
+    List<ListenableFuture<ResultSet>> reads = new ArrayList<>();
+    for (long id : ids) {
+      List<DbDataContainer> predicates = new ArrayList<>();
+      predicates.add(new DbDataContainer("id", GroundType.LONG, id));
+
+      reads.add(this.dbClient.equalitySelectAsync("lineage_edge_version", projection,
+          predicates));
+    }
+
+    // the lineage edge versions to remove from each index partition, keyed by source version
+    Map<Long, List<DbDataContainer>> partitions = new HashMap<>();
+    for (ListenableFuture<ResultSet> read : reads) {
+      CassandraResults resultSet = this.dbClient.getResults(read);
+
+      if (!resultSet.isEmpty()) {
+        partitions.computeIfAbsent(resultSet.getLong("from_rich_version_id"),
+            fromId -> new ArrayList<>())
+            .add(new DbDataContainer("lineage_edge_version_id", GroundType.LONG,
+                resultSet.getLong("id")));
       }
+    }
+
+    List<ResultSetFuture> deletes = new ArrayList<>();
+    for (Map.Entry<Long, List<DbDataContainer>> partition : partitions.entrySet()) {
+      List<DbDataContainer> predicates = new ArrayList<>();
+      predicates.add(new DbDataContainer("from_rich_version_id", GroundType.LONG,
+          partition.getKey()));
+
+      deletes.addAll(this.dbClient.deleteInAsync(predicates, partition.getValue(),
+          "lineage_edge_version_by_from"));
+    }
+
+    this.dbClient.awaitAll(deletes);
+  }
+
+  private List<DbDataContainer> toContainers(List<Long> ids, String field)
+      throws GroundException {
+    List<DbDataContainer> containers = new ArrayList<>();
+    for (long id : ids) {
+      containers.add(new DbDataContainer(field, GroundType.LONG, id));
+    }
+
+    return containers;
+  }
+
+  /**
+   * Compute how long a version that was written with a ttl has left to live, based on when its
+   * incoming edge was written.
+   *
+   * @param itemId the id of the item
+   * @param versionId the id of the version
+   * @param ttl the ttl the version was written with
+   * @return the number of seconds until the version expires; at least 1
+   */
+  private int getRemainingTtl(long itemId, long versionId, int ttl) throws GroundException {
+    List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer("item_id", GroundType.LONG, itemId));
+    predicates.add(new DbDataContainer("to_version_id", GroundType.LONG, versionId));
+
+    List<String> projection = new ArrayList<>();
+    projection.add("writetime(to_version_id)");
+
+    CassandraResults resultSet = this.dbClient.filteringSelect("version_history_dag",
+        projection, predicates);
 
-      deleteQueue.remove(0);
+    if (resultSet.isEmpty()) {
+      return ttl;
     }
+
+    // write times are in microseconds
+    long writeSeconds = resultSet.getLong("writetime(to_version_id)") / 1000000;
+    long ageSeconds = System.currentTimeMillis() / 1000 - writeSeconds;
+
+    return (int) Math.max(1, ttl - ageSeconds);
   }
 }
@@ -14,8 +14,10 @@
 
 package dao.versions.cassandra;
 
+import dao.versions.KnownVersionCache;
 import dao.versions.VersionSuccessorFactory;
 import db.CassandraClient;
+import db.CassandraOperation;
 import db.CassandraResults;
 import db.DbClient;
 import db.DbDataContainer;
@@ -23,6 +25,7 @@ import exceptions.GroundException;
 import models.versions.GroundType;
 import models.versions.Version;
 import models.versions.VersionSuccessor;
+import util.Caches;
 import util.IdGenerator;
 
 import java.util.ArrayList;
@@ -31,10 +34,13 @@ import java.util.List;
 public class CassandraVersionSuccessorFactory implements VersionSuccessorFactory {
   private final CassandraClient dbClient;
   private final IdGenerator idGenerator;
+  private final KnownVersionCache knownVersions;
 
-  public CassandraVersionSuccessorFactory(CassandraClient dbClient, IdGenerator idGenerator) {
+  public CassandraVersionSuccessorFactory(CassandraClient dbClient, IdGenerator idGenerator,
+                                          Caches caches) {
     this.dbClient = dbClient;
     this.idGenerator = idGenerator;
+    this.knownVersions = caches.getKnownVersionCache();
   }
 
   /**
@@ -49,6 +55,21 @@ public class CassandraVersionSuccessorFactory implements VersionSuccessorFactory
   @Override
   public <T extends Version> VersionSuccessor<T> create(long fromId, long toId)
       throws GroundException {
+    return this.create(fromId, toId, 0);
+  }
+
+  /**
+   * Create and persist a version successor that expires after a number of seconds.
+   *
+   * @param fromId the id of the parent version
+   * @param toId the id of the child version
+   * @param ttl the number of seconds until the successor expires, or 0 if it never does
+   * @param <T> the types of the connected versions
+   * @return the created version successor
+   * @throws GroundException an error creating the successor
+   */
+  public <T extends Version> VersionSuccessor<T> create(long fromId, long toId, int ttl)
+      throws GroundException {
     // check to see if both are valid ids since we don't have foreign key constraints
     verifyVersion(fromId);
     verifyVersion(toId);
@@ -61,11 +82,29 @@ public class CassandraVersionSuccessorFactory implements VersionSuccessorFactory
     insertions.add(new DbDataContainer("from_version_id", GroundType.LONG, fromId));
     insertions.add(new DbDataContainer("to_version_id", GroundType.LONG, toId));
 
-    this.dbClient.insert("version_successor", insertions);
+    this.dbClient.insert("version_successor", insertions, ttl);
 
     return new VersionSuccessor<>(dbId, toId, fromId);
   }
 
+  /**
+   * Forget that a version exists. This must be called whenever a version is deleted. Only this
+   * process forgets the version; other machines keep it until their entry expires.
+   *
+   * @param id the id of the deleted version
+   */
+  public void forgetVersion(long id) {
+    this.knownVersions.forget(id);
+  }
+
+  /**
+   * Forget every version that has been verified so far. This is only needed when the version
+   * tables are cleared without going through truncate.
+   */
+  public void forgetAllVersions() {
+    this.knownVersions.forgetAll();
+  }
+
   /**
    * Retrieve a version successor from the database.
    *
@@ -95,17 +134,23 @@ public class CassandraVersionSuccessorFactory implements VersionSuccessorFactory
   }
 
   /**
-   * Delete a version successor from the database.
+   * Delete a version successor from the database. The successors are located within the item's
+   * version_history_dag partition, so the lookup never leaves that partition.
    *
    * @param toId the destination version
+   * @param itemId the id of the item whose DAG contains the successor
    */
   @Override
   public void deleteFromDestination(long toId, long itemId) throws GroundException {
     List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer("item_id", GroundType.LONG, itemId));
     predicates.add(new DbDataContainer("to_version_id", GroundType.LONG, toId));
 
-    CassandraResults resultSet = this.dbClient.equalitySelect("version_successor",
-        DbClient.SELECT_STAR,
+    List<String> projection = new ArrayList<>();
+    projection.add("version_successor_id");
+
+    CassandraResults resultSet = this.dbClient.filteringSelect("version_history_dag",
+        projection,
         predicates);
 
     if (resultSet.isEmpty()) {
@@ -113,7 +158,7 @@ public class CassandraVersionSuccessorFactory implements VersionSuccessorFactory
     }
 
     do {
-      long dbId = resultSet.getLong("id");
+      long dbId = resultSet.getLong("version_successor_id");
 
       predicates.clear();
       predicates.add(new DbDataContainer("item_id", GroundType.LONG, itemId));
@@ -129,14 +174,23 @@ public class CassandraVersionSuccessorFactory implements VersionSuccessorFactory
   }
 
   private void verifyVersion(long id) throws GroundException {
+    // a successor of the empty version is always valid, a version written by this process is
+    // known as soon as it is inserted, and the parent of a new version has usually been verified
+    // as the child of the previous one
+    if (id == 0 || this.knownVersions.contains(id)) {
+      return;
+    }
+
     List<DbDataContainer> predicate = new ArrayList<>();
     predicate.add(new DbDataContainer("id", GroundType.LONG, id));
 
     CassandraResults resultSet = this.dbClient.equalitySelect("version", DbClient.SELECT_STAR,
-        predicate);
+        predicate, CassandraOperation.IMMUTABLE_READ);
 
     if (resultSet.isEmpty()) {
       throw new GroundException("Version id " + id + " is not valid.");
     }
+
+    this.knownVersions.add(id, this.dbClient);
   }
 }
@@ -17,6 +17,7 @@ package dao.versions.neo4j;
 import org.neo4j.driver.v1.Record;
 
 import dao.models.neo4j.Neo4jTagFactory;
+import dao.versions.ItemCache;
 import dao.versions.ItemFactory;
 import db.DbDataContainer;
 import db.Neo4jClient;
@@ -27,8 +28,10 @@ import models.models.Tag;
 import models.versions.GroundType;
 import models.versions.Item;
 import models.versions.VersionHistoryDag;
+import util.Caches;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +39,7 @@ public abstract class Neo4jItemFactory<T extends Item> implements ItemFactory<T>
   private final Neo4jClient dbClient;
   private final Neo4jVersionHistoryDagFactory versionHistoryDagFactory;
   private final Neo4jTagFactory tagFactory;
+  private final ItemCache itemCache;
 
   /**
    * Constructor for the Neo4j item factory.
@@ -43,13 +47,67 @@ public abstract class Neo4jItemFactory<T extends Item> implements ItemFactory<T>
    * @param dbClient the Neo4j client
    * @param versionHistoryDagFactory the singleton Neo4jVersionHistoryDagFactory
    * @param tagFactory the singleton Neo4jTagFactory
+   * @param caches the caches shared by the factories
    */
   public Neo4jItemFactory(Neo4jClient dbClient,
                           Neo4jVersionHistoryDagFactory versionHistoryDagFactory,
-                          Neo4jTagFactory tagFactory) {
+                          Neo4jTagFactory tagFactory,
+                          Caches caches) {
     this.dbClient = dbClient;
     this.versionHistoryDagFactory = versionHistoryDagFactory;
     this.tagFactory = tagFactory;
+    this.itemCache = caches.getItemCache();
+  }
+
+  /**
+   * Retrieve an item by source key, from the item cache if it is there and from the database
+   * otherwise.
+   *
+   * @param sourceKey the source key of the item
+   * @return the retrieved item
+   * @throws GroundException either the item doesn't exist or couldn't be retrieved
+   */
+  @Override
+  public T retrieveFromDatabase(String sourceKey) throws GroundException {
+    return this.itemCache.get(this.getType(), sourceKey, this::loadFromDatabase, this.dbClient);
+  }
+
+  /**
+   * Read an item by source key from the database, bypassing the item cache.
+   *
+   * @param sourceKey the source key of the item
+   * @return the retrieved item
+   * @throws GroundException either the item doesn't exist or couldn't be retrieved
+   */
+  protected abstract T loadFromDatabase(String sourceKey) throws GroundException;
+
+  /**
+   * Add a newly created item to the item cache once the current unit of work commits.
+   *
+   * @param sourceKey the source key of the item
+   * @param item the item
+   */
+  protected void cacheItem(String sourceKey, T item) {
+    this.itemCache.put(this.getType(), sourceKey, item, this.dbClient);
+  }
+
+  /**
+   * Check whether an item with a source key exists. This guards the creation of a new item, so it
+   * always reads the database rather than the item cache.
+   *
+   * @param sourceKey the source key to look for
+   * @return true if an item with the source key exists
+   * @throws GroundException an error while reading the item
+   */
+  @Override
+  public boolean checkIfItemExists(String sourceKey) throws GroundException {
+    try {
+      this.loadFromDatabase(sourceKey);
+
+      return true;
+    } catch (GroundItemNotFoundException e) {
+      return false;
+    }
   }
 
   /**
@@ -60,6 +118,11 @@ public abstract class Neo4jItemFactory<T extends Item> implements ItemFactory<T>
    * @throws GroundDbException an error inserting data into the database
    */
   public void insertIntoDatabase(long id, Map<String, Tag> tags) throws GroundDbException {
+    if (this.tagFactory.storesTagsAsProperties()) {
+      this.dbClient.setProperties(id, this.tagFactory.toItemProperties(tags));
+      return;
+    }
+
     for (String key : tags.keySet()) {
       Tag tag = tags.get(key);
 
@@ -94,6 +157,54 @@ public abstract class Neo4jItemFactory<T extends Item> implements ItemFactory<T>
     return this.tagFactory.retrieveFromDatabaseByItemId(id);
   }
 
+  /**
+   * Retrieve the id, name and source key of an item, along with whatever else the item's tags
+   * need if they are stored as properties of its vertex.
+   *
+   * @param label the label of the item's vertex
+   * @param fieldName the name of the field used to retrieve the item
+   * @param value the value used to retrieve the item
+   * @param valueType the type of the value
+   * @param extraFields any other properties of the item to return
+   * @return the Record with the item's properties, each under its own name
+   * @throws GroundException the item doesn't exist or couldn't be retrieved
+   */
+  protected Record retrieveItemVertex(String label, String fieldName, Object value,
+                                      GroundType valueType, String... extraFields)
+      throws GroundException {
+    List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer(fieldName, valueType, value));
+
+    List<String> returnFields = new ArrayList<>();
+    returnFields.add("id");
+    returnFields.add("name");
+    returnFields.add("source_key");
+    returnFields.addAll(Arrays.asList(extraFields));
+
+    Record record = this.dbClient.getVertexProperties(label, predicates, returnFields,
+        this.tagFactory.storesTagsAsProperties());
+    this.verifyResultSet(record, fieldName, value);
+
+    return record;
+  }
+
+  /**
+   * Retrieve the tags of an item whose vertex has already been retrieved by retrieveItemVertex.
+   * If tags are stored as properties, they are read from the record without another query.
+   *
+   * @param id the id of the item
+   * @param record the item's record
+   * @return the tags associated with the item
+   * @throws GroundException the tags couldn't be retrieved
+   */
+  protected Map<String, Tag> retrieveItemTags(long id, Record record) throws GroundException {
+    if (this.tagFactory.storesTagsAsProperties()) {
+      return this.tagFactory.retrieveFromItemProperties(id, record.get("properties"));
+    }
+
+    return this.tagFactory.retrieveFromDatabaseByItemId(id);
+  }
+
   /**
    * Update this Item with a new version.
    *
@@ -121,7 +232,14 @@ public abstract class Neo4jItemFactory<T extends Item> implements ItemFactory<T>
       dag = this.versionHistoryDagFactory.create(itemId);
     }
 
+    boolean reloaded = false;
     for (long parentId : parentIds) {
+      if (parentId != itemId && !dag.checkItemInDag(parentId) && !reloaded) {
+        // the parent may have been added after the DAG was cached, so check the database
+        dag = this.versionHistoryDagFactory.loadFromDatabase(itemId);
+        reloaded = true;
+      }
+
       if (parentId != itemId && !dag.checkItemInDag(parentId)) {
         String errorString = "Parent " + parentId + " is not in Item " + itemId + ".";
 
@@ -3,11 +3,52 @@ package dao.versions.neo4j;
 import exceptions.GroundException;
 import org.neo4j.driver.v1.Record;
 
+import dao.versions.VersionCache;
 import dao.versions.VersionFactory;
+import db.Neo4jClient;
 import exceptions.GroundVersionNotFoundException;
 import models.versions.Version;
+import util.Caches;
 
 public abstract class Neo4jVersionFactory<T extends Version> implements VersionFactory<T> {
+  private final Neo4jClient dbClient;
+  private final VersionCache versionCache;
+
+  public Neo4jVersionFactory(Neo4jClient dbClient, Caches caches) {
+    this.dbClient = dbClient;
+    this.versionCache = caches.getVersionCache();
+  }
+
+  /**
+   * Retrieve a version, from the version cache if it is there and from the database otherwise.
+   *
+   * @param id the id of the version to retrieve
+   * @return the retrieved version
+   * @throws GroundException either the version doesn't exist or couldn't be retrieved
+   */
+  @Override
+  public T retrieveFromDatabase(long id) throws GroundException {
+    return this.versionCache.get(id, this.getType(), this::loadFromDatabase, this.dbClient);
+  }
+
+  /**
+   * Read a version from the database, bypassing the version cache.
+   *
+   * @param id the id of the version to retrieve
+   * @return the retrieved version
+   * @throws GroundException either the version doesn't exist or couldn't be retrieved
+   */
+  protected abstract T loadFromDatabase(long id) throws GroundException;
+
+  /**
+   * Evict a version from the version cache when the current unit of work changes or deletes it.
+   *
+   * @param id the id of the version
+   */
+  protected void evictFromCache(long id) {
+    this.versionCache.invalidate(id, this.dbClient);
+  }
+
   public void insertIntoDatabase(long id) throws GroundException {
     // this should never be called because we never explicitly insert versions into Neo4j
     throw new GroundException("This operation should never be called");
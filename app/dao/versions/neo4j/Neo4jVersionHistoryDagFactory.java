@@ -14,34 +14,47 @@
 
 package dao.versions.neo4j;
 
-import com.google.common.base.CaseFormat;
-
+import dao.models.StructureVersionCache;
+import dao.versions.VersionCache;
+import dao.versions.VersionHistoryDagCache;
 import dao.versions.VersionHistoryDagFactory;
-import db.DbDataContainer;
 import db.Neo4jClient;
 import exceptions.GroundException;
-import models.models.Structure;
-import models.versions.GroundType;
 import models.versions.Item;
 import models.versions.Version;
 import models.versions.VersionHistoryDag;
 import models.versions.VersionSuccessor;
+import util.Caches;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
-import org.neo4j.driver.v1.types.Relationship;
+import org.neo4j.driver.v1.Record;
 
 public class Neo4jVersionHistoryDagFactory implements VersionHistoryDagFactory {
+  private static final List<String> OWNED_EDGE_LABELS = Arrays.asList(
+      "RichVersionTagConnection",
+      "RichVersionExternalParameterConnection",
+      "StructureVersionItemConnection");
+
   private final Neo4jClient dbClient;
   private final Neo4jVersionSuccessorFactory versionSuccessorFactory;
+  private final VersionCache versionCache;
+  private final StructureVersionCache structureVersionCache;
+  private final VersionHistoryDagCache dagCache;
 
   public Neo4jVersionHistoryDagFactory(Neo4jClient dbClient,
-                                       Neo4jVersionSuccessorFactory versionSuccessorFactory) {
+                                       Neo4jVersionSuccessorFactory versionSuccessorFactory,
+                                       Caches caches) {
     this.dbClient = dbClient;
     this.versionSuccessorFactory = versionSuccessorFactory;
+    this.versionCache = caches.getVersionCache();
+    this.structureVersionCache = caches.getStructureVersionCache();
+    this.dagCache = caches.getVersionHistoryDagCache();
   }
 
   @Override
@@ -50,7 +63,7 @@ public class Neo4jVersionHistoryDagFactory implements VersionHistoryDagFactory {
   }
 
   /**
-   * Retrieve a DAG from the database.
+   * Retrieve a DAG, from the DAG cache if it is there and from the database otherwise.
    *
    * @param itemId the id of the item whose dag we are retrieving
    * @param <T> the type of the versions in this dag
@@ -60,8 +73,27 @@ public class Neo4jVersionHistoryDagFactory implements VersionHistoryDagFactory {
   @Override
   public <T extends Version> VersionHistoryDag<T> retrieveFromDatabase(long itemId)
       throws GroundException {
+    return this.dagCache.get(itemId, this::loadFromDatabase, this.dbClient);
+  }
 
-    List<Relationship> result = this.dbClient.getDescendantEdgesByLabel(itemId, "VersionSuccessor");
+  /**
+   * Read a DAG from the database, bypassing the DAG cache.
+   *
+   * @param itemId the id of the item whose dag we are retrieving
+   * @param <T> the type of the versions in this dag
+   * @return the retrieved DAG
+   * @throws GroundException an error retrieving the DAG
+   */
+  public <T extends Version> VersionHistoryDag<T> loadFromDatabase(long itemId)
+      throws GroundException {
+
+    List<String> returnFields = new ArrayList<>();
+    returnFields.add("id");
+    returnFields.add("fromId");
+    returnFields.add("toId");
+
+    List<Record> result =
+        this.dbClient.getDescendantEdgesByLabel(itemId, "VersionSuccessor", returnFields);
 
     if (result.isEmpty()) {
       // do nothing' this just means that no versions have been added yet.
@@ -70,8 +102,10 @@ public class Neo4jVersionHistoryDagFactory implements VersionHistoryDagFactory {
 
     List<VersionSuccessor<T>> edges = new ArrayList<>();
 
-    for (Relationship relationship : result) {
-      edges.add(this.versionSuccessorFactory.retrieveFromDatabase(relationship.get("id").asLong()));
+    // the successors are built from the returned properties, so no further queries are needed
+    for (Record record : result) {
+      edges.add(new VersionSuccessor<>(record.get("id").asLong(), record.get("fromId").asLong(),
+          record.get("toId").asLong()));
     }
 
     return new VersionHistoryDag<T>(itemId, edges);
@@ -92,12 +126,21 @@ public class Neo4jVersionHistoryDagFactory implements VersionHistoryDagFactory {
 
     VersionSuccessor successor = this.versionSuccessorFactory.create(parentId, childId);
 
-    dag.addEdge(parentId, childId, successor.getId());
+    // a shared DAG is updated by the cache once the edge is committed
+    if (!dag.isShared()) {
+      dag.addEdge(parentId, childId, successor.getId());
+    }
+
+    this.dbClient.onCommit(() ->
+        this.dagCache.addEdge(itemId, parentId, childId, successor.getId()));
   }
 
   /**
    * Truncate the DAG to only have a certain number of levels, removing everything before that.
    *
+   * <p>The versions are deleted oldest first, in batches that all belong to the caller's unit of
+   * work, so the truncation is committed or rolled back as a whole.</p>
+   *
    * @param dag the DAG to truncate
    * @param numLevels the number of levels to keep
    */
@@ -122,52 +165,79 @@ public class Neo4jVersionHistoryDagFactory implements VersionHistoryDagFactory {
       keptLevels++;
     }
 
-    List<Long> deleteQueue = previousLevel;
-    Set<Long> deleted = new HashSet<>();
+    List<Long> deleteQueue = new ArrayList<>(previousLevel);
+    Map<Long, List<Long>> deletedParents = new LinkedHashMap<>();
 
     for (long id : lastLevel) {
       this.addEdge(dag, dag.getItemId(), id, dag.getItemId());
     }
 
-    List<DbDataContainer> predicates = new ArrayList<>();
-
     while (deleteQueue.size() > 0) {
-      long id = deleteQueue.get(0);
+      long id = deleteQueue.remove(0);
 
-      String[] splits = itemType.getName().split("\\.");
-      String className = splits[splits.length - 1];
-      String tableNamePrefix = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE,
-          className);
-
-      if (itemType.equals(Structure.class)) {
-        predicates.add(new DbDataContainer("structure_version_id", GroundType.LONG, id));
-        this.dbClient.deleteNode(predicates, "structure_version_attribute");
-        predicates.clear();
+      // the item itself is the parent of the first versions, and must be kept
+      if (id == dag.getItemId() || deletedParents.containsKey(id)) {
+        continue;
       }
 
-      if (itemType.getName().toLowerCase().contains("graph")) {
-        predicates.add(new DbDataContainer(tableNamePrefix + "_version_id", GroundType.LONG, id));
-        this.dbClient.deleteNode(predicates, tableNamePrefix + "_version_edge");
-        predicates.clear();
-      }
+      List<Long> parents = dag.getParent(id);
+      deletedParents.put(id, parents);
+      deleteQueue.addAll(parents);
+    }
 
-      predicates.add(new DbDataContainer("id", GroundType.LONG, id));
+    for (long id : deletedParents.keySet()) {
+      this.versionCache.invalidate(id, this.dbClient);
+      this.structureVersionCache.invalidate(id, this.dbClient);
+    }
+    this.dagCache.invalidate(dag.getItemId(), this.dbClient);
 
-      this.dbClient.deleteNode(predicates, className + "Version");
+    // a version's tags, reference parameters and structure attributes are deleted along with it
+    this.dbClient.deleteVertices(Neo4jVersionHistoryDagFactory.oldestFirst(deletedParents),
+        OWNED_EDGE_LABELS);
+  }
 
-      deleteQueue.remove(0);
-      List<Long> parents = dag.getParent(id);
+  /**
+   * Order a set of versions so that each one comes after all of its parents in the set.
+   *
+   * @param parents each version in the set, mapped to all of its parents
+   * @return the versions, oldest first
+   */
+  private static List<Long> oldestFirst(Map<Long, List<Long>> parents) {
+    Map<Long, Integer> pendingParents = new HashMap<>();
+    Map<Long, List<Long>> children = new HashMap<>();
+
+    for (Map.Entry<Long, List<Long>> entry : parents.entrySet()) {
+      int pending = 0;
 
-      predicates.clear();
-      predicates.add(new DbDataContainer("rich_version_id", GroundType.LONG, id));
-      this.dbClient.deleteNode(predicates, "RichVersionTag");
-      deleted.add(id);
+      for (long parent : entry.getValue()) {
+        if (parents.containsKey(parent)) {
+          children.computeIfAbsent(parent, id -> new ArrayList<>()).add(entry.getKey());
+          pending++;
+        }
+      }
 
-      parents.forEach(parentId -> {
-        if (!deleted.contains(parentId)) {
-          deleteQueue.add(parentId);
+      pendingParents.put(entry.getKey(), pending);
+    }
+
+    List<Long> ready = new ArrayList<>();
+    pendingParents.forEach((id, pending) -> {
+      if (pending == 0) {
+        ready.add(id);
+      }
+    });
+
+    List<Long> order = new ArrayList<>();
+    while (!ready.isEmpty()) {
+      long id = ready.remove(ready.size() - 1);
+      order.add(id);
+
+      for (long child : children.getOrDefault(id, new ArrayList<>())) {
+        if (pendingParents.merge(child, -1, Integer::sum) == 0) {
+          ready.add(child);
         }
-      });
+      }
     }
+
+    return order;
   }
 }
@@ -25,10 +25,10 @@ import models.versions.VersionSuccessor;
 import util.IdGenerator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.neo4j.driver.v1.Record;
-import org.neo4j.driver.v1.types.Relationship;
 
 public class Neo4jVersionSuccessorFactory implements VersionSuccessorFactory {
   private final Neo4jClient dbClient;
@@ -84,7 +84,8 @@ public class Neo4jVersionSuccessorFactory implements VersionSuccessorFactory {
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, dbId));
 
-    Relationship result = this.dbClient.getEdge("VersionSuccessor", predicates);
+    Record result = this.dbClient.getEdgeProperties("VersionSuccessor", predicates,
+        Arrays.asList("id", "fromId", "toId"));
 
     if (result == null) {
       throw new GroundDbException("No VersionSuccessor found with id " + dbId + ".");
@@ -112,7 +113,7 @@ public class Neo4jVersionSuccessorFactory implements VersionSuccessorFactory {
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.LONG, id));
 
-    Record record = this.dbClient.getVertex(predicates);
+    Record record = this.dbClient.getVertexProperties(null, predicates, Arrays.asList("id"));
 
     if (record == null) {
       throw new GroundException("Version id " + id + " is not valid.");
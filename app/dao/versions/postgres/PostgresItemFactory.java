@@ -15,6 +15,7 @@
 package dao.versions.postgres;
 
 import dao.models.postgres.PostgresTagFactory;
+import dao.versions.ItemCache;
 import dao.versions.ItemFactory;
 import db.DbDataContainer;
 import db.PostgresClient;
@@ -25,6 +26,7 @@ import models.models.Tag;
 import models.versions.GroundType;
 import models.versions.Item;
 import models.versions.VersionHistoryDag;
+import util.Caches;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +41,7 @@ public abstract class PostgresItemFactory<T extends Item> implements ItemFactory
   private final PostgresClient dbClient;
   private final PostgresVersionHistoryDagFactory versionHistoryDagFactory;
   private final PostgresTagFactory tagFactory;
+  private final ItemCache itemCache;
 
   /**
    * Constructor for the Postgres item factory.
@@ -46,13 +49,67 @@ public abstract class PostgresItemFactory<T extends Item> implements ItemFactory
    * @param dbClient the Postgres client
    * @param versionHistoryDagFactory the singleton PostgresVersionHistoryDagFactory
    * @param tagFactory the singleton PostgresTagFactory
+   * @param caches the caches shared by the factories
    */
   public PostgresItemFactory(PostgresClient dbClient,
                              PostgresVersionHistoryDagFactory versionHistoryDagFactory,
-                             PostgresTagFactory tagFactory) {
+                             PostgresTagFactory tagFactory,
+                             Caches caches) {
     this.dbClient = dbClient;
     this.versionHistoryDagFactory = versionHistoryDagFactory;
     this.tagFactory = tagFactory;
+    this.itemCache = caches.getItemCache();
+  }
+
+  /**
+   * Retrieve an item by source key, from the item cache if it is there and from the database
+   * otherwise.
+   *
+   * @param sourceKey the source key of the item
+   * @return the retrieved item
+   * @throws GroundException either the item doesn't exist or couldn't be retrieved
+   */
+  @Override
+  public T retrieveFromDatabase(String sourceKey) throws GroundException {
+    return this.itemCache.get(this.getType(), sourceKey, this::loadFromDatabase, this.dbClient);
+  }
+
+  /**
+   * Read an item by source key from the database, bypassing the item cache.
+   *
+   * @param sourceKey the source key of the item
+   * @return the retrieved item
+   * @throws GroundException either the item doesn't exist or couldn't be retrieved
+   */
+  protected abstract T loadFromDatabase(String sourceKey) throws GroundException;
+
+  /**
+   * Add a newly created item to the item cache once the current unit of work commits.
+   *
+   * @param sourceKey the source key of the item
+   * @param item the item
+   */
+  protected void cacheItem(String sourceKey, T item) {
+    this.itemCache.put(this.getType(), sourceKey, item, this.dbClient);
+  }
+
+  /**
+   * Check whether an item with a source key exists. This guards the creation of a new item, so it
+   * always reads the database rather than the item cache.
+   *
+   * @param sourceKey the source key to look for
+   * @return true if an item with the source key exists
+   * @throws GroundException an error while reading the item
+   */
+  @Override
+  public boolean checkIfItemExists(String sourceKey) throws GroundException {
+    try {
+      this.loadFromDatabase(sourceKey);
+
+      return true;
+    } catch (GroundItemNotFoundException e) {
+      return false;
+    }
   }
 
   /**
@@ -126,7 +183,14 @@ public abstract class PostgresItemFactory<T extends Item> implements ItemFactory
       dag = this.versionHistoryDagFactory.create(itemId);
     }
 
+    boolean reloaded = false;
     for (long parentId : parentIds) {
+      if (parentId != 0 && !dag.checkItemInDag(parentId) && !reloaded) {
+        // the parent may have been added after the DAG was cached, so check the database
+        dag = this.versionHistoryDagFactory.loadFromDatabase(itemId);
+        reloaded = true;
+      }
+
       if (parentId != 0 && !dag.checkItemInDag(parentId)) {
         String errorString = "Parent " + parentId + " is not in Item " + itemId + ".";
 
@@ -14,6 +14,7 @@
 
 package dao.versions.postgres;
 
+import dao.versions.VersionCache;
 import dao.versions.VersionFactory;
 import db.DbDataContainer;
 import db.PostgresClient;
@@ -22,15 +23,48 @@ import exceptions.GroundException;
 import exceptions.GroundVersionNotFoundException;
 import models.versions.GroundType;
 import models.versions.Version;
+import util.Caches;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public abstract class PostgresVersionFactory<T extends Version> implements VersionFactory<T> {
   private final PostgresClient dbClient;
+  private final VersionCache versionCache;
 
-  public PostgresVersionFactory(PostgresClient dbClient) {
+  public PostgresVersionFactory(PostgresClient dbClient, Caches caches) {
     this.dbClient = dbClient;
+    this.versionCache = caches.getVersionCache();
+  }
+
+  /**
+   * Retrieve a version, from the version cache if it is there and from the database otherwise.
+   *
+   * @param id the id of the version to retrieve
+   * @return the retrieved version
+   * @throws GroundException either the version doesn't exist or couldn't be retrieved
+   */
+  @Override
+  public T retrieveFromDatabase(long id) throws GroundException {
+    return this.versionCache.get(id, this.getType(), this::loadFromDatabase, this.dbClient);
+  }
+
+  /**
+   * Read a version from the database, bypassing the version cache.
+   *
+   * @param id the id of the version to retrieve
+   * @return the retrieved version
+   * @throws GroundException either the version doesn't exist or couldn't be retrieved
+   */
+  protected abstract T loadFromDatabase(long id) throws GroundException;
+
+  /**
+   * Evict a version from the version cache when the current unit of work changes or deletes it.
+   *
+   * @param id the id of the version
+   */
+  protected void evictFromCache(long id) {
+    this.versionCache.invalidate(id, this.dbClient);
   }
 
   /**
@@ -47,7 +81,6 @@ public abstract class PostgresVersionFactory<T extends Version> implements Versi
     this.dbClient.insert("version", insertions);
   }
 
-
   /**
    * Verify that a result set for a version is not empty.
    *
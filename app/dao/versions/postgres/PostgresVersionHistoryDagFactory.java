@@ -16,6 +16,9 @@ package dao.versions.postgres;
 
 import com.google.common.base.CaseFormat;
 
+import dao.models.StructureVersionCache;
+import dao.versions.VersionCache;
+import dao.versions.VersionHistoryDagCache;
 import dao.versions.VersionHistoryDagFactory;
 import db.DbClient;
 import db.DbDataContainer;
@@ -28,6 +31,7 @@ import models.versions.Item;
 import models.versions.Version;
 import models.versions.VersionHistoryDag;
 import models.versions.VersionSuccessor;
+import util.Caches;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -37,11 +41,18 @@ import java.util.Set;
 public class PostgresVersionHistoryDagFactory implements VersionHistoryDagFactory {
   private final PostgresClient dbClient;
   private final PostgresVersionSuccessorFactory versionSuccessorFactory;
+  private final VersionCache versionCache;
+  private final StructureVersionCache structureVersionCache;
+  private final VersionHistoryDagCache dagCache;
 
   public PostgresVersionHistoryDagFactory(PostgresClient dbClient,
-                                          PostgresVersionSuccessorFactory versionSuccessorFactory) {
+                                          PostgresVersionSuccessorFactory versionSuccessorFactory,
+                                          Caches caches) {
     this.dbClient = dbClient;
     this.versionSuccessorFactory = versionSuccessorFactory;
+    this.versionCache = caches.getVersionCache();
+    this.structureVersionCache = caches.getStructureVersionCache();
+    this.dagCache = caches.getVersionHistoryDagCache();
   }
 
   @Override
@@ -50,7 +61,7 @@ public class PostgresVersionHistoryDagFactory implements VersionHistoryDagFactor
   }
 
   /**
-   * Retrieve a DAG from the database.
+   * Retrieve a DAG, from the DAG cache if it is there and from the database otherwise.
    *
    * @param itemId the id of the item whose dag we are retrieving
    * @param <T> the type of the versions in this dag
@@ -60,6 +71,19 @@ public class PostgresVersionHistoryDagFactory implements VersionHistoryDagFactor
   @Override
   public <T extends Version> VersionHistoryDag<T> retrieveFromDatabase(long itemId)
       throws GroundException {
+    return this.dagCache.get(itemId, this::loadFromDatabase, this.dbClient);
+  }
+
+  /**
+   * Read a DAG from the database, bypassing the DAG cache.
+   *
+   * @param itemId the id of the item whose dag we are retrieving
+   * @param <T> the type of the versions in this dag
+   * @return the retrieved DAG
+   * @throws GroundException an error retrieving the DAG
+   */
+  public <T extends Version> VersionHistoryDag<T> loadFromDatabase(long itemId)
+      throws GroundException {
 
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("item_id", GroundType.LONG, itemId));
@@ -101,7 +125,13 @@ public class PostgresVersionHistoryDagFactory implements VersionHistoryDagFactor
 
     this.dbClient.insert("version_history_dag", insertions);
 
-    dag.addEdge(parentId, childId, successor.getId());
+    // a shared DAG is updated by the cache once the edge is committed
+    if (!dag.isShared()) {
+      dag.addEdge(parentId, childId, successor.getId());
+    }
+
+    this.dbClient.onCommit(() ->
+        this.dagCache.addEdge(itemId, parentId, childId, successor.getId()));
   }
 
   /**
@@ -179,6 +209,8 @@ public class PostgresVersionHistoryDagFactory implements VersionHistoryDagFactor
         predicates.clear();
         predicates.add(new DbDataContainer("id", GroundType.LONG, id));
         this.dbClient.delete(predicates, "version");
+        this.versionCache.invalidate(id, this.dbClient);
+        this.structureVersionCache.invalidate(id, this.dbClient);
 
         deleted.add(id);
 
@@ -194,5 +226,7 @@ public class PostgresVersionHistoryDagFactory implements VersionHistoryDagFactor
 
       deleteQueue.remove(0);
     }
+
+    this.dagCache.invalidate(dag.getItemId(), this.dbClient);
   }
 }
@@ -14,19 +14,42 @@
 
 package db;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.HostDistance;
+import com.datastax.driver.core.PagingState;
 import com.datastax.driver.core.PlainTextAuthProvider;
+import com.datastax.driver.core.PoolingOptions;
 import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.QueryOptions;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Session;
-
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.PagingStateException;
+import com.datastax.driver.core.policies.ConstantSpeculativeExecutionPolicy;
+import com.datastax.driver.core.policies.DCAwareRoundRobinPolicy;
+import com.datastax.driver.core.policies.LoadBalancingPolicy;
+import com.datastax.driver.core.policies.NoSpeculativeExecutionPolicy;
+import com.datastax.driver.core.policies.SpeculativeExecutionPolicy;
+import com.datastax.driver.core.policies.TokenAwarePolicy;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import exceptions.GroundDbException;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -37,8 +60,14 @@ public class CassandraClient extends DbClient {
 
   private final Cluster cluster;
   private final Session session;
+  private final CassandraOptions options;
+
+  // shared by all request threads; computeIfAbsent guarantees each statement is prepared once
   private final Map<String, PreparedStatement> preparedStatements;
 
+  // bounds the number of asynchronous writes that may be outstanding at once
+  private final Semaphore inFlightWrites;
+
   /**
    * Constructor for the Cassandra client.
    *
@@ -47,17 +76,65 @@ public class CassandraClient extends DbClient {
    * @param keyspace the name of the keyspace we're using
    * @param username the login username
    * @param password the login password
+   * @param options the driver tuning options
    */
-  public CassandraClient(String host, int port, String keyspace, String username, String password) {
+  public CassandraClient(String host, int port, String keyspace, String username, String password,
+                         CassandraOptions options) {
+    PoolingOptions poolingOptions = new PoolingOptions()
+        .setConnectionsPerHost(HostDistance.LOCAL, options.getCoreConnectionsPerHost(),
+            options.getMaxConnectionsPerHost())
+        .setMaxRequestsPerConnection(HostDistance.LOCAL, options.getMaxRequestsPerConnection());
+
+    // Every statement this client issues is keyed by a generated id, so retrying or
+    // speculatively re-executing any of them is safe; the exception is conditional writes, which
+    // applyOperation marks as non-idempotent.
+    QueryOptions queryOptions = new QueryOptions()
+        .setConsistencyLevel(options.getReadConsistency())
+        .setSerialConsistencyLevel(options.getSerialConsistency())
+        .setDefaultIdempotence(true);
+
     this.cluster =
         Cluster.builder()
             .addContactPoint(host)
             .withPort(port)
             .withAuthProvider(new PlainTextAuthProvider(username, password))
+            .withLoadBalancingPolicy(CassandraClient.createLoadBalancingPolicy(options))
+            .withPoolingOptions(poolingOptions)
+            .withQueryOptions(queryOptions)
+            .withSpeculativeExecutionPolicy(
+                CassandraClient.createSpeculativeExecutionPolicy(options))
             .build();
 
     this.session = this.cluster.connect(keyspace);
-    this.preparedStatements = new HashMap<>();
+    this.options = options;
+    this.preparedStatements = new ConcurrentHashMap<>();
+    this.inFlightWrites = new Semaphore(options.getMaxInFlightWrites());
+  }
+
+  private static LoadBalancingPolicy createLoadBalancingPolicy(CassandraOptions options) {
+    DCAwareRoundRobinPolicy.Builder builder = DCAwareRoundRobinPolicy.builder()
+        .withUsedHostsPerRemoteDc(options.getUsedHostsPerRemoteDc());
+
+    if (options.getLocalDc() != null) {
+      builder = builder.withLocalDc(options.getLocalDc());
+    }
+
+    LoadBalancingPolicy policy = builder.build();
+    if (options.isTokenAware()) {
+      policy = new TokenAwarePolicy(policy);
+    }
+
+    return policy;
+  }
+
+  private static SpeculativeExecutionPolicy createSpeculativeExecutionPolicy(
+      CassandraOptions options) {
+    if (options.getSpeculativeExecutionDelayMillis() <= 0) {
+      return NoSpeculativeExecutionPolicy.INSTANCE;
+    }
+
+    return new ConstantSpeculativeExecutionPolicy(options.getSpeculativeExecutionDelayMillis(),
+        options.getMaxSpeculativeExecutions());
   }
 
   /**
@@ -75,20 +152,206 @@ public class CassandraClient extends DbClient {
    * @param insertValues the values to put into table
    */
   public void insert(String table, List<DbDataContainer> insertValues) {
+    this.insert(table, insertValues, 0);
+  }
+
+  /**
+   * Insert a new row into table with insertValues that expires after a number of seconds.
+   *
+   * @param table the table to update
+   * @param insertValues the values to put into table
+   * @param ttl the number of seconds until the row expires, or 0 if it never does
+   */
+  public void insert(String table, List<DbDataContainer> insertValues, int ttl) {
+    BoundStatement statement = this.bindInsert(table, insertValues, ttl);
+    this.applyOperation(statement, CassandraOperation.IDEMPOTENT_WRITE);
+
+    LOGGER.info("Executing update: " + statement.preparedStatement().getQueryString() + ".");
+    this.session.execute(statement);
+  }
+
+  /**
+   * Asynchronously insert a new row into table with insertValues. If the maximum number of
+   * writes is already in flight, this blocks until one of them completes.
+   *
+   * @param table the table to update
+   * @param insertValues the values to put into table
+   * @return a future for the pending write
+   * @throws GroundDbException interrupted while waiting for an in-flight slot
+   */
+  public ResultSetFuture insertAsync(String table, List<DbDataContainer> insertValues)
+      throws GroundDbException {
+    return this.insertAsync(table, insertValues, 0);
+  }
+
+  /**
+   * Asynchronously insert a new row into table with insertValues that expires after a number of
+   * seconds.
+   *
+   * @param table the table to update
+   * @param insertValues the values to put into table
+   * @param ttl the number of seconds until the row expires, or 0 if it never does
+   * @return a future for the pending write
+   * @throws GroundDbException interrupted while waiting for an in-flight slot
+   */
+  public ResultSetFuture insertAsync(String table, List<DbDataContainer> insertValues, int ttl)
+      throws GroundDbException {
+    BoundStatement statement = this.bindInsert(table, insertValues, ttl);
+    this.applyOperation(statement, CassandraOperation.IDEMPOTENT_WRITE);
+
+    LOGGER.info("Executing async update: " + statement.preparedStatement().getQueryString() + ".");
+    return this.executeAsync(statement);
+  }
+
+  /**
+   * Asynchronously insert a set of rows into table. Rows are grouped by the value of their
+   * partition key, and each partition's rows are sent as unlogged batches of at most
+   * maxBatchSize rows, so that every batch is applied by a single replica set.
+   *
+   * @param table the table to update
+   * @param partitionKey the name of the table's partition key column
+   * @param rows the values of each row to put into table
+   * @return the futures for the pending batches
+   * @throws GroundDbException interrupted while waiting for an in-flight slot
+   */
+  public List<ResultSetFuture> insertBatchAsync(String table,
+                                                String partitionKey,
+                                                List<List<DbDataContainer>> rows)
+      throws GroundDbException {
+    return this.insertBatchAsync(table, partitionKey, rows, 0);
+  }
+
+  /**
+   * Asynchronously insert a set of rows into table that expire after a number of seconds. The
+   * rows are batched in the same way as by insertBatchAsync without a ttl.
+   *
+   * @param table the table to update
+   * @param partitionKey the name of the table's partition key column
+   * @param rows the values of each row to put into table
+   * @param ttl the number of seconds until the rows expire, or 0 if they never do
+   * @return the futures for the pending batches
+   * @throws GroundDbException interrupted while waiting for an in-flight slot
+   */
+  public List<ResultSetFuture> insertBatchAsync(String table,
+                                                String partitionKey,
+                                                List<List<DbDataContainer>> rows,
+                                                int ttl)
+      throws GroundDbException {
+
+    Map<Object, List<BoundStatement>> partitions = new LinkedHashMap<>();
+    for (List<DbDataContainer> row : rows) {
+      Object partition = row.stream()
+          .filter(container -> container.getField().equals(partitionKey))
+          .map(DbDataContainer::getValue)
+          .findFirst()
+          .orElseThrow(() -> new GroundDbException("Row for " + table
+              + " does not contain partition key " + partitionKey + "."));
+
+      partitions.computeIfAbsent(partition, key -> new ArrayList<>())
+          .add(this.bindInsert(table, row, ttl));
+    }
+
+    List<ResultSetFuture> futures = new ArrayList<>();
+    for (List<BoundStatement> statements : partitions.values()) {
+      int maxBatchSize = this.options.getMaxBatchSize();
+      for (int start = 0; start < statements.size(); start += maxBatchSize) {
+        List<BoundStatement> chunk =
+            statements.subList(start, Math.min(start + maxBatchSize, statements.size()));
+
+        if (chunk.size() == 1) {
+          this.applyOperation(chunk.get(0), CassandraOperation.IDEMPOTENT_WRITE);
+          futures.add(this.executeAsync(chunk.get(0)));
+          continue;
+        }
+
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        chunk.forEach(batch::add);
+        this.applyOperation(batch, CassandraOperation.IDEMPOTENT_WRITE);
+
+        LOGGER.info("Executing batch of " + chunk.size() + " updates on " + table + ".");
+        futures.add(this.executeAsync(batch));
+      }
+    }
+
+    return futures;
+  }
+
+  /**
+   * Insert a new row into table with insertValues, unless a row with the same primary key already
+   * exists. This is a lightweight transaction, so concurrent callers cannot both succeed.
+   *
+   * @param table the table to update
+   * @param insertValues the values to put into table
+   * @return true if the row was inserted, false if it already existed
+   */
+  public boolean insertIfNotExists(String table, List<DbDataContainer> insertValues) {
     String fields =
         insertValues.stream().map(DbDataContainer::getField).collect(Collectors.joining(", "));
     String values = String.join(", ", Collections.nCopies(insertValues.size(), "?"));
 
-    String insert = "insert into " + table + "(" + fields + ") values (" + values + ");";
+    String insert = "insert into " + table + "(" + fields + ") values (" + values
+        + ") IF NOT EXISTS;";
 
-    BoundStatement statement = bind(insert, insertValues);
+    BoundStatement statement = this.bind(insert, insertValues);
+    this.applyOperation(statement, CassandraOperation.CONDITIONAL_WRITE);
 
-    LOGGER.info("Executing update: " + statement.preparedStatement().getQueryString() + ".");
-    this.session.execute(statement);
+    LOGGER.info("Executing conditional update: " + insert + ".");
+    return this.session.execute(statement).wasApplied();
+  }
+
+  private ResultSetFuture executeAsync(Statement statement) throws GroundDbException {
+    try {
+      this.inFlightWrites.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GroundDbException(e);
+    }
+
+    ResultSetFuture future = this.session.executeAsync(statement);
+    future.addListener(this.inFlightWrites::release, MoreExecutors.directExecutor());
+
+    return future;
   }
 
   /**
-   * Retrieve rows based on a set of predicates.
+   * Wait for a set of asynchronous writes to complete.
+   *
+   * @param futures the pending writes
+   * @throws GroundDbException one of the writes failed
+   */
+  public void awaitAll(List<ResultSetFuture> futures) throws GroundDbException {
+    try {
+      Futures.allAsList(futures).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GroundDbException(e);
+    } catch (ExecutionException e) {
+      LOGGER.error("Unexpected error in asynchronous write: " + e.getCause().getMessage());
+
+      throw new GroundDbException(e);
+    }
+  }
+
+  private BoundStatement bindInsert(String table, List<DbDataContainer> insertValues, int ttl) {
+    String fields =
+        insertValues.stream().map(DbDataContainer::getField).collect(Collectors.joining(", "));
+    String values = String.join(", ", Collections.nCopies(insertValues.size(), "?"));
+
+    String insert = "insert into " + table + "(" + fields + ") values (" + values + ")";
+
+    if (ttl > 0) {
+      insert += " USING TTL " + ttl;
+    }
+
+    insert += ";";
+
+    return bind(insert, insertValues);
+  }
+
+  /**
+   * Retrieve rows based on a set of predicates. The predicates must restrict the partition key
+   * (and optionally a prefix of the clustering columns), so the query is served by a single
+   * partition.
    *
    * @param table the table to query
    * @param projection the set of columns to retrieve
@@ -97,6 +360,208 @@ public class CassandraClient extends DbClient {
   public CassandraResults equalitySelect(String table,
                                          List<String> projection,
                                          List<DbDataContainer> predicatesAndValues) {
+    return this.equalitySelect(table, projection, predicatesAndValues,
+        CassandraOperation.MUTABLE_READ);
+  }
+
+  /**
+   * Retrieve rows based on a set of predicates, as either an immutable or a mutable read.
+   *
+   * @param table the table to query
+   * @param projection the set of columns to retrieve
+   * @param predicatesAndValues the predicates
+   * @param operation IMMUTABLE_READ if the rows are version data, MUTABLE_READ otherwise
+   */
+  public CassandraResults equalitySelect(String table,
+                                         List<String> projection,
+                                         List<DbDataContainer> predicatesAndValues,
+                                         CassandraOperation operation) {
+    return this.equalitySelect(table, projection, predicatesAndValues, operation, true);
+  }
+
+  /**
+   * Retrieve rows based on a set of predicates, as either an immutable or a mutable read. Rows
+   * that belong to a version but that it may not have, such as its tags, should be read without
+   * retrying misses, so that a version without them costs a single read.
+   *
+   * @param table the table to query
+   * @param projection the set of columns to retrieve
+   * @param predicatesAndValues the predicates
+   * @param operation IMMUTABLE_READ if the rows are version data, MUTABLE_READ otherwise
+   * @param retryMisses whether an immutable read that finds nothing is repeated
+   */
+  public CassandraResults equalitySelect(String table,
+                                         List<String> projection,
+                                         List<DbDataContainer> predicatesAndValues,
+                                         CassandraOperation operation,
+                                         boolean retryMisses) {
+    return this.select(table, projection, predicatesAndValues, false, operation, retryMisses);
+  }
+
+  /**
+   * Retrieve rows based on a set of predicates on non-key columns. This appends ALLOW FILTERING
+   * and may scan the whole table, so it should only be used where no lookup table exists.
+   *
+   * @param table the table to query
+   * @param projection the set of columns to retrieve
+   * @param predicatesAndValues the predicates
+   */
+  public CassandraResults filteringSelect(String table,
+                                          List<String> projection,
+                                          List<DbDataContainer> predicatesAndValues) {
+    return this.select(table, projection, predicatesAndValues, true,
+        CassandraOperation.MUTABLE_READ, false);
+  }
+
+  /**
+   * Asynchronously retrieve rows based on a set of predicates. As with equalitySelect, the
+   * predicates must restrict the partition key.
+   *
+   * @param table the table to query
+   * @param projection the set of columns to retrieve
+   * @param predicatesAndValues the predicates
+   * @return a future for the query; pass it to getResults to read the rows
+   */
+  public ListenableFuture<ResultSet> equalitySelectAsync(
+      String table, List<String> projection, List<DbDataContainer> predicatesAndValues) {
+    return this.equalitySelectAsync(table, projection, predicatesAndValues,
+        CassandraOperation.MUTABLE_READ);
+  }
+
+  /**
+   * Asynchronously retrieve rows based on a set of predicates, as either an immutable or a
+   * mutable read.
+   *
+   * @param table the table to query
+   * @param projection the set of columns to retrieve
+   * @param predicatesAndValues the predicates
+   * @param operation IMMUTABLE_READ if the rows are version data, MUTABLE_READ otherwise
+   * @return a future for the query; pass it to getResults to read the rows
+   */
+  public ListenableFuture<ResultSet> equalitySelectAsync(
+      String table, List<String> projection, List<DbDataContainer> predicatesAndValues,
+      CassandraOperation operation) {
+    return this.equalitySelectAsync(table, projection, predicatesAndValues, operation, true);
+  }
+
+  /**
+   * Asynchronously retrieve rows based on a set of predicates, as either an immutable or a
+   * mutable read. As with equalitySelect, optional rows of a version should be read without
+   * retrying misses.
+   *
+   * @param table the table to query
+   * @param projection the set of columns to retrieve
+   * @param predicatesAndValues the predicates
+   * @param operation IMMUTABLE_READ if the rows are version data, MUTABLE_READ otherwise
+   * @param retryMisses whether an immutable read that finds nothing is repeated
+   * @return a future for the query; pass it to getResults to read the rows
+   */
+  public ListenableFuture<ResultSet> equalitySelectAsync(
+      String table, List<String> projection, List<DbDataContainer> predicatesAndValues,
+      CassandraOperation operation, boolean retryMisses) {
+    BoundStatement statement = this.bindSelect(table, projection, predicatesAndValues, false);
+    statement.setFetchSize(this.options.getFetchSize());
+    this.applyOperation(statement, operation);
+
+    LOGGER.info("Executing async query: " + statement.preparedStatement().getQueryString() + ".");
+    ResultSetFuture future = this.session.executeAsync(statement);
+
+    if (!retryMisses || !this.retriesMisses(operation)) {
+      return future;
+    }
+
+    return Futures.transformAsync(future, resultSet -> {
+      if (!resultSet.isExhausted()) {
+        return Futures.immediateFuture(resultSet);
+      }
+
+      this.applyOperation(statement, CassandraOperation.MUTABLE_READ);
+      return this.session.executeAsync(statement);
+    }, MoreExecutors.directExecutor());
+  }
+
+  /**
+   * Wait for an asynchronous query to complete.
+   *
+   * @param future the pending query
+   * @return the results of the query
+   * @throws GroundDbException the query failed
+   */
+  public CassandraResults getResults(ListenableFuture<ResultSet> future)
+      throws GroundDbException {
+    try {
+      return new CassandraResults(future.get(), this.options.getPrefetchThreshold(), false);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GroundDbException(e);
+    } catch (ExecutionException e) {
+      LOGGER.error("Unexpected error in asynchronous query: " + e.getCause().getMessage());
+
+      throw new GroundDbException(e);
+    }
+  }
+
+  /**
+   * Retrieve a single page of rows based on a set of predicates. As with equalitySelect, the
+   * predicates must restrict the partition key. The paging state of the returned results can be
+   * passed back in to resume where this page ended.
+   *
+   * @param table the table to query
+   * @param projection the set of columns to retrieve
+   * @param predicatesAndValues the predicates
+   * @param pageSize the maximum number of rows to return
+   * @param pagingState the paging state returned with the previous page, or null to start
+   * @throws GroundDbException the paging state was invalid or belongs to a different query
+   */
+  public CassandraResults equalitySelectPage(String table,
+                                             List<String> projection,
+                                             List<DbDataContainer> predicatesAndValues,
+                                             int pageSize,
+                                             String pagingState) throws GroundDbException {
+    BoundStatement statement = this.bindSelect(table, projection, predicatesAndValues, false);
+    statement.setFetchSize(pageSize);
+    this.applyOperation(statement, CassandraOperation.MUTABLE_READ);
+
+    if (pagingState != null) {
+      try {
+        statement.setPagingState(PagingState.fromString(pagingState));
+      } catch (PagingStateException | IllegalArgumentException e) {
+        throw new GroundDbException("Invalid paging state " + pagingState + ".");
+      }
+    }
+
+    LOGGER.info("Executing query: " + statement.preparedStatement().getQueryString() + ".");
+    ResultSet resultSet = this.session.execute(statement);
+
+    return new CassandraResults(resultSet, 0, true);
+  }
+
+  private CassandraResults select(String table,
+                                  List<String> projection,
+                                  List<DbDataContainer> predicatesAndValues,
+                                  boolean allowFiltering,
+                                  CassandraOperation operation,
+                                  boolean retryMisses) {
+    BoundStatement statement =
+        this.bindSelect(table, projection, predicatesAndValues, allowFiltering);
+    statement.setFetchSize(this.options.getFetchSize());
+    this.applyOperation(statement, operation);
+
+    LOGGER.info("Executing query: " + statement.preparedStatement().getQueryString() + ".");
+    ResultSet resultSet = this.session.execute(statement);
+
+    if (retryMisses && resultSet.isExhausted() && this.retriesMisses(operation)) {
+      this.applyOperation(statement, CassandraOperation.MUTABLE_READ);
+      resultSet = this.session.execute(statement);
+    }
+
+    return new CassandraResults(resultSet, this.options.getPrefetchThreshold(), false);
+  }
+
+  private BoundStatement bindSelect(String table,
+                                    List<String> projection,
+                                    List<DbDataContainer> predicatesAndValues,
+                                    boolean allowFiltering) {
     String items = String.join(", ", projection);
     String select = "select " + items + " from " + table;
 
@@ -109,14 +574,37 @@ public class CassandraClient extends DbClient {
       select += " where " + predicatesString;
     }
 
-    select += " ALLOW FILTERING;";
+    if (allowFiltering) {
+      select += " ALLOW FILTERING";
+    }
 
-    BoundStatement statement = bind(select, predicatesAndValues);
+    select += ";";
 
-    LOGGER.info("Executing query: " + statement.preparedStatement().getQueryString() + ".");
-    ResultSet resultSet = this.session.execute(statement);
+    return bind(select, predicatesAndValues);
+  }
 
-    return new CassandraResults(resultSet);
+  /**
+   * Set the consistency level, idempotence and retry policy of a statement according to the
+   * kind of operation that it performs.
+   */
+  private void applyOperation(Statement statement, CassandraOperation operation) {
+    statement.setConsistencyLevel(this.options.getConsistency(operation));
+    statement.setRetryPolicy(this.options.getRetryPolicy(operation));
+
+    if (operation == CassandraOperation.CONDITIONAL_WRITE) {
+      statement.setSerialConsistencyLevel(this.options.getSerialConsistency());
+      statement.setIdempotent(false);
+    }
+  }
+
+  /**
+   * An immutable read that finds nothing may have been served by a replica that has not seen the
+   * write yet, so it is repeated at the mutable read consistency if that is any different.
+   */
+  private boolean retriesMisses(CassandraOperation operation) {
+    return operation == CassandraOperation.IMMUTABLE_READ
+        && this.options.getConsistency(CassandraOperation.IMMUTABLE_READ)
+            != this.options.getConsistency(CassandraOperation.MUTABLE_READ);
   }
 
   /**
@@ -129,8 +617,31 @@ public class CassandraClient extends DbClient {
   public void update(List<DbDataContainer> setPredicates,
                      List<DbDataContainer> wherePredicates,
                      String table) {
+    this.update(setPredicates, wherePredicates, table, 0);
+  }
 
-    String updateString = "update " + table + " set ";
+  /**
+   * Execute an update statement in Cassandra, with the updated columns expiring after a number of
+   * seconds. A row that was inserted with a ttl must be updated with its remaining ttl, or the
+   * updated columns outlive the rest of the row.
+   *
+   * @param setPredicates the set portion of the update statement
+   * @param wherePredicates the where portion of the update statement
+   * @param table the table to update
+   * @param ttl the number of seconds until the updated columns expire, or 0 if they never do
+   */
+  public void update(List<DbDataContainer> setPredicates,
+                     List<DbDataContainer> wherePredicates,
+                     String table,
+                     int ttl) {
+
+    String updateString = "update " + table;
+
+    if (ttl > 0) {
+      updateString += " USING TTL " + ttl;
+    }
+
+    updateString += " set ";
 
     if (setPredicates.size() > 0) {
       String setPredicateString = setPredicates.stream()
@@ -149,6 +660,7 @@ public class CassandraClient extends DbClient {
     }
 
     BoundStatement statement = bind(updateString, setPredicates, wherePredicates);
+    this.applyOperation(statement, CassandraOperation.IDEMPOTENT_WRITE);
 
     LOGGER.info("Executing update: " + statement.preparedStatement().getQueryString() + ".");
     this.session.execute(statement);
@@ -169,10 +681,65 @@ public class CassandraClient extends DbClient {
     deleteString += "where " + predicateString;
 
     BoundStatement statement = bind(deleteString, predicates);
+    this.applyOperation(statement, CassandraOperation.IDEMPOTENT_WRITE);
 
     this.session.execute(statement);
   }
 
+  /**
+   * Delete every row of a table whose key column takes one of a set of values. The values are
+   * split into chunks of at most maxBatchSize, and each chunk is deleted by a single statement.
+   *
+   * @param values the values to delete; all of them must be for the same column
+   * @param table the table to delete from
+   * @throws GroundDbException one of the deletes failed
+   */
+  public void deleteIn(List<DbDataContainer> values, String table) throws GroundDbException {
+    this.awaitAll(this.deleteInAsync(Collections.emptyList(), values, table));
+  }
+
+  /**
+   * Asynchronously delete the rows of a table that match a set of predicates and whose last key
+   * column takes one of a set of values. Every row is named by its key, so rows that other
+   * writers add between the same bounds are never deleted. The values are split into chunks of
+   * at most maxBatchSize, and each chunk is deleted by a single statement.
+   *
+   * @param predicates the predicates on the leading key columns, or none
+   * @param values the values to delete; all of them must be for the same column
+   * @param table the table to delete from
+   * @return a future for each pending delete
+   * @throws GroundDbException interrupted while waiting to issue a delete
+   */
+  public List<ResultSetFuture> deleteInAsync(List<DbDataContainer> predicates,
+                                             List<DbDataContainer> values, String table)
+      throws GroundDbException {
+    List<ResultSetFuture> futures = new ArrayList<>();
+    if (values.isEmpty()) {
+      return futures;
+    }
+
+    String field = values.get(0).getField();
+    String predicateString = predicates.stream()
+        .map(predicate -> predicate.getField() + " = ? and ")
+        .collect(Collectors.joining());
+    int maxBatchSize = this.options.getMaxBatchSize();
+
+    for (int start = 0; start < values.size(); start += maxBatchSize) {
+      List<DbDataContainer> chunk =
+          values.subList(start, Math.min(start + maxBatchSize, values.size()));
+
+      String deleteString = "delete from " + table + " where " + predicateString + field
+          + " in (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+      BoundStatement statement = bind(deleteString, predicates, chunk);
+      this.applyOperation(statement, CassandraOperation.IDEMPOTENT_WRITE);
+
+      futures.add(this.executeAsync(statement));
+    }
+
+    return futures;
+  }
+
   private BoundStatement bind(String statement, List<DbDataContainer>... predicates) {
     BoundStatement boundStatement = this.prepareStatement(statement);
     List<Object> values = Arrays.stream(predicates).flatMap(Collection::stream)
@@ -181,12 +748,42 @@ public class CassandraClient extends DbClient {
     return boundStatement;
   }
 
+  /**
+   * Return the number of seconds that versions of an item type are kept for.
+   *
+   * @param itemType the item type, in the form used for table names (e.g. lineage_edge)
+   * @return the retention in seconds, or 0 if versions are kept until they are truncated
+   */
+  public int getRetentionSeconds(String itemType) {
+    return this.options.getRetentionSeconds(itemType);
+  }
+
   @Override
   public void commit() {}
 
   @Override
   public void abort() {}
 
+  /**
+   * Cassandra has no transactions, so every write is visible as soon as it is applied, and the
+   * action runs at once.
+   *
+   * @param action the action to run
+   */
+  @Override
+  public void onCommit(Runnable action) {
+    action.run();
+  }
+
+  /**
+   * Cassandra has no transactions, so an abort does not undo any writes, and the action is
+   * dropped.
+   *
+   * @param action the action to drop
+   */
+  @Override
+  public void onAbort(Runnable action) {}
+
   @Override
   public void close() {
     this.session.close();
@@ -0,0 +1,66 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package db;
+
+/**
+ * The kinds of statement that the CassandraClient issues. Each kind is mapped to its own
+ * consistency level and retry policy in CassandraOptions.
+ */
+public enum CassandraOperation {
+  /**
+   * A read of version data. Versions are never modified once they are written, so any replica
+   * that has the row returns the right answer. A read of a version's own row that finds nothing
+   * is repeated as a MUTABLE_READ, in case it was served by a replica that has not seen the write
+   * yet. Reads of rows a version may not have, such as its tags, are not repeated.
+   */
+  IMMUTABLE_READ("immutableRead", true),
+
+  /**
+   * A read of data that can change, such as items, version histories and tag indexes.
+   */
+  MUTABLE_READ("mutableRead", true),
+
+  /**
+   * A write that has the same effect no matter how many times it is applied.
+   */
+  IDEMPOTENT_WRITE("idempotentWrite", false),
+
+  /**
+   * A lightweight transaction (e.g. INSERT ... IF NOT EXISTS). It is not idempotent, so it is
+   * never retried or executed speculatively.
+   */
+  CONDITIONAL_WRITE("conditionalWrite", false);
+
+  private final String configName;
+  private final boolean read;
+
+  CassandraOperation(String configName, boolean read) {
+    this.configName = configName;
+    this.read = read;
+  }
+
+  /**
+   * Return the name of this operation's block in the db.cassandra.operations configuration.
+   *
+   * @return the configuration name (e.g. immutableRead)
+   */
+  public String getConfigName() {
+    return this.configName;
+  }
+
+  public boolean isRead() {
+    return this.read;
+  }
+}
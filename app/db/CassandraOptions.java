@@ -0,0 +1,269 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package db;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.policies.DefaultRetryPolicy;
+import com.datastax.driver.core.policies.FallthroughRetryPolicy;
+import com.datastax.driver.core.policies.RetryPolicy;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Driver tuning knobs for the CassandraClient. Every setting has a default that matches the
+ * behavior of an untuned driver, so only the values that differ need to be configured.
+ */
+public class CassandraOptions {
+  // the maximum number of asynchronous writes outstanding at once
+  private int maxInFlightWrites = 128;
+
+  // the maximum number of rows grouped into a single unlogged batch
+  private int maxBatchSize = 50;
+
+  // the number of rows fetched per page by a select
+  private int fetchSize = 5000;
+
+  // when fewer than this many fetched rows remain unread, the next page is requested in the
+  // background; 0 disables prefetching
+  private int prefetchThreshold = 1000;
+
+  // route each request to a replica that owns the partition being accessed
+  private boolean tokenAware = true;
+
+  // the local datacenter; if null, the driver picks the datacenter of the contact point
+  private String localDc = null;
+
+  // the number of hosts per remote datacenter to fall back to when the local one is down
+  private int usedHostsPerRemoteDc = 0;
+
+  private int coreConnectionsPerHost = 1;
+  private int maxConnectionsPerHost = 1;
+  private int maxRequestsPerConnection = 1024;
+
+  private ConsistencyLevel readConsistency = ConsistencyLevel.LOCAL_ONE;
+  private ConsistencyLevel writeConsistency = ConsistencyLevel.LOCAL_ONE;
+
+  // the consistency of the paxos phase of conditional writes
+  private ConsistencyLevel serialConsistency = ConsistencyLevel.LOCAL_SERIAL;
+
+  // per-operation overrides; an operation without one uses the read or write consistency above
+  private final Map<CassandraOperation, ConsistencyLevel> operationConsistency =
+      new EnumMap<>(CassandraOperation.class);
+  private final Map<CassandraOperation, RetryPolicy> operationRetryPolicies =
+      new EnumMap<>(CassandraOperation.class);
+
+  // if positive, a speculative execution is started after this many milliseconds
+  private long speculativeExecutionDelayMillis = 0;
+  private int maxSpeculativeExecutions = 1;
+
+  // for each item type (e.g. node or lineage_edge), the number of seconds its versions are kept
+  private final Map<String, Integer> retentionSeconds = new HashMap<>();
+
+  public int getMaxInFlightWrites() {
+    return this.maxInFlightWrites;
+  }
+
+  public CassandraOptions setMaxInFlightWrites(int maxInFlightWrites) {
+    this.maxInFlightWrites = maxInFlightWrites;
+    return this;
+  }
+
+  public int getMaxBatchSize() {
+    return this.maxBatchSize;
+  }
+
+  public CassandraOptions setMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+    return this;
+  }
+
+  public int getFetchSize() {
+    return this.fetchSize;
+  }
+
+  public CassandraOptions setFetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+    return this;
+  }
+
+  public int getPrefetchThreshold() {
+    return this.prefetchThreshold;
+  }
+
+  public CassandraOptions setPrefetchThreshold(int prefetchThreshold) {
+    this.prefetchThreshold = prefetchThreshold;
+    return this;
+  }
+
+  public boolean isTokenAware() {
+    return this.tokenAware;
+  }
+
+  public CassandraOptions setTokenAware(boolean tokenAware) {
+    this.tokenAware = tokenAware;
+    return this;
+  }
+
+  public String getLocalDc() {
+    return this.localDc;
+  }
+
+  public CassandraOptions setLocalDc(String localDc) {
+    this.localDc = localDc;
+    return this;
+  }
+
+  public int getUsedHostsPerRemoteDc() {
+    return this.usedHostsPerRemoteDc;
+  }
+
+  public CassandraOptions setUsedHostsPerRemoteDc(int usedHostsPerRemoteDc) {
+    this.usedHostsPerRemoteDc = usedHostsPerRemoteDc;
+    return this;
+  }
+
+  public int getCoreConnectionsPerHost() {
+    return this.coreConnectionsPerHost;
+  }
+
+  public CassandraOptions setCoreConnectionsPerHost(int coreConnectionsPerHost) {
+    this.coreConnectionsPerHost = coreConnectionsPerHost;
+    return this;
+  }
+
+  public int getMaxConnectionsPerHost() {
+    return this.maxConnectionsPerHost;
+  }
+
+  public CassandraOptions setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+    this.maxConnectionsPerHost = maxConnectionsPerHost;
+    return this;
+  }
+
+  public int getMaxRequestsPerConnection() {
+    return this.maxRequestsPerConnection;
+  }
+
+  public CassandraOptions setMaxRequestsPerConnection(int maxRequestsPerConnection) {
+    this.maxRequestsPerConnection = maxRequestsPerConnection;
+    return this;
+  }
+
+  public ConsistencyLevel getReadConsistency() {
+    return this.readConsistency;
+  }
+
+  public CassandraOptions setReadConsistency(ConsistencyLevel readConsistency) {
+    this.readConsistency = readConsistency;
+    return this;
+  }
+
+  public ConsistencyLevel getWriteConsistency() {
+    return this.writeConsistency;
+  }
+
+  public CassandraOptions setWriteConsistency(ConsistencyLevel writeConsistency) {
+    this.writeConsistency = writeConsistency;
+    return this;
+  }
+
+  public ConsistencyLevel getSerialConsistency() {
+    return this.serialConsistency;
+  }
+
+  public CassandraOptions setSerialConsistency(ConsistencyLevel serialConsistency) {
+    this.serialConsistency = serialConsistency;
+    return this;
+  }
+
+  /**
+   * Return the consistency level that an operation runs at.
+   *
+   * @param operation the kind of operation
+   * @return the operation's own level if one is set; otherwise, the read or write consistency
+   */
+  public ConsistencyLevel getConsistency(CassandraOperation operation) {
+    ConsistencyLevel level = this.operationConsistency.get(operation);
+
+    if (level != null) {
+      return level;
+    }
+
+    return operation.isRead() ? this.readConsistency : this.writeConsistency;
+  }
+
+  public CassandraOptions setConsistency(CassandraOperation operation, ConsistencyLevel level) {
+    this.operationConsistency.put(operation, level);
+    return this;
+  }
+
+  /**
+   * Return the retry policy for an operation.
+   *
+   * @param operation the kind of operation
+   * @return the operation's own policy if one is set; otherwise, conditional writes are never
+   *     retried and every other operation uses the driver's default policy
+   */
+  public RetryPolicy getRetryPolicy(CassandraOperation operation) {
+    RetryPolicy retryPolicy = this.operationRetryPolicies.get(operation);
+
+    if (retryPolicy != null) {
+      return retryPolicy;
+    }
+
+    return operation == CassandraOperation.CONDITIONAL_WRITE
+        ? FallthroughRetryPolicy.INSTANCE : DefaultRetryPolicy.INSTANCE;
+  }
+
+  public CassandraOptions setRetryPolicy(CassandraOperation operation, RetryPolicy retryPolicy) {
+    this.operationRetryPolicies.put(operation, retryPolicy);
+    return this;
+  }
+
+  public long getSpeculativeExecutionDelayMillis() {
+    return this.speculativeExecutionDelayMillis;
+  }
+
+  public CassandraOptions setSpeculativeExecutionDelayMillis(long speculativeExecutionDelayMillis) {
+    this.speculativeExecutionDelayMillis = speculativeExecutionDelayMillis;
+    return this;
+  }
+
+  public int getMaxSpeculativeExecutions() {
+    return this.maxSpeculativeExecutions;
+  }
+
+  public CassandraOptions setMaxSpeculativeExecutions(int maxSpeculativeExecutions) {
+    this.maxSpeculativeExecutions = maxSpeculativeExecutions;
+    return this;
+  }
+
+  /**
+   * Return the number of seconds that versions of an item type are kept for.
+   *
+   * @param itemType the item type, in the form used for table names (e.g. lineage_edge)
+   * @return the retention in seconds, or 0 if versions are kept until they are truncated
+   */
+  public int getRetentionSeconds(String itemType) {
+    return this.retentionSeconds.getOrDefault(itemType, 0);
+  }
+
+  public CassandraOptions setRetentionSeconds(String itemType, int retentionSeconds) {
+    this.retentionSeconds.put(itemType, retentionSeconds);
+    return this;
+  }
+}
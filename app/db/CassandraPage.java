@@ -0,0 +1,49 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package db;
+
+import java.util.List;
+
+/**
+ * One page of a Cassandra scan, along with the token needed to fetch the page after it.
+ *
+ * @param <T> the type of the values in the page
+ */
+public class CassandraPage<T> {
+  private final List<T> values;
+  private final String pagingState;
+
+  public CassandraPage(List<T> values, String pagingState) {
+    this.values = values;
+    this.pagingState = pagingState;
+  }
+
+  public List<T> getValues() {
+    return this.values;
+  }
+
+  /**
+   * Return the token to pass in to retrieve the next page.
+   *
+   * @return the paging state, or null if this is the last page
+   */
+  public String getPagingState() {
+    return this.pagingState;
+  }
+
+  public boolean hasMorePages() {
+    return this.pagingState != null;
+  }
+}
@@ -14,6 +14,7 @@
 
 package db;
 
+import com.datastax.driver.core.PagingState;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 
@@ -23,10 +24,31 @@ import models.versions.GroundType;
 
 public class CassandraResults {
   private final ResultSet resultSet;
+
+  // when fewer than this many rows are buffered, the next page is fetched in the background
+  private final int prefetchThreshold;
+
+  // if true, iteration stops at the end of the first page instead of fetching the next one
+  private final boolean singlePage;
+
   private Row currentRow;
 
   public CassandraResults(ResultSet resultSet) {
+    this(resultSet, 0, false);
+  }
+
+  /**
+   * Wrap a result set.
+   *
+   * @param resultSet the driver result set
+   * @param prefetchThreshold the number of buffered rows below which the next page is requested
+   *     in the background; 0 disables prefetching
+   * @param singlePage if true, only the rows of the first page are returned
+   */
+  public CassandraResults(ResultSet resultSet, int prefetchThreshold, boolean singlePage) {
     this.resultSet = resultSet;
+    this.prefetchThreshold = prefetchThreshold;
+    this.singlePage = singlePage;
     this.currentRow = null;
     this.next();
   }
@@ -61,6 +83,21 @@ public class CassandraResults {
     }
   }
 
+  /**
+   * Retrieve the remaining ttl selected with TTL(column) under the given alias.
+   *
+   * @param field the alias of the selected ttl
+   * @return the number of seconds until the column expires, or 0 if it never does
+   * @throws GroundDbException the alias doesn't exist
+   */
+  public int getTtl(String field) throws GroundDbException {
+    try {
+      return this.currentRow.isNull(field) ? 0 : this.currentRow.getInt(field);
+    } catch (IllegalArgumentException | CodecNotFoundException e) {
+      throw new GroundDbException(e);
+    }
+  }
+
   /**
    * Retrieve the boolean in the column with the given name.
    *
@@ -98,11 +135,37 @@ public class CassandraResults {
    * @return false if there are no more rows
    */
   public boolean next() {
+    if (this.singlePage && this.resultSet.getAvailableWithoutFetching() == 0) {
+      this.currentRow = null;
+      return false;
+    }
+
+    if (!this.singlePage && this.prefetchThreshold > 0 && !this.resultSet.isFullyFetched()
+        && this.resultSet.getAvailableWithoutFetching() <= this.prefetchThreshold) {
+      // the driver ignores this if a fetch is already in progress
+      this.resultSet.fetchMoreResults();
+    }
+
     this.currentRow = this.resultSet.one();
 
     return this.currentRow != null;
   }
 
+  /**
+   * Return a token from which the query can be resumed after the rows fetched so far. When only
+   * a single page is being read, this is the position after the end of that page.
+   *
+   * @return the paging state, or null if there are no more rows
+   */
+  public String getPagingState() {
+    if (this.resultSet == null || this.resultSet.getExecutionInfo() == null) {
+      return null;
+    }
+
+    PagingState pagingState = this.resultSet.getExecutionInfo().getPagingState();
+    return pagingState == null ? null : pagingState.toString();
+  }
+
   /**
    * Determine if the index of current row is null.
    *
@@ -114,6 +177,10 @@ public class CassandraResults {
   }
 
   public boolean isEmpty() {
+    if (this.singlePage) {
+      return this.currentRow == null;
+    }
+
     return (this.resultSet == null || this.resultSet.isExhausted()) && this.currentRow == null;
   }
 }
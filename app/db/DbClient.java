@@ -16,13 +16,83 @@ package db;
 
 import exceptions.GroundDbException;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 public abstract class DbClient implements AutoCloseable {
   public static final List<String> SELECT_STAR = Collections.singletonList("*");
 
+  // the actions to run when the current thread's unit of work is committed or aborted
+  private final ThreadLocal<UnitOfWorkActions> actions =
+      ThreadLocal.withInitial(UnitOfWorkActions::new);
+
+  /**
+   * The actions that keep in-memory state, such as caches, in step with a unit of work.
+   */
+  protected static class UnitOfWorkActions {
+    private final List<Runnable> commitActions = new ArrayList<>();
+    private final List<Runnable> abortActions = new ArrayList<>();
+
+    private void run(boolean committed) {
+      (committed ? this.commitActions : this.abortActions).forEach(Runnable::run);
+    }
+  }
+
   public abstract void commit() throws GroundDbException;
 
   public abstract void abort() throws GroundDbException;
+
+  /**
+   * Register an action that publishes in-memory state derived from the current unit of work, such
+   * as a cache entry, once other units of work can see the same state in the database. The action
+   * runs if the unit of work is committed, and is dropped if it is aborted.
+   *
+   * @param action the action to run on commit
+   */
+  public void onCommit(Runnable action) {
+    this.currentActions().commitActions.add(action);
+  }
+
+  /**
+   * Register an action that undoes in-memory state derived from the current unit of work, such
+   * as a cache entry. The action runs if the unit of work is aborted, and is dropped if it is
+   * committed.
+   *
+   * @param action the action to run on abort
+   */
+  public void onAbort(Runnable action) {
+    this.currentActions().abortActions.add(action);
+  }
+
+  /**
+   * Return the actions of the calling thread's unit of work.
+   *
+   * @return the actions registered so far
+   */
+  protected UnitOfWorkActions currentActions() {
+    return this.actions.get();
+  }
+
+  /**
+   * Remove the actions of the unit of work that just ended, so that later actions belong to the
+   * next one.
+   *
+   * @return the actions of the unit of work that ended
+   */
+  protected UnitOfWorkActions endActions() {
+    UnitOfWorkActions ended = this.actions.get();
+    this.actions.remove();
+
+    return ended;
+  }
+
+  /**
+   * Run the commit or abort actions of the unit of work that just ended, and drop the others.
+   *
+   * @param committed whether the unit of work was committed
+   */
+  protected void finishUnitOfWork(boolean committed) {
+    this.endActions().run(committed);
+  }
 }
@@ -16,28 +16,60 @@ package db;
 
 import com.google.common.annotations.VisibleForTesting;
 
+import exceptions.GroundDbException;
 import models.versions.GroundType;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import org.neo4j.driver.internal.value.StringValue;
 import org.neo4j.driver.v1.AuthTokens;
+import org.neo4j.driver.v1.Config;
 import org.neo4j.driver.v1.Driver;
 import org.neo4j.driver.v1.GraphDatabase;
 import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Session;
-import org.neo4j.driver.v1.StatementResult;
 import org.neo4j.driver.v1.Transaction;
-import org.neo4j.driver.v1.types.Relationship;
+import org.neo4j.driver.v1.exceptions.Neo4jException;
 
 public class Neo4jClient extends DbClient {
+  // every vertex carries this label in addition to its type label, so that lookups by id can use
+  // the unique constraint on it
+  public static final String VERTEX_LABEL = "GroundVertex";
+
+  // the labels of tag vertices, whose keys are indexed
+  private static final List<String> TAG_LABELS = Arrays.asList("ItemTag", "RichVersionTag");
+
   private final Driver driver;
-  private final Session session;
-  private Transaction transaction;
+
+  // bounds the number of sessions in use at once; each unit of work holds one permit
+  private final Semaphore sessions;
+  private final Neo4jOptions options;
+
+  // the vertex properties known to be indexed, so that getVertexIdsWithProperty is an index lookup
+  private final Set<String> indexedProperties = ConcurrentHashMap.newKeySet();
+
+  // the unit of work of each request thread; it is opened by the thread's first statement and
+  // ended by commit or abort, which return its session to the driver's pool
+  private final ThreadLocal<UnitOfWork> unitOfWork;
+
+  private static class UnitOfWork {
+    private final Session session;
+    private final Transaction transaction;
+
+    private UnitOfWork(Session session) {
+      this.session = session;
+      this.transaction = session.beginTransaction();
+    }
+  }
 
   /**
    * Constructor for Neo4j client.
@@ -47,23 +79,221 @@ public class Neo4jClient extends DbClient {
    * @param password the login password
    */
   public Neo4jClient(String host, String username, String password) {
-    this.driver = GraphDatabase.driver("bolt://" + host, AuthTokens.basic(username, password));
-    this.session = this.driver.session();
-    this.transaction = session.beginTransaction();
+    this(host, username, password, new Neo4jOptions());
+  }
+
+  /**
+   * Constructor for Neo4j client with tuning options.
+   *
+   * @param host the Neo4j host
+   * @param username the login username
+   * @param password the login password
+   * @param options the session pool and batching options
+   */
+  public Neo4jClient(String host, String username, String password, Neo4jOptions options) {
+    // idle sessions are kept for reuse, up to the number that can be in use at once
+    Config config = Config.build().withMaxIdleSessions(options.getMaxSessions()).toConfig();
+
+    this.driver = GraphDatabase.driver("bolt://" + host, AuthTokens.basic(username, password),
+        config);
+    this.sessions = new Semaphore(options.getMaxSessions(), true);
+    this.options = options;
+    this.unitOfWork = new ThreadLocal<>();
+
+    this.createSchema();
+  }
+
+  /**
+   * Return the transaction of the calling thread's unit of work, starting a new unit of work if
+   * the thread does not have one.
+   *
+   * @return the open transaction
+   * @throws GroundDbException no session became available within the acquisition timeout
+   */
+  private Transaction transaction() throws GroundDbException {
+    UnitOfWork unit = this.unitOfWork.get();
+
+    if (unit == null) {
+      try {
+        long timeout = this.options.getAcquisitionTimeoutMillis();
+        if (!this.sessions.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+          throw new GroundDbException("Timed out after " + timeout
+              + " ms waiting for a Neo4j session.");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new GroundDbException(e);
+      }
+
+      try {
+        unit = new UnitOfWork(this.driver.session());
+      } catch (Neo4jException e) {
+        this.sessions.release();
+        throw new GroundDbException(e);
+      } catch (RuntimeException e) {
+        this.sessions.release();
+        throw e;
+      }
+
+      this.unitOfWork.set(unit);
+    }
+
+    return unit.transaction;
+  }
+
+  /**
+   * Run a statement in the calling thread's unit of work and read all of its results. The driver
+   * reports errors as runtime exceptions, so any runtime exception rolls back the unit of work,
+   * and a driver error is rethrown as a GroundDbException.
+   *
+   * @param statement the statement to run
+   * @param parameters the parameters of the statement
+   * @return the records returned by the statement
+   * @throws GroundDbException the statement failed
+   */
+  private List<Record> run(String statement, Map<String, Object> parameters)
+      throws GroundDbException {
+    Transaction transaction = this.transaction();
+
+    try {
+      return transaction.run(statement, parameters).list();
+    } catch (RuntimeException e) {
+      // the transaction cannot be used after a failure, so it is rolled back at once
+      try {
+        this.abort();
+      } catch (GroundDbException abortError) {
+        e.addSuppressed(abortError);
+      }
+
+      if (e instanceof Neo4jException) {
+        throw new GroundDbException(e);
+      }
+
+      throw e;
+    }
+  }
+
+  /**
+   * End the calling thread's unit of work, if it has one, and return its session to the pool.
+   *
+   * @param success whether the transaction should be committed or rolled back
+   */
+  private void endUnitOfWork(boolean success) {
+    UnitOfWork unit = this.unitOfWork.get();
+
+    if (unit == null) {
+      return;
+    }
+
+    this.unitOfWork.remove();
+
+    try {
+      if (success) {
+        unit.transaction.success();
+      } else {
+        unit.transaction.failure();
+      }
+
+      unit.transaction.close();
+    } finally {
+      unit.session.close();
+      this.sessions.release();
+    }
+  }
+
+  /**
+   * Create the constraint and indexes that lookups depend on. Schema changes cannot share a
+   * transaction with data changes, so they are made in a session of their own. Creating a
+   * constraint or index that already exists has no effect.
+   */
+  private void createSchema() {
+    try (Session schemaSession = this.driver.session()) {
+      schemaSession.run("CREATE CONSTRAINT ON (v:" + VERTEX_LABEL + ") ASSERT v.id IS UNIQUE");
+
+      for (String label : TAG_LABELS) {
+        schemaSession.run("CREATE INDEX ON :" + label + "(tkey)");
+      }
+
+      // used to delete the tags of a version when its history is truncated
+      schemaSession.run("CREATE INDEX ON :RichVersionTag(rich_version_id)");
+
+      if (this.options.isTagsAsProperties()) {
+        // the type property of every tag key that is already stored, including migrated ones
+        List<Record> keys = schemaSession.run("CALL db.propertyKeys() YIELD propertyKey "
+            + "WHERE propertyKey CONTAINS 'TagType.' RETURN propertyKey").list();
+
+        for (Record key : keys) {
+          this.createPropertyIndex(schemaSession, key.get("propertyKey").asString());
+        }
+      }
+    }
   }
 
-  private String addValuesToStatement(String statement, List<DbDataContainer> values) {
-    return statement + values.stream()
+  private void createPropertyIndex(Session schemaSession, String property) {
+    schemaSession.run("CREATE INDEX ON :" + VERTEX_LABEL + "(" + Neo4jClient.quote(property)
+        + ")").consume();
+    this.indexedProperties.add(property);
+  }
+
+  /**
+   * Make sure that a property of the vertices is indexed, so that getVertexIdsWithProperty can
+   * use the index. Schema changes cannot share a transaction with data changes, so a missing index
+   * is created in a session of its own once the calling thread's unit of work commits.
+   *
+   * @param property the name of the property
+   */
+  public void indexProperty(String property) {
+    if (this.indexedProperties.contains(property)) {
+      return;
+    }
+
+    this.onCommit(() -> {
+      try (Session schemaSession = this.driver.session()) {
+        this.createPropertyIndex(schemaSession, property);
+      } catch (Neo4jException e) {
+        // lookups are still correct without the index, and the next write of the key retries it
+      }
+    });
+  }
+
+  /**
+   * Quote a name, such as a property key, for use in the text of a statement.
+   */
+  private static String quote(String name) {
+    return "`" + name.replace("`", "``") + "`";
+  }
+
+  /**
+   * Build a property map pattern (e.g. {id: $id, name: $name}) for a set of attributes. Only the
+   * field names appear in the statement text, so every call with the same fields produces the
+   * same statement, and the server reuses its plan. Attributes with null values are left out.
+   */
+  private static String toPattern(List<DbDataContainer> values) {
+    return values.stream()
         .filter(container -> container.getValue() != null)
-        .map(container -> {
-          String stmt = container.getField() + " : ";
-          if (container.getGroundType() == GroundType.STRING) {
-            return stmt + "'" + container.getValue() + "'";
-          } else {
-            return stmt + container.getValue();
-          }
-        })
-        .collect(Collectors.joining(", "));
+        .map(container -> container.getField() + ": $" + container.getField())
+        .collect(Collectors.joining(", ", "{", "}"));
+  }
+
+  /**
+   * Build the parameter map for a set of attributes. Null values are left out, which matches both
+   * toPattern and the way Neo4j treats a null property.
+   */
+  private static Map<String, Object> toParameters(List<DbDataContainer> values) {
+    Map<String, Object> parameters = new HashMap<>();
+
+    for (DbDataContainer container : values) {
+      if (container.getValue() == null) {
+        continue;
+      }
+
+      // string attributes may hold any object (e.g. an enum), which was always stored as text
+      Object value = container.getGroundType() == GroundType.STRING
+          ? container.getValue().toString() : container.getValue();
+      parameters.put(container.getField(), value);
+    }
+
+    return parameters;
   }
 
   /**
@@ -72,13 +302,11 @@ public class Neo4jClient extends DbClient {
    * @param label the vertex label
    * @param attributes the vertex's attributes
    */
-  public void addVertex(String label, List<DbDataContainer> attributes) {
-    String insert = "CREATE (: " + label + " {";
+  public void addVertex(String label, List<DbDataContainer> attributes) throws GroundDbException {
+    String insert = "CREATE (:" + VERTEX_LABEL + ":" + label + " $attributes)";
 
-    insert = this.addValuesToStatement(insert, attributes);
-    insert += "})";
-
-    this.transaction.run(insert);
+    this.run(insert,
+        Collections.singletonMap("attributes", Neo4jClient.toParameters(attributes)));
   }
 
   /**
@@ -89,24 +317,18 @@ public class Neo4jClient extends DbClient {
    * @param toId the id of the destination vertex
    * @param attributes the edge's attributes
    */
-  public void addEdge(String label, long fromId, long toId, List<DbDataContainer> attributes) {
-    String insert =
-        "MATCH (f"
-            + "{id : "
-            + fromId
-            + " })"
-            + "MATCH (t"
-            + "{id : "
-            + toId
-            + " })"
-            + "CREATE (f)-[:"
-            + label
-            + "{";
-
-    insert = this.addValuesToStatement(insert, attributes);
-    insert += "}]->(t)";
-
-    this.transaction.run(insert);
+  public void addEdge(String label, long fromId, long toId, List<DbDataContainer> attributes)
+      throws GroundDbException {
+    String insert = "MATCH (f:" + VERTEX_LABEL + " {id: $fromId}) "
+        + "MATCH (t:" + VERTEX_LABEL + " {id: $toId}) "
+        + "CREATE (f)-[:" + label + " $attributes]->(t)";
+
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("fromId", fromId);
+    parameters.put("toId", toId);
+    parameters.put("attributes", Neo4jClient.toParameters(attributes));
+
+    this.run(insert, parameters);
   }
 
   /**
@@ -123,121 +345,287 @@ public class Neo4jClient extends DbClient {
       List<DbDataContainer> attributes,
       String edgeLabel,
       long fromId,
-      List<DbDataContainer> edgeAttributes) {
-
-    String insert = "MATCH (f {id: " + fromId + "})";
-    insert += "CREATE (t: " + label + "{";
+      List<DbDataContainer> edgeAttributes) throws GroundDbException {
 
-    insert = this.addValuesToStatement(insert, attributes);
-    insert += "})";
-    insert += "CREATE (f)-[e: " + edgeLabel + "{";
+    String insert = "MATCH (f:" + VERTEX_LABEL + " {id: $fromId}) "
+        + "CREATE (t:" + VERTEX_LABEL + ":" + label + " $attributes) "
+        + "CREATE (f)-[:" + edgeLabel + " $edgeAttributes]->(t)";
 
-    insert = this.addValuesToStatement(insert, edgeAttributes);
-    insert += "}]->(t)";
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("fromId", fromId);
+    parameters.put("attributes", Neo4jClient.toParameters(attributes));
+    parameters.put("edgeAttributes", Neo4jClient.toParameters(edgeAttributes));
 
-    this.transaction.run(insert);
+    this.run(insert, parameters);
   }
 
   /**
-   * Get all vertices with a certain set of attributes.
+   * Add a new vertex together with the vertices it owns and its edges to existing vertices, all
+   * in a single statement. Each owned vertex is connected to the new vertex by an edge whose
+   * label is the owned vertex's label followed by "Connection" (e.g. RichVersionTagConnection).
    *
-   * @param attributes the attributes to filter by
+   * @param label the vertex label
+   * @param attributes the vertex's attributes
+   * @param children for each label of owned vertex, the attributes of each vertex to create
+   * @param connectionLabel the label of the edges between the new vertex and existing ones, or
+   *     null if it has none
+   * @param incomingIds the ids of the existing vertices with an edge to the new vertex
+   * @param outgoingIds the ids of the existing vertices that the new vertex has an edge to
    */
-  public List<Long> getVerticesByAttributes(List<DbDataContainer> attributes, String idAttribute) {
-    String query = "MATCH (f {";
+  public void addVertexWithNeighbors(String label,
+                                     List<DbDataContainer> attributes,
+                                     Map<String, List<List<DbDataContainer>>> children,
+                                     String connectionLabel,
+                                     List<Long> incomingIds,
+                                     List<Long> outgoingIds) throws GroundDbException {
+    String insert = "CREATE (v:" + VERTEX_LABEL + ":" + label + " $attributes) ";
+
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("attributes", Neo4jClient.toParameters(attributes));
+
+    // a FOREACH does nothing for an empty list, whereas an UNWIND would end the statement
+    int index = 0;
+    for (Map.Entry<String, List<List<DbDataContainer>>> entry : children.entrySet()) {
+      String childLabel = entry.getKey();
+
+      insert += "FOREACH (child IN $children" + index + " | "
+          + "CREATE (v)-[:" + childLabel + "Connection]->"
+          + "(c:" + VERTEX_LABEL + ":" + childLabel + ") SET c = child) ";
+
+      parameters.put("children" + index, entry.getValue().stream()
+          .map(Neo4jClient::toParameters)
+          .collect(Collectors.toList()));
+      index++;
+    }
+
+    if (connectionLabel == null) {
+      this.run(insert, parameters);
+      return;
+    }
 
-    query = this.addValuesToStatement(query, attributes);
-    query += "}) where exists(f." + idAttribute + ") return f";
+    // each id list is padded to a single null when empty, so that the UNWIND keeps the row;
+    // collect drops the nulls that the OPTIONAL MATCH produces for it
+    insert += "WITH v "
+        + "UNWIND (CASE $incomingIds WHEN [] THEN [null] ELSE $incomingIds END) AS fromId "
+        + "OPTIONAL MATCH (f:" + VERTEX_LABEL + " {id: fromId}) "
+        + "WITH v, collect(f) AS incoming "
+        + "UNWIND (CASE $outgoingIds WHEN [] THEN [null] ELSE $outgoingIds END) AS toId "
+        + "OPTIONAL MATCH (t:" + VERTEX_LABEL + " {id: toId}) "
+        + "WITH v, incoming, collect(t) AS outgoing "
+        + "FOREACH (f IN incoming | CREATE (f)-[:" + connectionLabel + "]->(v)) "
+        + "FOREACH (t IN outgoing | CREATE (v)-[:" + connectionLabel + "]->(t))";
+
+    parameters.put("incomingIds", incomingIds);
+    parameters.put("outgoingIds", outgoingIds);
+
+    this.run(insert, parameters);
+  }
 
-    StatementResult queryResult = this.transaction.run(query);
+  /**
+   * Build a projection (e.g. v.id AS id, v.name AS name) that returns each of a set of properties
+   * of a vertex or edge under its own name.
+   */
+  private static String project(String variable, List<String> fields) {
+    return fields.stream()
+        .map(field -> variable + "." + field + " AS " + field)
+        .collect(Collectors.joining(", "));
+  }
+
+  /**
+   * Get the ids of all vertices with a particular label and a certain set of attributes.
+   *
+   * @param label the vertex label
+   * @param attributes the attributes to filter by
+   * @param idAttribute the attribute holding the id to return
+   */
+  public List<Long> getVerticesByAttributes(String label, List<DbDataContainer> attributes,
+                                            String idAttribute) throws GroundDbException {
+    String query = "MATCH (f:" + label + " " + Neo4jClient.toPattern(attributes) + ") "
+        + "WHERE exists(f." + idAttribute + ") RETURN f." + idAttribute + " AS id";
 
     List<Long> result = new ArrayList<>();
-    while (queryResult.hasNext()) {
-      result.add((Long)GroundType.LONG.parse(queryResult.next().get("f").asNode().get(idAttribute).toString()));
+    for (Record record : this.run(query, Neo4jClient.toParameters(attributes))) {
+      result.add(record.get("id").asLong());
     }
 
     return result;
   }
 
   /**
-   * Retrieve a vertex.
+   * Get some of the properties of a vertex with a set of attributes.
    *
-   * @param attributes the set of attributes to filter
-   * @return the Record of the vertex
+   * @param label the vertex label, or null to match a vertex of any type
+   * @param attributes the attributes to filter by
+   * @param returnFields the properties to return, each under its own name
+   * @return the Record with the properties, or null if there is no such vertex
    */
-  public Record getVertex(List<DbDataContainer> attributes) {
-    return this.getVertex(null, attributes);
+  public Record getVertexProperties(String label, List<DbDataContainer> attributes,
+                                    List<String> returnFields) throws GroundDbException {
+    return this.getVertexProperties(label, attributes, returnFields, false);
   }
 
   /**
-   * Get a vertex with a set of attributes and with a particular label.
+   * Get some of the properties of a vertex with a set of attributes, and optionally a map of all
+   * of them. The map is only needed when the names of the properties are not known in advance.
    *
-   * @param label the vertex label
+   * @param label the vertex label, or null to match a vertex of any type
    * @param attributes the attributes to filter by
-   * @return the Record with the vertex
+   * @param returnFields the properties to return, each under its own name
+   * @param allProperties whether to also return a map of every property, as properties
+   * @return the Record with the properties, or null if there is no such vertex
    */
-  public Record getVertex(String label, List<DbDataContainer> attributes) {
-    String query = "MATCH (v";
+  public Record getVertexProperties(String label, List<DbDataContainer> attributes,
+                                    List<String> returnFields, boolean allProperties)
+      throws GroundDbException {
+    String query = "MATCH (v:" + VERTEX_LABEL;
+
+    if (label != null) {
+      query += ":" + label;
+    }
+
+    List<String> projections = new ArrayList<>();
+    if (!returnFields.isEmpty()) {
+      projections.add(Neo4jClient.project("v", returnFields));
+    }
+    if (allProperties) {
+      projections.add("properties(v) AS properties");
+    }
+
+    query += " " + Neo4jClient.toPattern(attributes) + ") RETURN "
+        + String.join(", ", projections);
+    List<Record> result = this.run(query, Neo4jClient.toParameters(attributes));
 
-    if (label == null) {
-      query += " {";
+    if (!result.isEmpty()) {
+      return result.get(0);
     } else {
-      query += ":" + label + "{";
+      return null;
     }
+  }
 
-    query = this.addValuesToStatement(query, attributes);
-    query += "}) RETURN v";
-    StatementResult result = this.transaction.run(query);
+  /**
+   * Get some of the properties of a vertex together with those of the vertices adjacent to it
+   * through each of a set of edge labels, all in a single query. The vertices reached through
+   * each label are returned, as a list of maps of their requested properties, under the label's
+   * name.
+   *
+   * @param id the id of the vertex
+   * @param returnFields the properties of the vertex to return, each under its own name
+   * @param allProperties whether to also return a map of every property of the vertex, as
+   *     properties
+   * @param adjacentFields for each label of outgoing edge to follow, the properties to return
+   *     of the vertices it leads to
+   * @return the Record with the properties, or null if there is no such vertex
+   */
+  public Record getVertexWithAdjacentVertices(long id, List<String> returnFields,
+                                              boolean allProperties,
+                                              Map<String, List<String>> adjacentFields)
+      throws GroundDbException {
+    String query = "MATCH (v:" + VERTEX_LABEL + " {id: $id}) ";
+
+    // collecting after each match keeps the rows from multiplying across the labels; the map
+    // projection of a missing vertex is null, which collect leaves out
+    List<String> collected = new ArrayList<>();
+    int index = 0;
+    for (Map.Entry<String, List<String>> entry : adjacentFields.entrySet()) {
+      String edgeLabel = entry.getKey();
+      String fields = entry.getValue().stream()
+          .map(field -> "." + field)
+          .collect(Collectors.joining(", "));
+
+      query += "OPTIONAL MATCH (v)-[:" + edgeLabel + "]->(a" + index + ") ";
+      collected.add("collect(a" + index + " {" + fields + "}) AS " + edgeLabel);
+      query += "WITH v, " + String.join(", ", collected) + " ";
+
+      collected.set(index, edgeLabel);
+      index++;
+    }
 
-    if (result.hasNext()) {
-      return result.next();
+    List<String> projections = new ArrayList<>(collected);
+    if (!returnFields.isEmpty()) {
+      projections.add(Neo4jClient.project("v", returnFields));
+    }
+    if (allProperties) {
+      projections.add("properties(v) AS properties");
+    }
+
+    query += "RETURN " + String.join(", ", projections);
+
+    List<Record> result = this.run(query, Collections.singletonMap("id", id));
+
+    if (!result.isEmpty()) {
+      return result.get(0);
     } else {
       return null;
     }
   }
 
   /**
-   * Retrieve an edge.
+   * Get some of the properties of an edge with a set of attributes.
    *
    * @param label the edge label
    * @param attributes the attributes to filter by
-   * @return the Neo4j Relationship for this edge
+   * @param returnFields the properties to return, each under its own name
+   * @return the Record with the properties, or null if there is no such edge
    */
-  public Relationship getEdge(String label, List<DbDataContainer> attributes) {
-    String query = "MATCH (v)-[e:" + label + "{";
+  public Record getEdgeProperties(String label, List<DbDataContainer> attributes,
+                                  List<String> returnFields) throws GroundDbException {
+    String query = "MATCH ()-[e:" + label + " " + Neo4jClient.toPattern(attributes)
+        + "]->() RETURN " + Neo4jClient.project("e", returnFields);
 
-    query = this.addValuesToStatement(query, attributes);
-    query += "}]->(w) RETURN e";
+    List<Record> result = this.run(query, Neo4jClient.toParameters(attributes));
 
-    StatementResult result = this.transaction.run(query);
-
-    if (result.hasNext()) {
-      Record r = result.next();
-      return r.get("e").asRelationship();
+    if (!result.isEmpty()) {
+      return result.get(0);
     } else {
       return null;
     }
   }
 
   /**
-   * Get all the edges with a particular label that are reachable from a particular starting vertex.
+   * Get the properties of all the edges with a particular label that are reachable from a
+   * particular starting vertex, in a single query. An edge that lies on several paths is
+   * returned once.
    *
    * @param startId the starting point for the query
    * @param label the edge label we are looking for
-   * @return the list of valid edges
+   * @param returnFields the edge properties to return
+   * @return one record per edge, with each of the returnFields
    */
-  public List<Relationship> getDescendantEdgesByLabel(long startId, String label) {
-    String query = "MATCH (a {id: " + startId + "})-[e: " + label + "*]->(b) return distinct e;";
-    StatementResult result = this.transaction.run(query);
-
-    Set<Relationship> response = new HashSet<>();
+  public List<Record> getDescendantEdgesByLabel(long startId, String label,
+                                                List<String> returnFields)
+      throws GroundDbException {
+    String query = "MATCH p = (a:" + VERTEX_LABEL + " {id: $id})-[:" + label + "*]->() "
+        + "UNWIND relationships(p) AS e "
+        + "WITH DISTINCT e "
+        + "RETURN " + Neo4jClient.project("e", returnFields);
+
+    return this.run(query, Collections.singletonMap("id", startId));
+  }
 
-    while (result.hasNext()) {
-      List<Object> list = result.next().get("e").asList();
-      list.forEach(s -> response.add((Relationship) s));
+  /**
+   * Get the vertices reachable from a starting vertex by following at most maxHops outgoing
+   * edges with a particular label, along with the length of the shortest such path to each, in
+   * a single query.
+   *
+   * @param startId the id of the starting vertex
+   * @param label the edge label to follow
+   * @param maxHops the maximum number of edges to follow; must be positive
+   * @return the id of each reachable vertex other than the starting one, mapped to its distance
+   */
+  public Map<Long, Integer> getReachableVertices(long startId, String label, int maxHops)
+      throws GroundDbException {
+    // the bounds of a variable-length match cannot be parameters
+    String query = "MATCH p = (a:" + VERTEX_LABEL + " {id: $id})-[:" + label + "*1.." + maxHops
+        + "]->(b) "
+        + "WHERE b <> a "
+        + "RETURN b.id AS id, min(length(p)) AS distance";
+
+    Map<Long, Integer> distances = new HashMap<>();
+    for (Record record : this.run(query, Collections.singletonMap("id", startId))) {
+      distances.put(record.get("id").asLong(), record.get("distance").asInt());
     }
 
-    return new ArrayList<>(response);
+    return distances;
   }
 
   /**
@@ -249,18 +637,13 @@ public class Neo4jClient extends DbClient {
    * @return a list of adjacent vertices related by edgeLabel
    */
   public List<Record> getAdjacentVerticesByEdgeLabel(
-      String edgeLabel, long id, List<String> returnFields) {
-    String query =
-        "MATCH (a {id: " + id + " })" + "MATCH (a)-[:" + edgeLabel + "]->(b)" + "RETURN ";
+      String edgeLabel, long id, List<String> returnFields) throws GroundDbException {
+    String query = "MATCH (a:" + VERTEX_LABEL + " {id: $id}) MATCH (a)-[:" + edgeLabel
+        + "]->(b) RETURN ";
 
-    query +=
-        returnFields
-            .stream()
-            .map(field -> "b." + field + " as " + field)
-            .collect(Collectors.joining(", "));
+    query += Neo4jClient.project("b", returnFields);
 
-    StatementResult result = this.transaction.run(query);
-    return result.list();
+    return this.run(query, Collections.singletonMap("id", id));
   }
 
   /**
@@ -269,63 +652,113 @@ public class Neo4jClient extends DbClient {
    * @param id the id of the object
    * @param key the key of the attribute
    * @param value the value of the attribute
-   * @param isString determines whether or not to encapsulate value in quotes
+   * @param isString determines whether or not to store value as a string
    */
-  public void setProperty(long id, String key, Object value, boolean isString) {
-    String insert = "MATCH (n {id: " + id + " })" + "set n." + key + " = ";
+  public void setProperty(long id, String key, Object value, boolean isString)
+      throws GroundDbException {
+    String insert = "MATCH (n:" + VERTEX_LABEL + " {id: $id}) SET n." + key + " = $value";
 
-    if (isString) {
-      insert += "'" + value.toString() + "'";
-    } else {
-      insert += value.toString();
-    }
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("id", id);
+    parameters.put("value", isString ? value.toString() : value);
 
-    this.transaction.run(insert);
+    this.run(insert, parameters);
   }
 
-  public void deleteNode(List<DbDataContainer> predicates, String label) {
-    String delete = "MATCH (n: " + label + " {";
+  /**
+   * For a particular object, set a group of attributes in one statement. Unlike setProperty, the
+   * attribute names may contain any character, since they are passed as the keys of a map.
+   *
+   * @param id the id of the object
+   * @param attributes the attributes to set; those with null values are left unchanged
+   */
+  public void setProperties(long id, List<DbDataContainer> attributes) throws GroundDbException {
+    String insert = "MATCH (n:" + VERTEX_LABEL + " {id: $id}) SET n += $attributes";
+
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("id", id);
+    parameters.put("attributes", Neo4jClient.toParameters(attributes));
+
+    this.run(insert, parameters);
+  }
 
-    delete = this.addValuesToStatement(delete, predicates);
+  /**
+   * Get the ids of all vertices that have a particular property. The lookup is served by the
+   * index on the property when there is one; see indexProperty.
+   *
+   * @param property the name of the property
+   * @return the ids of the vertices that have it
+   */
+  public List<Long> getVertexIdsWithProperty(String property) throws GroundDbException {
+    String query = "MATCH (v:" + VERTEX_LABEL + ") WHERE exists(v." + Neo4jClient.quote(property)
+        + ") RETURN v.id AS id";
 
-    delete += "})" +
-        "MATCH (n)-[e]-()" +
-        "DELETE e " +
-        "DELETE n;";
+    List<Long> ids = new ArrayList<>();
+    for (Record record : this.run(query, Collections.emptyMap())) {
+      ids.add(record.get("id").asLong());
+    }
 
-    this.transaction.run(delete);
+    return ids;
   }
 
-  @Override
-  public void commit() {
-    this.transaction.success();
-    this.transaction.close();
-    this.transaction = this.session.beginTransaction();
+  /**
+   * Delete a set of vertices, every edge touching them, and the vertices they own (such as tags)
+   * through outgoing edges with any of a set of labels. The ids are deleted in the given order,
+   * with one statement per batch of at most deleteBatchSize ids, so that no single statement has
+   * to match the whole deletion. All the batches run in the calling thread's unit of work, so
+   * they are committed or rolled back together with the rest of it.
+   *
+   * @param ids the ids of the vertices to delete
+   * @param ownedEdgeLabels the labels of the edges to the owned vertices that are deleted as well
+   * @throws GroundDbException an error while deleting a batch
+   */
+  public void deleteVertices(List<Long> ids, List<String> ownedEdgeLabels)
+      throws GroundDbException {
+    String delete = "UNWIND $ids AS id "
+        + "MATCH (v:" + VERTEX_LABEL + " {id: id}) "
+        + "OPTIONAL MATCH (v)-[:" + String.join("|", ownedEdgeLabels) + "]->(o) "
+        + "DETACH DELETE o, v";
+
+    int batchSize = this.options.getDeleteBatchSize();
+    for (int start = 0; start < ids.size(); start += batchSize) {
+      List<Long> batch = ids.subList(start, Math.min(start + batchSize, ids.size()));
+
+      this.run(delete, Collections.singletonMap("ids", batch));
+    }
   }
 
   @Override
-  public void abort() {
-    this.transaction.failure();
-    this.transaction.close();
-    this.transaction = this.session.beginTransaction();
+  public void commit() throws GroundDbException {
+    boolean committed = false;
+
+    try {
+      this.endUnitOfWork(true);
+      committed = true;
+    } catch (Neo4jException e) {
+      throw new GroundDbException(e);
+    } finally {
+      this.finishUnitOfWork(committed);
+    }
   }
 
   @Override
-  public void close() {
-    this.transaction.close();
-    this.session.close();
-    this.driver.close();
+  public void abort() throws GroundDbException {
+    try {
+      this.endUnitOfWork(false);
+    } catch (Neo4jException e) {
+      throw new GroundDbException(e);
+    } finally {
+      this.finishUnitOfWork(false);
+    }
   }
 
-  /**
-   * Extract a Java String for a Neo4j StringValue.
-   *
-   * @param value the input StringValue
-   * @return the extracted Java String
-   */
-  public static String getStringFromValue(StringValue value) {
-    String stringWithQuotes = value.toString();
-    return stringWithQuotes.substring(1, stringWithQuotes.length() - 1);
+  @Override
+  public void close() throws GroundDbException {
+    try {
+      this.abort();
+    } finally {
+      this.driver.close();
+    }
   }
 
   /**
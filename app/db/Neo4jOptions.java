@@ -0,0 +1,69 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package db;
+
+/**
+ * Tuning knobs for the Neo4jClient. Every setting has a default, so only the values that differ
+ * need to be configured.
+ */
+public class Neo4jOptions {
+  // the maximum number of sessions in use at once; each unit of work holds one
+  private int maxSessions = 64;
+
+  // how long a unit of work waits for a session before failing
+  private long acquisitionTimeoutMillis = 60000;
+
+  // the maximum number of versions deleted by a single statement during truncation
+  private int deleteBatchSize = 1000;
+
+  // store tags as properties of the vertex they belong to rather than as vertices of their own
+  private boolean tagsAsProperties = false;
+
+  public int getMaxSessions() {
+    return this.maxSessions;
+  }
+
+  public Neo4jOptions setMaxSessions(int maxSessions) {
+    this.maxSessions = maxSessions;
+    return this;
+  }
+
+  public long getAcquisitionTimeoutMillis() {
+    return this.acquisitionTimeoutMillis;
+  }
+
+  public Neo4jOptions setAcquisitionTimeoutMillis(long acquisitionTimeoutMillis) {
+    this.acquisitionTimeoutMillis = acquisitionTimeoutMillis;
+    return this;
+  }
+
+  public int getDeleteBatchSize() {
+    return this.deleteBatchSize;
+  }
+
+  public Neo4jOptions setDeleteBatchSize(int deleteBatchSize) {
+    this.deleteBatchSize = deleteBatchSize;
+    return this;
+  }
+
+  public boolean isTagsAsProperties() {
+    return this.tagsAsProperties;
+  }
+
+  public Neo4jOptions setTagsAsProperties(boolean tagsAsProperties) {
+    this.tagsAsProperties = tagsAsProperties;
+    return this;
+  }
+}
@@ -39,6 +39,10 @@ public class PostgresClient extends DbClient {
   private final Connection connection;
   private final Map<String, PreparedStatement> preparedStatements;
 
+  // every thread shares the connection, and so its transaction; the actions of the unit of work
+  // are shared the same way, rather than kept per thread; guarded by this
+  private UnitOfWorkActions actions = new UnitOfWorkActions();
+
   /**
    * Constructor for Postgres client.
    *
@@ -230,10 +234,15 @@ public class PostgresClient extends DbClient {
 
   @Override
   public void commit() throws GroundDbException {
+    boolean committed = false;
+
     try {
       this.connection.commit();
+      committed = true;
     } catch (SQLException e) {
       throw new GroundDbException(e);
+    } finally {
+      this.finishUnitOfWork(committed);
     }
   }
 
@@ -243,9 +252,34 @@ public class PostgresClient extends DbClient {
       this.connection.rollback();
     } catch (SQLException e) {
       throw new GroundDbException(e);
+    } finally {
+      this.finishUnitOfWork(false);
     }
   }
 
+  @Override
+  public synchronized void onCommit(Runnable action) {
+    super.onCommit(action);
+  }
+
+  @Override
+  public synchronized void onAbort(Runnable action) {
+    super.onAbort(action);
+  }
+
+  @Override
+  protected synchronized UnitOfWorkActions currentActions() {
+    return this.actions;
+  }
+
+  @Override
+  protected synchronized UnitOfWorkActions endActions() {
+    UnitOfWorkActions ended = this.actions;
+    this.actions = new UnitOfWorkActions();
+
+    return ended;
+  }
+
   @Override
   public void close() throws GroundDbException {
     try {
@@ -14,6 +14,7 @@
 
 package models.versions;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.ArrayList;
@@ -31,9 +32,21 @@ public class VersionHistoryDag<T extends Version> {
   // list of VersionSuccessors that make up this DAG
   private final List<Long> edgeIds;
 
+  // the same VersionSuccessors, for checking whether one is in this DAG
+  private final Set<Long> edgeIdSet;
+
   // map of parents to children
   private final Map<Long, List<Long>> parentChildMap;
 
+  // map of children to parents
+  private final Map<Long, List<Long>> childParentMap;
+
+  // the versions that are not the parent of another version, kept up to date as edges are added
+  private final Set<Long> leaves;
+
+  // whether this DAG is cached and so read by several units of work at once; see isShared
+  private boolean shared = false;
+
   /**
    * Create a new version history DAG.
    *
@@ -44,7 +57,10 @@ public class VersionHistoryDag<T extends Version> {
     this.itemId = itemId;
     this.edgeIds = edges.stream().map(VersionSuccessor::getId)
         .collect(Collectors.toList());
+    this.edgeIdSet = new HashSet<>(this.edgeIds);
     this.parentChildMap = new HashMap<>();
+    this.childParentMap = new HashMap<>();
+    this.leaves = new HashSet<>();
 
     edges.forEach(edge -> this.addToParentChildMap(edge.getFromId(), edge.getToId()));
   }
@@ -59,14 +75,37 @@ public class VersionHistoryDag<T extends Version> {
     return this.edgeIds;
   }
 
+  /**
+   * Mark this DAG as shared by several units of work. A shared DAG must only be changed once an
+   * edge is committed, so edges that a unit of work adds are not applied to it directly.
+   */
+  public synchronized void share() {
+    this.shared = true;
+  }
+
+  @JsonIgnore
+  public synchronized boolean isShared() {
+    return this.shared;
+  }
+
   /**
    * Checks if a given ID is in the DAG.
    *
    * @param id the ID to be checked
    * @return true if id is in the DAG, false otherwise
    */
-  public boolean checkItemInDag(long id) {
-    return this.parentChildMap.keySet().contains(id) || this.getLeaves().contains(id);
+  public synchronized boolean checkItemInDag(long id) {
+    return this.parentChildMap.containsKey(id) || this.leaves.contains(id);
+  }
+
+  /**
+   * Checks if a given version successor is an edge of the DAG.
+   *
+   * @param successorId the id of the version successor
+   * @return true if the edge is in the DAG, false otherwise
+   */
+  public synchronized boolean containsEdge(long successorId) {
+    return this.edgeIdSet.contains(successorId);
   }
 
   /**
@@ -75,8 +114,9 @@ public class VersionHistoryDag<T extends Version> {
    * @param parentId the id of the "from" of the edge
    * @param childId the id of the "to" of the edge
    */
-  public void addEdge(long parentId, long childId, long successorId) {
+  public synchronized void addEdge(long parentId, long childId, long successorId) {
     this.edgeIds.add(successorId);
+    this.edgeIdSet.add(successorId);
     this.addToParentChildMap(parentId, childId);
   }
 
@@ -86,11 +126,8 @@ public class VersionHistoryDag<T extends Version> {
    * @param childId the query id
    * @return the list of parent version(s)
    */
-  public List<Long> getParent(long childId) {
-    return this.parentChildMap.entrySet().stream()
-        .filter(entry -> entry.getValue().contains(childId))
-        .map(Map.Entry::getKey)
-        .collect(Collectors.toList());
+  public synchronized List<Long> getParent(long childId) {
+    return new ArrayList<>(this.childParentMap.getOrDefault(childId, new ArrayList<>()));
   }
 
   /**
@@ -99,17 +136,19 @@ public class VersionHistoryDag<T extends Version> {
    *
    * @return the list of the IDs of the leaves of this DAG
    */
-  public List<Long> getLeaves() {
-    Set<Long> leaves = new HashSet<>();
-    this.parentChildMap.values().forEach(leaves::addAll);
-    leaves.removeAll(this.parentChildMap.keySet());
-
-    return new ArrayList<>(leaves);
+  public synchronized List<Long> getLeaves() {
+    return new ArrayList<>(this.leaves);
   }
 
   private void addToParentChildMap(long parent, long child) {
     List<Long> childList = this.parentChildMap.computeIfAbsent(parent,
         key -> new ArrayList<>());
     childList.add(child);
+    this.childParentMap.computeIfAbsent(child, key -> new ArrayList<>()).add(parent);
+
+    this.leaves.remove(parent);
+    if (!this.parentChildMap.containsKey(child)) {
+      this.leaves.add(child);
+    }
   }
 }
@@ -0,0 +1,105 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util;
+
+import dao.models.StructureVersionCache;
+import dao.versions.ItemCache;
+import dao.versions.KnownVersionCache;
+import dao.versions.VersionCache;
+import dao.versions.VersionHistoryDagCache;
+import play.Configuration;
+
+/**
+ * The in-process caches of a backend, shared by all of its factories.
+ */
+public class Caches {
+  private final ItemCache itemCache;
+  private final VersionCache versionCache;
+  private final StructureVersionCache structureVersionCache;
+  private final VersionHistoryDagCache versionHistoryDagCache;
+  private final KnownVersionCache knownVersionCache;
+
+  /**
+   * Create a set of caches.
+   *
+   * @param itemCache the cache of items by source key
+   * @param versionCache the cache of versions by id
+   * @param structureVersionCache the cache of structure versions and their tag validators
+   * @param versionHistoryDagCache the cache of version history DAGs by item id
+   * @param knownVersionCache the ids of versions that are known to exist
+   */
+  public Caches(ItemCache itemCache, VersionCache versionCache,
+                StructureVersionCache structureVersionCache,
+                VersionHistoryDagCache versionHistoryDagCache,
+                KnownVersionCache knownVersionCache) {
+    this.itemCache = itemCache;
+    this.versionCache = versionCache;
+    this.structureVersionCache = structureVersionCache;
+    this.versionHistoryDagCache = versionHistoryDagCache;
+    this.knownVersionCache = knownVersionCache;
+  }
+
+  /**
+   * Create the caches sized by the cache block of the configuration; a missing size disables its
+   * cache. The version and DAG caches only see the changes made by this machine, so they are
+   * disabled when several machines share the database.
+   *
+   * @param configuration the Play app configuration
+   * @param numMachines the number of machines that share the database
+   * @return the caches
+   */
+  public static Caches fromConfiguration(Configuration configuration, int numMachines) {
+    boolean singleMachine = numMachines <= 1;
+
+    return new Caches(
+        new ItemCache(configuration.getLong("cache.items.maxSize", 0L)),
+        new VersionCache(singleMachine
+            ? configuration.getLong("cache.versions.maxWeight", 0L) : 0L),
+        new StructureVersionCache(configuration.getLong("cache.structureVersions.maxSize", 0L)),
+        new VersionHistoryDagCache(singleMachine
+            ? configuration.getLong("cache.versionHistoryDags.maxEdges", 0L) : 0L),
+        new KnownVersionCache(configuration.getLong("cache.knownVersions.maxSize", 0L)));
+  }
+
+  /**
+   * Create caches that are all disabled, so that every read goes to the database.
+   *
+   * @return the caches
+   */
+  public static Caches disabled() {
+    return new Caches(new ItemCache(0), new VersionCache(0), new StructureVersionCache(0),
+        new VersionHistoryDagCache(0), new KnownVersionCache(0));
+  }
+
+  public ItemCache getItemCache() {
+    return this.itemCache;
+  }
+
+  public VersionCache getVersionCache() {
+    return this.versionCache;
+  }
+
+  public StructureVersionCache getStructureVersionCache() {
+    return this.structureVersionCache;
+  }
+
+  public VersionHistoryDagCache getVersionHistoryDagCache() {
+    return this.versionHistoryDagCache;
+  }
+
+  public KnownVersionCache getKnownVersionCache() {
+    return this.knownVersionCache;
+  }
+}
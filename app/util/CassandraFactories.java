@@ -14,6 +14,11 @@
 
 package util;
 
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.policies.DefaultRetryPolicy;
+import com.datastax.driver.core.policies.DowngradingConsistencyRetryPolicy;
+import com.datastax.driver.core.policies.FallthroughRetryPolicy;
+import com.datastax.driver.core.policies.RetryPolicy;
 import com.google.common.annotations.VisibleForTesting;
 import dao.models.EdgeFactory;
 import dao.models.EdgeVersionFactory;
@@ -22,6 +27,7 @@ import dao.models.GraphVersionFactory;
 import dao.models.NodeFactory;
 import dao.models.NodeVersionFactory;
 import dao.models.StructureFactory;
+import dao.models.StructureVersionCache;
 import dao.models.StructureVersionFactory;
 import dao.models.cassandra.CassandraEdgeFactory;
 import dao.models.cassandra.CassandraEdgeVersionFactory;
@@ -41,11 +47,16 @@ import dao.usage.cassandra.CassandraLineageEdgeFactory;
 import dao.usage.cassandra.CassandraLineageEdgeVersionFactory;
 import dao.usage.cassandra.CassandraLineageGraphFactory;
 import dao.usage.cassandra.CassandraLineageGraphVersionFactory;
+import dao.versions.ItemCache;
+import dao.versions.VersionCache;
+import dao.versions.VersionHistoryDagCache;
 import dao.versions.cassandra.CassandraItemFactory;
 import dao.versions.cassandra.CassandraVersionFactory;
 import dao.versions.cassandra.CassandraVersionHistoryDagFactory;
 import dao.versions.cassandra.CassandraVersionSuccessorFactory;
 import db.CassandraClient;
+import db.CassandraOperation;
+import db.CassandraOptions;
 import db.DbClient;
 import exceptions.GroundDbException;
 import javax.inject.Inject;
@@ -55,6 +66,7 @@ import play.Configuration;
 @Singleton
 public class CassandraFactories implements FactoryGenerator {
   private final CassandraClient cassandraClient;
+  private final CassandraVersionSuccessorFactory versionSuccessorFactory;
 
   private final CassandraStructureFactory structureFactory;
   private final CassandraStructureVersionFactory structureVersionFactory;
@@ -70,6 +82,8 @@ public class CassandraFactories implements FactoryGenerator {
   private final CassandraLineageGraphFactory lineageGraphFactory;
   private final CassandraLineageGraphVersionFactory lineageGraphVersionFactory;
 
+  private final Caches caches;
+
   /**
    * Create all the Cassandra factories.
    *
@@ -84,46 +98,148 @@ public class CassandraFactories implements FactoryGenerator {
         dbConf.getInt("port"),
         dbConf.getString("name"),
         dbConf.getString("user"),
-        dbConf.getString("password"));
+        dbConf.getString("password"),
+        CassandraFactories.createOptions(dbConf.getConfig("cassandra")));
 
     int machineId = machineConf.getInt("id");
     int numMachines = machineConf.getInt("count");
 
     IdGenerator idGenerator = new IdGenerator(machineId, numMachines, false);
+    this.caches = Caches.fromConfiguration(configuration, numMachines);
 
-    CassandraVersionSuccessorFactory versionSuccessorFactory =
-        new CassandraVersionSuccessorFactory(cassandraClient, idGenerator);
-    CassandraVersionHistoryDagFactory versionHistoryDagFactory =
-        new CassandraVersionHistoryDagFactory(cassandraClient, versionSuccessorFactory);
+    this.versionSuccessorFactory = new CassandraVersionSuccessorFactory(cassandraClient,
+        idGenerator, this.caches);
     CassandraTagFactory tagFactory = new CassandraTagFactory(cassandraClient);
+    CassandraVersionHistoryDagFactory versionHistoryDagFactory =
+        new CassandraVersionHistoryDagFactory(cassandraClient, this.versionSuccessorFactory,
+            tagFactory, this.caches);
 
     this.structureFactory = new CassandraStructureFactory(cassandraClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.structureVersionFactory = new CassandraStructureVersionFactory(cassandraClient,
-        this.structureFactory, idGenerator);
+        this.structureFactory, idGenerator, this.caches);
     this.edgeFactory = new CassandraEdgeFactory(cassandraClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.edgeVersionFactory = new CassandraEdgeVersionFactory(cassandraClient, this.edgeFactory,
-        this.structureVersionFactory, tagFactory, idGenerator);
+        this.structureVersionFactory, tagFactory, idGenerator, this.caches);
     this.edgeFactory.setEdgeVersionFactory(this.edgeVersionFactory);
 
     this.graphFactory = new CassandraGraphFactory(cassandraClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.graphVersionFactory = new CassandraGraphVersionFactory(cassandraClient, this.graphFactory,
-        this.structureVersionFactory, tagFactory, idGenerator);
+        this.structureVersionFactory, tagFactory, idGenerator, this.caches);
     this.nodeFactory = new CassandraNodeFactory(cassandraClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.nodeVersionFactory = new CassandraNodeVersionFactory(cassandraClient, this.nodeFactory,
-        this.structureVersionFactory, tagFactory, idGenerator);
+        this.structureVersionFactory, tagFactory, idGenerator, this.caches);
 
     this.lineageEdgeFactory = new CassandraLineageEdgeFactory(cassandraClient,
-        versionHistoryDagFactory, tagFactory, idGenerator);
+        versionHistoryDagFactory, tagFactory, idGenerator, this.caches);
     this.lineageEdgeVersionFactory = new CassandraLineageEdgeVersionFactory(cassandraClient,
-        this.lineageEdgeFactory, structureVersionFactory, tagFactory, idGenerator);
+        this.lineageEdgeFactory, structureVersionFactory, tagFactory, idGenerator, this.caches);
     this.lineageGraphFactory = new CassandraLineageGraphFactory(cassandraClient,
-        versionHistoryDagFactory, tagFactory, idGenerator);
+        versionHistoryDagFactory, tagFactory, idGenerator, this.caches);
     this.lineageGraphVersionFactory = new CassandraLineageGraphVersionFactory(cassandraClient,
-        this.lineageGraphFactory, this.structureVersionFactory, tagFactory, idGenerator);
+        this.lineageGraphFactory, this.structureVersionFactory, tagFactory, idGenerator,
+        this.caches);
+  }
+
+  /**
+   * Read the db.cassandra configuration block. Any setting that is missing keeps the default from
+   * CassandraOptions.
+   *
+   * @param conf the db.cassandra configuration, or null if there is none
+   * @return the driver options
+   */
+  private static CassandraOptions createOptions(Configuration conf) {
+    CassandraOptions options = new CassandraOptions();
+
+    if (conf == null) {
+      return options;
+    }
+
+    options.setMaxInFlightWrites(conf.getInt("maxInFlightWrites", options.getMaxInFlightWrites()))
+        .setMaxBatchSize(conf.getInt("maxBatchSize", options.getMaxBatchSize()))
+        .setFetchSize(conf.getInt("fetchSize", options.getFetchSize()))
+        .setPrefetchThreshold(conf.getInt("prefetchThreshold", options.getPrefetchThreshold()))
+        .setTokenAware(conf.getBoolean("tokenAware", options.isTokenAware()))
+        .setLocalDc(conf.getString("localDc", options.getLocalDc()))
+        .setUsedHostsPerRemoteDc(conf.getInt("usedHostsPerRemoteDc",
+            options.getUsedHostsPerRemoteDc()))
+        .setCoreConnectionsPerHost(conf.getInt("coreConnectionsPerHost",
+            options.getCoreConnectionsPerHost()))
+        .setMaxConnectionsPerHost(conf.getInt("maxConnectionsPerHost",
+            options.getMaxConnectionsPerHost()))
+        .setMaxRequestsPerConnection(conf.getInt("maxRequestsPerConnection",
+            options.getMaxRequestsPerConnection()))
+        .setSpeculativeExecutionDelayMillis(conf.getLong("speculativeExecutionDelayMillis",
+            options.getSpeculativeExecutionDelayMillis()))
+        .setMaxSpeculativeExecutions(conf.getInt("maxSpeculativeExecutions",
+            options.getMaxSpeculativeExecutions()));
+
+    // a single consistency setting applies to both reads and writes unless they are overridden
+    String consistency = conf.getString("consistency");
+    if (consistency != null) {
+      options.setReadConsistency(ConsistencyLevel.valueOf(consistency.toUpperCase()))
+          .setWriteConsistency(ConsistencyLevel.valueOf(consistency.toUpperCase()));
+    }
+
+    String readConsistency = conf.getString("readConsistency");
+    if (readConsistency != null) {
+      options.setReadConsistency(ConsistencyLevel.valueOf(readConsistency.toUpperCase()));
+    }
+
+    String writeConsistency = conf.getString("writeConsistency");
+    if (writeConsistency != null) {
+      options.setWriteConsistency(ConsistencyLevel.valueOf(writeConsistency.toUpperCase()));
+    }
+
+    String serialConsistency = conf.getString("serialConsistency");
+    if (serialConsistency != null) {
+      options.setSerialConsistency(ConsistencyLevel.valueOf(serialConsistency.toUpperCase()));
+    }
+
+    Configuration operationsConf = conf.getConfig("operations");
+    if (operationsConf != null) {
+      for (CassandraOperation operation : CassandraOperation.values()) {
+        Configuration operationConf = operationsConf.getConfig(operation.getConfigName());
+        if (operationConf == null) {
+          continue;
+        }
+
+        String level = operationConf.getString("consistency");
+        if (level != null) {
+          options.setConsistency(operation, ConsistencyLevel.valueOf(level.toUpperCase()));
+        }
+
+        String retryPolicy = operationConf.getString("retryPolicy");
+        if (retryPolicy != null) {
+          options.setRetryPolicy(operation, CassandraFactories.createRetryPolicy(retryPolicy));
+        }
+      }
+    }
+
+    Configuration retentionConf = conf.getConfig("retentionSeconds");
+    if (retentionConf != null) {
+      for (String itemType : retentionConf.keys()) {
+        options.setRetentionSeconds(itemType, retentionConf.getInt(itemType));
+      }
+    }
+
+    return options;
+  }
+
+  private static RetryPolicy createRetryPolicy(String name) {
+    switch (name) {
+      case "default":
+        return DefaultRetryPolicy.INSTANCE;
+      case "fallthrough":
+        return FallthroughRetryPolicy.INSTANCE;
+      case "downgrading":
+        return DowngradingConsistencyRetryPolicy.INSTANCE;
+      default:
+        throw new IllegalArgumentException("Unknown Cassandra retry policy " + name + ".");
+    }
   }
 
   @Override
@@ -186,6 +302,31 @@ public class CassandraFactories implements FactoryGenerator {
     return this.lineageGraphVersionFactory;
   }
 
+  @Override
+  public ItemCache getItemCache() {
+    return this.caches.getItemCache();
+  }
+
+  @Override
+  public StructureVersionCache getStructureVersionCache() {
+    return this.caches.getStructureVersionCache();
+  }
+
+  @Override
+  public VersionCache getVersionCache() {
+    return this.caches.getVersionCache();
+  }
+
+  @Override
+  public VersionHistoryDagCache getVersionHistoryDagCache() {
+    return this.caches.getVersionHistoryDagCache();
+  }
+
+  @VisibleForTesting
+  public CassandraVersionSuccessorFactory getVersionSuccessorFactory() {
+    return this.versionSuccessorFactory;
+  }
+
   @Override
   public DbClient getDbClient() {
     return this.cassandraClient;
@@ -21,11 +21,15 @@ import dao.models.GraphVersionFactory;
 import dao.models.NodeFactory;
 import dao.models.NodeVersionFactory;
 import dao.models.StructureFactory;
+import dao.models.StructureVersionCache;
 import dao.models.StructureVersionFactory;
 import dao.usage.LineageEdgeFactory;
 import dao.usage.LineageEdgeVersionFactory;
 import dao.usage.LineageGraphFactory;
 import dao.usage.LineageGraphVersionFactory;
+import dao.versions.ItemCache;
+import dao.versions.VersionCache;
+import dao.versions.VersionHistoryDagCache;
 import db.DbClient;
 
 public interface FactoryGenerator {
@@ -53,5 +57,13 @@ public interface FactoryGenerator {
 
   LineageGraphVersionFactory getLineageGraphVersionFactory();
 
+  ItemCache getItemCache();
+
+  StructureVersionCache getStructureVersionCache();
+
+  VersionCache getVersionCache();
+
+  VersionHistoryDagCache getVersionHistoryDagCache();
+
   DbClient getDbClient();
 }
@@ -21,6 +21,7 @@ import dao.models.GraphVersionFactory;
 import dao.models.NodeFactory;
 import dao.models.NodeVersionFactory;
 import dao.models.StructureFactory;
+import dao.models.StructureVersionCache;
 import dao.models.StructureVersionFactory;
 import dao.models.neo4j.Neo4jEdgeFactory;
 import dao.models.neo4j.Neo4jEdgeVersionFactory;
@@ -40,11 +41,15 @@ import dao.usage.neo4j.Neo4jLineageEdgeFactory;
 import dao.usage.neo4j.Neo4jLineageEdgeVersionFactory;
 import dao.usage.neo4j.Neo4jLineageGraphFactory;
 import dao.usage.neo4j.Neo4jLineageGraphVersionFactory;
+import dao.versions.ItemCache;
+import dao.versions.VersionCache;
+import dao.versions.VersionHistoryDagCache;
 import dao.versions.neo4j.Neo4jItemFactory;
 import dao.versions.neo4j.Neo4jVersionHistoryDagFactory;
 import dao.versions.neo4j.Neo4jVersionSuccessorFactory;
 import db.DbClient;
 import db.Neo4jClient;
+import db.Neo4jOptions;
 import exceptions.GroundDbException;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -68,6 +73,8 @@ public class Neo4jFactories implements FactoryGenerator {
   private final Neo4jLineageGraphFactory lineageGraphFactory;
   private final Neo4jLineageGraphVersionFactory lineageGraphVersionFactory;
 
+  private final Caches caches;
+
   /**
    * Create the Neo4j factories.
    *
@@ -78,49 +85,76 @@ public class Neo4jFactories implements FactoryGenerator {
     Configuration dbConf = configuration.getConfig("db");
     Configuration machineConf = configuration.getConfig("machine");
 
+    Neo4jOptions options = Neo4jFactories.createOptions(dbConf.getConfig("neo4j"));
     this.neo4jClient = new Neo4jClient(dbConf.getString("host"),
         dbConf.getString("user"),
-        dbConf.getString("password"));
+        dbConf.getString("password"),
+        options);
 
     int machineId = machineConf.getInt("id");
     int numMachines = machineConf.getInt("count");
 
 
     IdGenerator idGenerator = new IdGenerator(machineId, numMachines, true);
+    this.caches = Caches.fromConfiguration(configuration, numMachines);
 
     Neo4jVersionSuccessorFactory versionSuccessorFactory =
         new Neo4jVersionSuccessorFactory(this.neo4jClient, idGenerator);
     Neo4jVersionHistoryDagFactory versionHistoryDagFactory =
-        new Neo4jVersionHistoryDagFactory(this.neo4jClient, versionSuccessorFactory);
-    Neo4jTagFactory tagFactory = new Neo4jTagFactory(this.neo4jClient);
+        new Neo4jVersionHistoryDagFactory(this.neo4jClient, versionSuccessorFactory, this.caches);
+    Neo4jTagFactory tagFactory = new Neo4jTagFactory(this.neo4jClient,
+        options.isTagsAsProperties());
 
     this.structureFactory = new Neo4jStructureFactory(this.neo4jClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.structureVersionFactory = new Neo4jStructureVersionFactory(this.neo4jClient,
-        this.structureFactory, idGenerator);
+        this.structureFactory, idGenerator, this.caches);
     this.edgeFactory = new Neo4jEdgeFactory(this.neo4jClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.edgeVersionFactory = new Neo4jEdgeVersionFactory(this.neo4jClient, this.edgeFactory,
-        this.structureVersionFactory, tagFactory, idGenerator);
+        this.structureVersionFactory, tagFactory, idGenerator, this.caches);
     this.edgeFactory.setEdgeVersionFactory(this.edgeVersionFactory);
 
     this.graphFactory = new Neo4jGraphFactory(this.neo4jClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.graphVersionFactory = new Neo4jGraphVersionFactory(this.neo4jClient, this.graphFactory,
-        this.structureVersionFactory, tagFactory, idGenerator);
+        this.structureVersionFactory, tagFactory, idGenerator, this.caches);
     this.nodeFactory = new Neo4jNodeFactory(this.neo4jClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.nodeVersionFactory = new Neo4jNodeVersionFactory(this.neo4jClient, this.nodeFactory,
-        this.structureVersionFactory, tagFactory, idGenerator);
+        this.structureVersionFactory, tagFactory, idGenerator, this.caches);
 
     this.lineageEdgeFactory = new Neo4jLineageEdgeFactory(this.neo4jClient,
-        versionHistoryDagFactory, tagFactory, idGenerator);
+        versionHistoryDagFactory, tagFactory, idGenerator, this.caches);
     this.lineageEdgeVersionFactory = new Neo4jLineageEdgeVersionFactory(this.neo4jClient,
-        this.lineageEdgeFactory, structureVersionFactory, tagFactory, idGenerator);
+        this.lineageEdgeFactory, structureVersionFactory, tagFactory, idGenerator, this.caches);
     this.lineageGraphFactory = new Neo4jLineageGraphFactory(this.neo4jClient,
-        versionHistoryDagFactory, tagFactory, idGenerator);
+        versionHistoryDagFactory, tagFactory, idGenerator, this.caches);
     this.lineageGraphVersionFactory = new Neo4jLineageGraphVersionFactory(this.neo4jClient,
-        this.lineageGraphFactory, this.structureVersionFactory, tagFactory, idGenerator);
+        this.lineageGraphFactory, this.structureVersionFactory, tagFactory, idGenerator,
+        this.caches);
+  }
+
+  /**
+   * Read the db.neo4j configuration block. Any setting that is missing keeps the default from
+   * Neo4jOptions.
+   *
+   * @param conf the db.neo4j configuration, or null if there is none
+   * @return the client options
+   */
+  private static Neo4jOptions createOptions(Configuration conf) {
+    Neo4jOptions options = new Neo4jOptions();
+
+    if (conf == null) {
+      return options;
+    }
+
+    return options.setMaxSessions(conf.getInt("maxSessions", options.getMaxSessions()))
+        .setAcquisitionTimeoutMillis(conf.getLong("acquisitionTimeoutMillis",
+            options.getAcquisitionTimeoutMillis()))
+        .setDeleteBatchSize(conf.getInt("deleteBatchSize", options.getDeleteBatchSize()))
+        .setTagsAsProperties(conf.getBoolean("tagsAsProperties",
+            options.isTagsAsProperties()));
   }
 
   @Override
@@ -183,6 +217,26 @@ public class Neo4jFactories implements FactoryGenerator {
     return this.lineageGraphVersionFactory;
   }
 
+  @Override
+  public ItemCache getItemCache() {
+    return this.caches.getItemCache();
+  }
+
+  @Override
+  public StructureVersionCache getStructureVersionCache() {
+    return this.caches.getStructureVersionCache();
+  }
+
+  @Override
+  public VersionCache getVersionCache() {
+    return this.caches.getVersionCache();
+  }
+
+  @Override
+  public VersionHistoryDagCache getVersionHistoryDagCache() {
+    return this.caches.getVersionHistoryDagCache();
+  }
+
   @Override
   public DbClient getDbClient() {
     return this.neo4jClient;
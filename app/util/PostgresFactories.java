@@ -21,6 +21,7 @@ import dao.models.GraphVersionFactory;
 import dao.models.NodeFactory;
 import dao.models.NodeVersionFactory;
 import dao.models.StructureFactory;
+import dao.models.StructureVersionCache;
 import dao.models.StructureVersionFactory;
 import dao.models.postgres.PostgresEdgeFactory;
 import dao.models.postgres.PostgresEdgeVersionFactory;
@@ -40,6 +41,9 @@ import dao.usage.postgres.PostgresLineageEdgeFactory;
 import dao.usage.postgres.PostgresLineageEdgeVersionFactory;
 import dao.usage.postgres.PostgresLineageGraphFactory;
 import dao.usage.postgres.PostgresLineageGraphVersionFactory;
+import dao.versions.ItemCache;
+import dao.versions.VersionCache;
+import dao.versions.VersionHistoryDagCache;
 import dao.versions.postgres.PostgresItemFactory;
 import dao.versions.postgres.PostgresVersionFactory;
 import dao.versions.postgres.PostgresVersionHistoryDagFactory;
@@ -69,6 +73,8 @@ public class PostgresFactories implements FactoryGenerator {
   private final PostgresLineageGraphFactory lineageGraphFactory;
   private final PostgresLineageGraphVersionFactory lineageGraphVersionFactory;
 
+  private final Caches caches;
+
   /**
    * Create the Postgres factories.
    *
@@ -89,40 +95,43 @@ public class PostgresFactories implements FactoryGenerator {
     int machineId = machineConf.getInt("id");
 
     IdGenerator idGenerator = new IdGenerator(machineId, numMachines, false);
+    this.caches = Caches.fromConfiguration(configuration, numMachines);
 
     PostgresVersionSuccessorFactory versionSuccessorFactory =
         new PostgresVersionSuccessorFactory(this.postgresClient, idGenerator);
     PostgresVersionHistoryDagFactory versionHistoryDagFactory =
-        new PostgresVersionHistoryDagFactory(this.postgresClient, versionSuccessorFactory);
+        new PostgresVersionHistoryDagFactory(this.postgresClient, versionSuccessorFactory,
+        this.caches);
     PostgresTagFactory tagFactory = new PostgresTagFactory(this.postgresClient);
 
     this.structureFactory = new PostgresStructureFactory(this.postgresClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.structureVersionFactory = new PostgresStructureVersionFactory(this.postgresClient,
-        this.structureFactory, idGenerator);
+        this.structureFactory, idGenerator, this.caches);
     this.edgeFactory = new PostgresEdgeFactory(this.postgresClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.edgeVersionFactory = new PostgresEdgeVersionFactory(this.postgresClient, this.edgeFactory,
-        this.structureVersionFactory, tagFactory, idGenerator);
+        this.structureVersionFactory, tagFactory, idGenerator, this.caches);
     this.edgeFactory.setEdgeVersionFactory(this.edgeVersionFactory);
 
     this.graphFactory = new PostgresGraphFactory(this.postgresClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.graphVersionFactory = new PostgresGraphVersionFactory(this.postgresClient, this.graphFactory,
-        this.structureVersionFactory, tagFactory, idGenerator);
+        this.structureVersionFactory, tagFactory, idGenerator, this.caches);
     this.nodeFactory = new PostgresNodeFactory(this.postgresClient, versionHistoryDagFactory,
-        tagFactory, idGenerator);
+        tagFactory, idGenerator, this.caches);
     this.nodeVersionFactory = new PostgresNodeVersionFactory(this.postgresClient, this.nodeFactory,
-        this.structureVersionFactory, tagFactory, idGenerator);
+        this.structureVersionFactory, tagFactory, idGenerator, this.caches);
 
     this.lineageEdgeFactory = new PostgresLineageEdgeFactory(this.postgresClient,
-        versionHistoryDagFactory, tagFactory, idGenerator);
+        versionHistoryDagFactory, tagFactory, idGenerator, this.caches);
     this.lineageEdgeVersionFactory = new PostgresLineageEdgeVersionFactory(this.postgresClient,
-        this.lineageEdgeFactory, structureVersionFactory, tagFactory, idGenerator);
+        this.lineageEdgeFactory, structureVersionFactory, tagFactory, idGenerator, this.caches);
     this.lineageGraphFactory = new PostgresLineageGraphFactory(this.postgresClient,
-        versionHistoryDagFactory, tagFactory, idGenerator);
+        versionHistoryDagFactory, tagFactory, idGenerator, this.caches);
     this.lineageGraphVersionFactory = new PostgresLineageGraphVersionFactory(this.postgresClient,
-        this.lineageGraphFactory, this.structureVersionFactory, tagFactory, idGenerator);
+        this.lineageGraphFactory, this.structureVersionFactory, tagFactory, idGenerator,
+        this.caches);
   }
 
   @Override
@@ -185,6 +194,26 @@ public class PostgresFactories implements FactoryGenerator {
     return this.lineageGraphVersionFactory;
   }
 
+  @Override
+  public ItemCache getItemCache() {
+    return this.caches.getItemCache();
+  }
+
+  @Override
+  public StructureVersionCache getStructureVersionCache() {
+    return this.caches.getStructureVersionCache();
+  }
+
+  @Override
+  public VersionCache getVersionCache() {
+    return this.caches.getVersionCache();
+  }
+
+  @Override
+  public VersionHistoryDagCache getVersionHistoryDagCache() {
+    return this.caches.getVersionHistoryDagCache();
+  }
+
   @Override
   public DbClient getDbClient() {
     return this.postgresClient;
@@ -0,0 +1,57 @@
+'''
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+'''
+
+# Fills the lineage_edge_version_by_from table from lineage_edge_version, for lineage edge versions
+# written before the table existed. Downstream traversals only read the new table, so this must
+# be run once on an existing keyspace before the new version of the server is started. Rows are
+# written with the remaining ttl of the version they index, and writing a row twice is harmless,
+# so the script can be stopped and re-run at any point.
+#
+# usage: python backfill_lineage_downstream.py <host> <keyspace>
+
+import sys
+
+from cassandra.cluster import Cluster
+
+assert (len(sys.argv) == 3)
+host = sys.argv[1]
+keyspace = sys.argv[2]
+
+cluster = Cluster([host])
+session = cluster.connect(keyspace)
+
+select = ("SELECT id, from_rich_version_id, to_rich_version_id, TTL(to_rich_version_id) AS ttl "
+          "FROM lineage_edge_version")
+columns = "(from_rich_version_id, lineage_edge_version_id, to_rich_version_id)"
+insert = session.prepare("INSERT INTO lineage_edge_version_by_from " + columns
+                         + " VALUES (?, ?, ?)")
+insert_ttl = session.prepare("INSERT INTO lineage_edge_version_by_from " + columns
+                             + " VALUES (?, ?, ?) USING TTL ?")
+
+copied = 0
+for row in session.execute(select):
+    values = [row.from_rich_version_id, row.id, row.to_rich_version_id]
+
+    if row.ttl:
+        session.execute(insert_ttl, values + [row.ttl])
+    else:
+        session.execute(insert, values)
+
+    copied += 1
+    if copied % 10000 == 0:
+        print("Indexed " + str(copied) + " lineage edge versions.")
+
+print("Indexed " + str(copied) + " lineage edge versions.")
+
+cluster.shutdown()
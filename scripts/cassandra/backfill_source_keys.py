@@ -0,0 +1,59 @@
+'''
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+'''
+
+# Fills the *_by_source_key lookup tables from the item tables, for items created before the
+# lookup tables existed. Items are looked up by source key only through these tables, so this
+# must be run once on an existing keyspace before the new version of the server is started.
+# The rows are written with IF NOT EXISTS, so the script can be stopped and re-run at any point.
+#
+# usage: python backfill_source_keys.py <host> <keyspace>
+
+import sys
+
+from cassandra.cluster import Cluster
+
+assert (len(sys.argv) == 3)
+host = sys.argv[1]
+keyspace = sys.argv[2]
+
+# each item table, with the columns copied into its lookup table
+tables = {
+    "structure": ["item_id", "source_key", "name"],
+    "node": ["item_id", "source_key", "name"],
+    "edge": ["item_id", "source_key", "from_node_id", "to_node_id", "name"],
+    "graph": ["item_id", "source_key", "name"],
+    "lineage_edge": ["item_id", "source_key", "name"],
+    "lineage_graph": ["item_id", "source_key", "name"],
+}
+
+cluster = Cluster([host])
+session = cluster.connect(keyspace)
+
+for table, columns in tables.items():
+    select = "SELECT " + ", ".join(columns) + " FROM " + table
+    insert = session.prepare("INSERT INTO " + table + "_by_source_key (" + ", ".join(columns)
+                             + ") VALUES (" + ", ".join(["?"] * len(columns))
+                             + ") IF NOT EXISTS")
+
+    copied = 0
+    for row in session.execute(select):
+        session.execute(insert, [getattr(row, column) for column in columns])
+
+        copied += 1
+        if copied % 10000 == 0:
+            print("Copied " + str(copied) + " source keys from " + table + ".")
+
+    print("Copied " + str(copied) + " source keys from " + table + ".")
+
+cluster.shutdown()
@@ -0,0 +1,71 @@
+'''
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+'''
+
+# Fills the *_tag_by_key index tables from the tag tables, for tags written before the index
+# existed. Searches by tag key only read the index, so this must be run once on an existing
+# keyspace before the new version of the server is started. Rows are written with the remaining
+# ttl of the tag they index, and writing a row twice is harmless, so the script can be stopped
+# and re-run at any point.
+#
+# usage: python backfill_tag_keys.py <host> <keyspace>
+
+import sys
+
+from cassandra.cluster import Cluster
+
+assert (len(sys.argv) == 3)
+host = sys.argv[1]
+keyspace = sys.argv[2]
+
+# must match TAG_KEY_BUCKETS in CassandraTagFactory
+TAG_KEY_BUCKETS = 16
+
+
+def bucket_of(id):
+    # the same bucket as CassandraTagFactory.bucketOf, which hashes with Long.hashCode
+    unsigned = id & 0xFFFFFFFFFFFFFFFF
+    return ((unsigned ^ (unsigned >> 32)) & 0xFFFFFFFF) % TAG_KEY_BUCKETS
+
+
+cluster = Cluster([host])
+session = cluster.connect(keyspace)
+
+for prefix in ["item", "rich_version"]:
+    id_column = prefix + "_id"
+    select = ("SELECT " + id_column + ", key, TTL(value) AS value_ttl, TTL(type) AS type_ttl FROM "
+              + prefix + "_tag")
+    columns = "(key, bucket, " + id_column + ")"
+    insert = session.prepare("INSERT INTO " + prefix + "_tag_by_key " + columns
+                             + " VALUES (?, ?, ?)")
+    insert_ttl = session.prepare("INSERT INTO " + prefix + "_tag_by_key " + columns
+                                 + " VALUES (?, ?, ?) USING TTL ?")
+
+    copied = 0
+    for row in session.execute(select):
+        id = getattr(row, id_column)
+        values = [row.key, bucket_of(id), id]
+
+        ttl = row.value_ttl or row.type_ttl
+        if ttl:
+            session.execute(insert_ttl, values + [ttl])
+        else:
+            session.execute(insert, values)
+
+        copied += 1
+        if copied % 10000 == 0:
+            print("Indexed " + str(copied) + " tag keys from " + prefix + "_tag.")
+
+    print("Indexed " + str(copied) + " tag keys from " + prefix + "_tag.")
+
+cluster.shutdown()
@@ -0,0 +1,6 @@
+// Adds the GroundVertex label to vertices written before every vertex carried it. Run this
+// repeatedly until it reports that no labels were added; each run relabels at most 10000
+// vertices, so no single transaction grows too large.
+MATCH (n) WHERE NOT n:GroundVertex
+WITH n LIMIT 10000
+SET n:GroundVertex;
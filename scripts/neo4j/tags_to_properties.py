@@ -0,0 +1,99 @@
+'''
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+'''
+
+# Moves tags from tag vertices onto the item or version vertex they belong to, in the layout used
+# when db.neo4j.tagsAsProperties is set. The tags of at most batch_size vertices are moved by each
+# transaction, so the script can be stopped and re-run at any point.
+#
+# The vertices are looked up by the GroundVertex label, so on a database written before every
+# vertex carried that label, label_vertices.cypher must be run to completion first. The script
+# checks for unlabelled vertices and stops without changing anything if it finds any.
+#
+# usage: python tags_to_properties.py <host> <user> <password> [batch_size]
+
+import sys
+
+from neo4j.v1 import GraphDatabase, basic_auth
+
+assert (len(sys.argv) >= 4)
+host = sys.argv[1]
+user = sys.argv[2]
+password = sys.argv[3]
+
+batch_size = int(sys.argv[4]) if len(sys.argv) == 5 else 1000
+
+# the tag vertex labels, which are also the prefixes of the properties that replace them
+prefixes = ["ItemTag", "RichVersionTag"]
+
+
+def parse(value, value_type):
+    if value is None or value_type is None:
+        return None
+    elif value_type == "integer" or value_type == "long":
+        return int(value)
+    elif value_type == "boolean":
+        return value == "true"
+    else:
+        return value
+
+
+driver = GraphDatabase.driver("bolt://" + host, auth=basic_auth(user, password))
+session = driver.session()
+
+unlabelled = session.run("MATCH (n) WHERE NOT n:GroundVertex RETURN n.id AS id LIMIT 1")
+if list(unlabelled):
+    print("Some vertices have no GroundVertex label; run label_vertices.cypher first.")
+    session.close()
+    driver.close()
+    sys.exit(1)
+
+for prefix in prefixes:
+    select = ("MATCH (o:GroundVertex)-[:" + prefix + "Connection]->(t:" + prefix + ") "
+              "WITH DISTINCT o LIMIT $limit "
+              "MATCH (o)-[:" + prefix + "Connection]->(t:" + prefix + ") "
+              "RETURN o.id AS id, collect(t) AS tags")
+    update = ("MATCH (o:GroundVertex {id: $id}) "
+              "SET o += $properties "
+              "WITH o "
+              "MATCH (o)-[:" + prefix + "Connection]->(t:" + prefix + ") "
+              "DETACH DELETE t")
+
+    moved = 0
+    while True:
+        with session.begin_transaction() as tx:
+            records = list(tx.run(select, {"limit": batch_size}))
+
+            for record in records:
+                properties = {}
+
+                for tag in record["tags"]:
+                    key = tag["tkey"]
+                    value = parse(tag.get("value"), tag.get("type"))
+
+                    properties[prefix + "Type." + key] = tag.get("type") or ""
+                    if value is not None:
+                        properties[prefix + "." + key] = value
+
+                tx.run(update, {"id": record["id"], "properties": properties})
+
+            tx.success = True
+
+        if not records:
+            break
+
+        moved += len(records)
+        print("Moved the tags of " + str(moved) + " vertices from " + prefix + " vertices.")
+
+session.close()
+driver.close()
@@ -0,0 +1,78 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package controllers;
+
+import dao.usage.LineageEdgeVersionFactory;
+import db.DbClient;
+import exceptions.GroundException;
+import org.junit.Before;
+import org.junit.Test;
+import play.Configuration;
+import play.mvc.Result;
+import util.FactoryGenerator;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class LineageEdgeControllerTest {
+  private LineageEdgeVersionFactory lineageEdgeVersionFactory;
+  private LineageEdgeController controller;
+
+  @Before
+  public void setup() throws GroundException {
+    this.lineageEdgeVersionFactory = mock(LineageEdgeVersionFactory.class);
+
+    FactoryGenerator generator = mock(FactoryGenerator.class);
+    when(generator.getDbClient()).thenReturn(mock(DbClient.class));
+    when(generator.getLineageEdgeVersionFactory()).thenReturn(this.lineageEdgeVersionFactory);
+
+    Map<String, Object> lineageMap = new HashMap<>();
+    lineageMap.put("maxDownstreamDepth", 3);
+
+    Map<String, Object> confMap = new HashMap<>();
+    confMap.put("lineage", lineageMap);
+
+    this.controller = new LineageEdgeController(generator, new Configuration(confMap));
+  }
+
+  @Test
+  public void testDepthBelowOneIsRejected() throws GroundException {
+    assertEquals(400, this.controller.getDownstreamVersions(1L, 0).status());
+    assertEquals(400, this.controller.getDownstreamVersions(1L, -1).status());
+
+    verifyZeroInteractions(this.lineageEdgeVersionFactory);
+  }
+
+  @Test
+  public void testDepthAboveConfiguredMaximumIsRejected() throws GroundException {
+    assertEquals(400, this.controller.getDownstreamVersions(1L, 4).status());
+
+    verifyZeroInteractions(this.lineageEdgeVersionFactory);
+  }
+
+  @Test
+  public void testConfiguredMaximumDepthIsAccepted() throws GroundException {
+    when(this.lineageEdgeVersionFactory.getDownstreamVersions(1L, 3))
+        .thenReturn(Collections.singletonMap(2L, 1));
+
+    assertEquals(200, this.controller.getDownstreamVersions(1L, 3).status());
+
+    verify(this.lineageEdgeVersionFactory).getDownstreamVersions(1L, 3);
+  }
+}
@@ -30,6 +30,7 @@ import dao.versions.cassandra.CassandraVersionHistoryDagFactory;
 import dao.versions.cassandra.CassandraVersionSuccessorFactory;
 import db.CassandraClient;
 import exceptions.GroundDbException;
+import util.Caches;
 import util.CassandraFactories;
 import util.IdGenerator;
 
@@ -56,10 +57,10 @@ public class CassandraTest extends DaoTest {
     runScript(CREATE_SCHEMA_SCRIPT);
 
     versionSuccessorFactory = new CassandraVersionSuccessorFactory(cassandraClient,
-        new IdGenerator(0, 1, false));
-    versionHistoryDAGFactory = new CassandraVersionHistoryDagFactory(cassandraClient,
-        versionSuccessorFactory);
+        new IdGenerator(0, 1, false), Caches.disabled());
     tagFactory = new CassandraTagFactory(cassandraClient);
+    versionHistoryDAGFactory = new CassandraVersionHistoryDagFactory(cassandraClient,
+        versionSuccessorFactory, tagFactory, Caches.disabled());
 
     edgeFactory = factories.getEdgeFactory();
     graphFactory = factories.getGraphFactory();
@@ -79,6 +80,8 @@ public class CassandraTest extends DaoTest {
   @Before
   public void setupTest() {
     runScript(TRUNCATE_SCRIPT);
+    versionSuccessorFactory.forgetAllVersions();
+    factories.getVersionSuccessorFactory().forgetAllVersions();
   }
 
   public static CassandraStructureVersionFactory getStructureVersionFactory() {
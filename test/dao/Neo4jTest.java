@@ -30,6 +30,7 @@ import dao.models.neo4j.Neo4jTagFactory;
 import dao.versions.neo4j.Neo4jVersionHistoryDagFactory;
 import dao.versions.neo4j.Neo4jVersionSuccessorFactory;
 import db.Neo4jClient;
+import util.Caches;
 import util.IdGenerator;
 import util.Neo4jFactories;
 
@@ -51,7 +52,8 @@ public class Neo4jTest extends DaoTest {
     neo4jClient = (Neo4jClient) factories.getDbClient();
 
     versionSuccessorFactory = new Neo4jVersionSuccessorFactory(neo4jClient, new IdGenerator(0, 1, true));
-    versionHistoryDAGFactory = new Neo4jVersionHistoryDagFactory(neo4jClient, versionSuccessorFactory);
+    versionHistoryDAGFactory = new Neo4jVersionHistoryDagFactory(neo4jClient, versionSuccessorFactory,
+        Caches.disabled());
     tagFactory = new Neo4jTagFactory(neo4jClient);
 
 
@@ -75,7 +77,7 @@ public class Neo4jTest extends DaoTest {
   }
 
   @AfterClass
-  public static void teardownClass() {
+  public static void teardownClass() throws GroundException {
     neo4jClient.close();
   }
 
@@ -32,6 +32,7 @@ import dao.versions.postgres.PostgresVersionHistoryDagFactory;
 import dao.versions.postgres.PostgresVersionSuccessorFactory;
 import db.PostgresClient;
 import exceptions.GroundDbException;
+import util.Caches;
 import util.IdGenerator;
 import util.PostgresFactories;
 
@@ -51,7 +52,8 @@ public class PostgresTest extends DaoTest {
     postgresClient = (PostgresClient) factories.getDbClient();
 
     versionSuccessorFactory = new PostgresVersionSuccessorFactory(postgresClient, new IdGenerator(0, 1, false));
-    versionHistoryDAGFactory = new PostgresVersionHistoryDagFactory(postgresClient, versionSuccessorFactory);
+    versionHistoryDAGFactory = new PostgresVersionHistoryDagFactory(postgresClient, versionSuccessorFactory,
+        Caches.disabled());
     tagFactory = new PostgresTagFactory(postgresClient);
 
     edgeFactory = factories.getEdgeFactory();
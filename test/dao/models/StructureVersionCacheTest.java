@@ -0,0 +1,106 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dao.models;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dao.versions.TestDbClient;
+import dao.versions.VersionCache;
+import exceptions.GroundDbException;
+import models.models.StructureVersion;
+import models.models.Tag;
+import models.versions.GroundType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class StructureVersionCacheTest {
+  private final TestDbClient dbClient = new TestDbClient();
+
+  @Test
+  public void testValidatorIsReused() throws Exception {
+    StructureVersionCache cache = new StructureVersionCache(10);
+    AtomicInteger loads = new AtomicInteger();
+    VersionCache.Loader<StructureVersion> loader = id -> {
+      loads.incrementAndGet();
+      return new StructureVersion(id, 2, new HashMap<>());
+    };
+
+    StructureVersionValidator validator = cache.get(1, loader, this.dbClient);
+    this.dbClient.commit();
+
+    assertSame(validator, cache.get(1, loader, this.dbClient));
+    assertEquals(1, loads.get());
+
+    cache.invalidate(1);
+    cache.get(1, loader, this.dbClient);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  public void testAbortedLoadIsNotCached() throws Exception {
+    StructureVersionCache cache = new StructureVersionCache(10);
+    cache.get(1, id -> new StructureVersion(id, 2, new HashMap<>()), this.dbClient);
+    this.dbClient.abort();
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testValidTags() throws Exception {
+    Map<String, Tag> tags = new HashMap<>();
+    tags.put("count", new Tag(3, "count", 1, GroundType.INTEGER));
+    tags.put("other", new Tag(3, "other", null, null));
+
+    // throws if any required tag is missing or has the wrong type
+    StructureVersionCacheTest.createValidator().validate(tags);
+  }
+
+  @Test(expected = GroundDbException.class)
+  public void testMissingTag() throws Exception {
+    Map<String, Tag> tags = new HashMap<>();
+    tags.put("other", new Tag(3, "other", 1, GroundType.INTEGER));
+
+    StructureVersionCacheTest.createValidator().validate(tags);
+  }
+
+  @Test(expected = GroundDbException.class)
+  public void testTagWithoutValue() throws Exception {
+    Map<String, Tag> tags = new HashMap<>();
+    tags.put("count", new Tag(3, "count", null, null));
+
+    StructureVersionCacheTest.createValidator().validate(tags);
+  }
+
+  @Test(expected = GroundDbException.class)
+  public void testTagWithWrongType() throws Exception {
+    Map<String, Tag> tags = new HashMap<>();
+    tags.put("count", new Tag(3, "count", "one", GroundType.STRING));
+
+    StructureVersionCacheTest.createValidator().validate(tags);
+  }
+
+  private static StructureVersionValidator createValidator() {
+    Map<String, GroundType> attributes = new HashMap<>();
+    attributes.put("count", GroundType.INTEGER);
+
+    return new StructureVersionValidator(new StructureVersion(1, 2, attributes));
+  }
+}
@@ -18,10 +18,13 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import dao.CassandraTest;
+import db.CassandraPage;
 import models.models.Tag;
 import models.versions.GroundType;
 import exceptions.GroundException;
@@ -69,4 +72,80 @@ public class CassandraTagFactoryTest extends CassandraTest {
     assertTrue(ids.contains(nodeVersionId1));
     assertTrue(ids.contains(nodeVersionId2));
   }
+
+  @Test
+  public void testGetItemIdsByTagPaged() throws GroundException {
+    Map<String, Tag> tagsMap = new HashMap<>();
+    tagsMap.put("testtag", new Tag(1, "testtag", "tag", GroundType.STRING));
+
+    List<Long> nodeIds = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      nodeIds.add(CassandraTest.nodeFactory.create(null, "test" + i, tagsMap).getId());
+    }
+
+    List<Long> ids = new ArrayList<>();
+    String pagingState = null;
+    do {
+      CassandraPage<Long> page = CassandraTest.tagFactory.getItemIdsByTag("testtag", 2,
+          pagingState);
+
+      assertTrue(page.getValues().size() <= 2);
+      ids.addAll(page.getValues());
+      pagingState = page.getPagingState();
+    } while (pagingState != null);
+
+    assertEquals(nodeIds.size(), ids.size());
+    assertTrue(ids.containsAll(nodeIds));
+  }
+
+  @Test
+  public void testGetItemIdsByTagResumesAtBucketBoundary() throws GroundException {
+    Map<String, Tag> tagsMap = new HashMap<>();
+    tagsMap.put("testtag", new Tag(1, "testtag", "tag", GroundType.STRING));
+
+    List<Long> nodeIds = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      nodeIds.add(CassandraTest.nodeFactory.create(null, "test" + i, tagsMap).getId());
+    }
+
+    // a page that ends with a bucket resumes at the start of the next one
+    for (int bucket = 0; bucket < CassandraTagFactory.TAG_KEY_BUCKETS; bucket++) {
+      CassandraPage<Long> page = CassandraTest.tagFactory.getItemIdsByTag("testtag",
+          nodeIds.size(), Integer.toString(bucket));
+
+      Set<Long> expected = new HashSet<>();
+      for (long id : nodeIds) {
+        if (CassandraTagFactory.bucketOf(id) >= bucket) {
+          expected.add(id);
+        }
+      }
+
+      assertEquals(expected, new HashSet<>(page.getValues()));
+      assertNull(page.getPagingState());
+    }
+  }
+
+  @Test
+  public void testGetItemIdsByTagRejectsInvalidPages() throws GroundException {
+    String[] pagingStates = {"-1", Integer.toString(CassandraTagFactory.TAG_KEY_BUCKETS),
+        "notABucket"};
+
+    for (String pagingState : pagingStates) {
+      try {
+        CassandraTest.tagFactory.getItemIdsByTag("testtag", 2, pagingState);
+        fail("Paging state " + pagingState + " was accepted.");
+      } catch (GroundException e) {
+        assertEquals("Invalid paging state " + pagingState + ".", e.getMessage());
+      }
+    }
+
+    for (int pageSize : new int[] {0, -1}) {
+      try {
+        CassandraTest.tagFactory.getItemIdsByTag("testtag", pageSize, null);
+        fail("Page size " + pageSize + " was accepted.");
+      } catch (GroundException e) {
+        assertEquals("Invalid page size " + pageSize + ".", e.getMessage());
+      }
+    }
+  }
 }
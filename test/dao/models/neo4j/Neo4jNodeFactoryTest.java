@@ -186,6 +186,29 @@ public class Neo4jNodeFactoryTest extends Neo4jTest {
     }
   }
 
+  @Test
+  public void testTruncationDeletesTags() throws GroundException {
+    try {
+      long nodeId = Neo4jTest.createNode("testNode").getId();
+      long firstNodeVersionId = Neo4jTest.nodeVersionFactory.create(Neo4jTest.createTags(), -1,
+          null, new HashMap<>(), nodeId, new ArrayList<>()).getId();
+
+      List<Long> parents = new ArrayList<>();
+      parents.add(firstNodeVersionId);
+      long newNodeVersionId = Neo4jTest.nodeVersionFactory.create(Neo4jTest.createTags(), -1,
+          null, new HashMap<>(), nodeId, parents).getId();
+
+      Neo4jTest.nodeFactory.truncate(nodeId, 1);
+
+      List<Long> taggedIds = Neo4jTest.tagFactory.getVersionIdsByTag("intfield");
+
+      assertEquals(1, taggedIds.size());
+      assertEquals(newNodeVersionId, (long) taggedIds.get(0));
+    } finally {
+      Neo4jTest.neo4jClient.commit();
+    }
+  }
+
   @Test
   public void testBranchTruncation() throws GroundException {
     try {
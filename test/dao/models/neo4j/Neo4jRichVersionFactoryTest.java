@@ -26,6 +26,7 @@ import models.models.RichVersion;
 import models.models.Tag;
 import models.versions.GroundType;
 import exceptions.GroundException;
+import util.Caches;
 
 import static org.junit.Assert.*;
 
@@ -38,14 +39,14 @@ public class Neo4jRichVersionFactoryTest extends Neo4jTest {
                                        Neo4jStructureVersionFactory structureVersionFactory,
                                        Neo4jTagFactory tagFactory) {
 
-      super(neo4jClient, structureVersionFactory, tagFactory);
+      super(neo4jClient, structureVersionFactory, tagFactory, Caches.disabled());
     }
 
     public Class<RichVersion> getType() {
       return RichVersion.class;
     }
 
-    public RichVersion retrieveFromDatabase(long id) throws GroundException {
+    protected RichVersion loadFromDatabase(long id) throws GroundException {
       throw new GroundException("This operation should never be called.");
     }
   }
@@ -25,6 +25,8 @@ import dao.Neo4jTest;
 import models.models.Tag;
 import models.versions.GroundType;
 import exceptions.GroundException;
+import util.Caches;
+import util.IdGenerator;
 
 import static org.junit.Assert.*;
 
@@ -77,4 +79,40 @@ public class Neo4jTagFactoryTest extends Neo4jTest {
       Neo4jTest.neo4jClient.commit();
     }
   }
+
+  @Test
+  public void testTagsAsProperties() throws GroundException {
+    try {
+      Neo4jTagFactory propertyTagFactory = new Neo4jTagFactory(Neo4jTest.neo4jClient, true);
+      IdGenerator idGenerator = new IdGenerator(0, 1, true);
+
+      Neo4jNodeFactory propertyNodeFactory = new Neo4jNodeFactory(Neo4jTest.neo4jClient,
+          Neo4jTest.versionHistoryDAGFactory, propertyTagFactory, idGenerator, Caches.disabled());
+      Neo4jNodeVersionFactory propertyNodeVersionFactory = new Neo4jNodeVersionFactory(
+          Neo4jTest.neo4jClient, propertyNodeFactory, Neo4jTest.getStructureVersionFactory(),
+          propertyTagFactory, idGenerator, Caches.disabled());
+
+      Map<String, Tag> tagsMap = Neo4jTest.createTags();
+      tagsMap.put("nullfield", new Tag(-1, "nullfield", null, null));
+      tagsMap.put("longfield", new Tag(-1, "longfield", 1L, GroundType.LONG));
+
+      long nodeId = propertyNodeFactory.create(null, "test", tagsMap).getId();
+      long nodeVersionId = propertyNodeVersionFactory.create(tagsMap, -1, null, new HashMap<>(),
+          nodeId, new ArrayList<>()).getId();
+
+      assertEquals(tagsMap, propertyNodeFactory.retrieveFromDatabase("test").getTags());
+      assertEquals(tagsMap, propertyNodeVersionFactory.retrieveFromDatabase(nodeVersionId)
+          .getTags());
+
+      List<Long> itemIds = propertyTagFactory.getItemIdsByTag("nullfield");
+      List<Long> versionIds = propertyTagFactory.getVersionIdsByTag("nullfield");
+
+      assertEquals(1, itemIds.size());
+      assertEquals(nodeId, (long) itemIds.get(0));
+      assertEquals(1, versionIds.size());
+      assertEquals(nodeVersionId, (long) versionIds.get(0));
+    } finally {
+      Neo4jTest.neo4jClient.commit();
+    }
+  }
 }
@@ -26,6 +26,7 @@ import models.models.RichVersion;
 import models.models.Tag;
 import models.versions.GroundType;
 import exceptions.GroundException;
+import util.Caches;
 
 import static org.junit.Assert.*;
 
@@ -39,14 +40,14 @@ public class PostgresRichVersionFactoryTest extends PostgresTest {
         PostgresStructureVersionFactory structureVersionFactory,
         PostgresTagFactory tagFactory) {
 
-      super(postgresClient, structureVersionFactory, tagFactory);
+      super(postgresClient, structureVersionFactory, tagFactory, Caches.disabled());
     }
 
     public Class<RichVersion> getType() {
       return RichVersion.class;
     }
 
-    public RichVersion retrieveFromDatabase(long id) throws GroundException {
+    protected RichVersion loadFromDatabase(long id) throws GroundException {
       throw new GroundException("This operation should never be called.");
     }
   }
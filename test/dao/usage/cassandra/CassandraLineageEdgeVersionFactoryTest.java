@@ -100,4 +100,72 @@ public class CassandraLineageEdgeVersionFactoryTest extends CassandraTest {
       throw e;
     }
   }
+
+  @Test
+  public void testDownstreamVersions() throws GroundException {
+    long firstNodeVersionId = CassandraTest.createNodeVersion(
+        CassandraTest.createNode("firstTestNode").getId()).getId();
+    long secondNodeVersionId = CassandraTest.createNodeVersion(
+        CassandraTest.createNode("secondTestNode").getId()).getId();
+    long thirdNodeVersionId = CassandraTest.createNodeVersion(
+        CassandraTest.createNode("thirdTestNode").getId()).getId();
+
+    long lineageEdgeId = CassandraTest.createLineageEdge("testLineageEdge").getId();
+
+    CassandraTest.lineageEdgeVersionFactory.create(new HashMap<>(), -1, null, new HashMap<>(),
+        firstNodeVersionId, secondNodeVersionId, lineageEdgeId, new ArrayList<>());
+    CassandraTest.lineageEdgeVersionFactory.create(new HashMap<>(), -1, null, new HashMap<>(),
+        secondNodeVersionId, thirdNodeVersionId, lineageEdgeId, new ArrayList<>());
+
+    Map<Long, Integer> downstream = CassandraTest.lineageEdgeVersionFactory
+        .getDownstreamVersions(firstNodeVersionId, 2);
+
+    assertEquals(2, downstream.size());
+    assertEquals(1, (int) downstream.get(secondNodeVersionId));
+    assertEquals(2, (int) downstream.get(thirdNodeVersionId));
+
+    downstream = CassandraTest.lineageEdgeVersionFactory.getDownstreamVersions(firstNodeVersionId,
+        1);
+
+    assertEquals(1, downstream.size());
+    assertEquals(1, (int) downstream.get(secondNodeVersionId));
+  }
+
+  @Test
+  public void testDownstreamVersionsFollowShortestPaths() throws GroundException {
+    long firstNodeVersionId = CassandraTest.createNodeVersion(
+        CassandraTest.createNode("firstTestNode").getId()).getId();
+    long secondNodeVersionId = CassandraTest.createNodeVersion(
+        CassandraTest.createNode("secondTestNode").getId()).getId();
+    long thirdNodeVersionId = CassandraTest.createNodeVersion(
+        CassandraTest.createNode("thirdTestNode").getId()).getId();
+    long fourthNodeVersionId = CassandraTest.createNodeVersion(
+        CassandraTest.createNode("fourthTestNode").getId()).getId();
+
+    long lineageEdgeId = CassandraTest.createLineageEdge("testLineageEdge").getId();
+
+    // first -> second -> third -> fourth -> first, with a shortcut from first to third
+    long[][] edges = {{firstNodeVersionId, secondNodeVersionId},
+        {secondNodeVersionId, thirdNodeVersionId}, {firstNodeVersionId, thirdNodeVersionId},
+        {thirdNodeVersionId, fourthNodeVersionId}, {fourthNodeVersionId, firstNodeVersionId}};
+    for (long[] edge : edges) {
+      CassandraTest.lineageEdgeVersionFactory.create(new HashMap<>(), -1, null, new HashMap<>(),
+          edge[0], edge[1], lineageEdgeId, new ArrayList<>());
+    }
+
+    Map<Long, Integer> downstream = CassandraTest.lineageEdgeVersionFactory
+        .getDownstreamVersions(firstNodeVersionId, 1);
+
+    assertEquals(2, downstream.size());
+    assertEquals(1, (int) downstream.get(secondNodeVersionId));
+    assertEquals(1, (int) downstream.get(thirdNodeVersionId));
+
+    downstream = CassandraTest.lineageEdgeVersionFactory.getDownstreamVersions(firstNodeVersionId,
+        5);
+
+    assertEquals(3, downstream.size());
+    assertEquals(1, (int) downstream.get(thirdNodeVersionId));
+    assertEquals(2, (int) downstream.get(fourthNodeVersionId));
+    assertFalse(downstream.containsKey(firstNodeVersionId));
+  }
 }
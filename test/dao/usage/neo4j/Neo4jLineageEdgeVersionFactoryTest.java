@@ -92,4 +92,80 @@ public class Neo4jLineageEdgeVersionFactoryTest extends Neo4jTest {
       Neo4jTest.neo4jClient.commit();
     }
   }
+
+  @Test
+  public void testDownstreamVersions() throws GroundException {
+    try {
+      long firstNodeVersionId = Neo4jTest.createNodeVersion(
+          Neo4jTest.createNode("firstTestNode").getId()).getId();
+      long secondNodeVersionId = Neo4jTest.createNodeVersion(
+          Neo4jTest.createNode("secondTestNode").getId()).getId();
+      long thirdNodeVersionId = Neo4jTest.createNodeVersion(
+          Neo4jTest.createNode("thirdTestNode").getId()).getId();
+
+      long lineageEdgeId = Neo4jTest.createLineageEdge("testLineageEdge").getId();
+
+      Neo4jTest.lineageEdgeVersionFactory.create(new HashMap<>(), -1, null, new HashMap<>(),
+          firstNodeVersionId, secondNodeVersionId, lineageEdgeId, new ArrayList<>());
+      Neo4jTest.lineageEdgeVersionFactory.create(new HashMap<>(), -1, null, new HashMap<>(),
+          secondNodeVersionId, thirdNodeVersionId, lineageEdgeId, new ArrayList<>());
+
+      Map<Long, Integer> downstream = Neo4jTest.lineageEdgeVersionFactory
+          .getDownstreamVersions(firstNodeVersionId, 2);
+
+      assertEquals(2, downstream.size());
+      assertEquals(1, (int) downstream.get(secondNodeVersionId));
+      assertEquals(2, (int) downstream.get(thirdNodeVersionId));
+
+      downstream = Neo4jTest.lineageEdgeVersionFactory.getDownstreamVersions(firstNodeVersionId,
+          1);
+
+      assertEquals(1, downstream.size());
+      assertEquals(1, (int) downstream.get(secondNodeVersionId));
+    } finally {
+      Neo4jTest.neo4jClient.commit();
+    }
+  }
+
+  @Test
+  public void testDownstreamVersionsFollowShortestPaths() throws GroundException {
+    try {
+      long firstNodeVersionId = Neo4jTest.createNodeVersion(
+          Neo4jTest.createNode("firstTestNode").getId()).getId();
+      long secondNodeVersionId = Neo4jTest.createNodeVersion(
+          Neo4jTest.createNode("secondTestNode").getId()).getId();
+      long thirdNodeVersionId = Neo4jTest.createNodeVersion(
+          Neo4jTest.createNode("thirdTestNode").getId()).getId();
+      long fourthNodeVersionId = Neo4jTest.createNodeVersion(
+          Neo4jTest.createNode("fourthTestNode").getId()).getId();
+
+      long lineageEdgeId = Neo4jTest.createLineageEdge("testLineageEdge").getId();
+
+      // first -> second -> third -> fourth -> first, with a shortcut from first to third
+      long[][] edges = {{firstNodeVersionId, secondNodeVersionId},
+          {secondNodeVersionId, thirdNodeVersionId}, {firstNodeVersionId, thirdNodeVersionId},
+          {thirdNodeVersionId, fourthNodeVersionId}, {fourthNodeVersionId, firstNodeVersionId}};
+      for (long[] edge : edges) {
+        Neo4jTest.lineageEdgeVersionFactory.create(new HashMap<>(), -1, null, new HashMap<>(),
+            edge[0], edge[1], lineageEdgeId, new ArrayList<>());
+      }
+
+      Map<Long, Integer> downstream = Neo4jTest.lineageEdgeVersionFactory
+          .getDownstreamVersions(firstNodeVersionId, 1);
+
+      assertEquals(2, downstream.size());
+      assertEquals(1, (int) downstream.get(secondNodeVersionId));
+      assertEquals(1, (int) downstream.get(thirdNodeVersionId));
+
+      downstream = Neo4jTest.lineageEdgeVersionFactory.getDownstreamVersions(firstNodeVersionId,
+          5);
+
+      assertEquals(3, downstream.size());
+      assertEquals(1, (int) downstream.get(thirdNodeVersionId));
+      assertEquals(2, (int) downstream.get(fourthNodeVersionId));
+      assertFalse(downstream.containsKey(firstNodeVersionId));
+    } finally {
+      Neo4jTest.neo4jClient.commit();
+    }
+  }
 }
@@ -93,4 +93,79 @@ public class PostgresLineageEdgeVersionFactoryTest extends PostgresTest {
     }
   }
 
+  @Test
+  public void testDownstreamVersions() throws GroundException {
+    try {
+      long firstNodeVersionId = PostgresTest.createNodeVersion(
+          PostgresTest.createNode("firstTestNode").getId()).getId();
+      long secondNodeVersionId = PostgresTest.createNodeVersion(
+          PostgresTest.createNode("secondTestNode").getId()).getId();
+      long thirdNodeVersionId = PostgresTest.createNodeVersion(
+          PostgresTest.createNode("thirdTestNode").getId()).getId();
+
+      long lineageEdgeId = PostgresTest.createLineageEdge("testLineageEdge").getId();
+
+      PostgresTest.lineageEdgeVersionFactory.create(new HashMap<>(), -1, null, new HashMap<>(),
+          firstNodeVersionId, secondNodeVersionId, lineageEdgeId, new ArrayList<>());
+      PostgresTest.lineageEdgeVersionFactory.create(new HashMap<>(), -1, null, new HashMap<>(),
+          secondNodeVersionId, thirdNodeVersionId, lineageEdgeId, new ArrayList<>());
+
+      Map<Long, Integer> downstream = PostgresTest.lineageEdgeVersionFactory
+          .getDownstreamVersions(firstNodeVersionId, 2);
+
+      assertEquals(2, downstream.size());
+      assertEquals(1, (int) downstream.get(secondNodeVersionId));
+      assertEquals(2, (int) downstream.get(thirdNodeVersionId));
+
+      downstream = PostgresTest.lineageEdgeVersionFactory.getDownstreamVersions(firstNodeVersionId,
+          1);
+
+      assertEquals(1, downstream.size());
+      assertEquals(1, (int) downstream.get(secondNodeVersionId));
+    } finally {
+      PostgresTest.postgresClient.commit();
+    }
+  }
+
+  @Test
+  public void testDownstreamVersionsFollowShortestPaths() throws GroundException {
+    try {
+      long firstNodeVersionId = PostgresTest.createNodeVersion(
+          PostgresTest.createNode("firstTestNode").getId()).getId();
+      long secondNodeVersionId = PostgresTest.createNodeVersion(
+          PostgresTest.createNode("secondTestNode").getId()).getId();
+      long thirdNodeVersionId = PostgresTest.createNodeVersion(
+          PostgresTest.createNode("thirdTestNode").getId()).getId();
+      long fourthNodeVersionId = PostgresTest.createNodeVersion(
+          PostgresTest.createNode("fourthTestNode").getId()).getId();
+
+      long lineageEdgeId = PostgresTest.createLineageEdge("testLineageEdge").getId();
+
+      // first -> second -> third -> fourth -> first, with a shortcut from first to third
+      long[][] edges = {{firstNodeVersionId, secondNodeVersionId},
+          {secondNodeVersionId, thirdNodeVersionId}, {firstNodeVersionId, thirdNodeVersionId},
+          {thirdNodeVersionId, fourthNodeVersionId}, {fourthNodeVersionId, firstNodeVersionId}};
+      for (long[] edge : edges) {
+        PostgresTest.lineageEdgeVersionFactory.create(new HashMap<>(), -1, null, new HashMap<>(),
+            edge[0], edge[1], lineageEdgeId, new ArrayList<>());
+      }
+
+      Map<Long, Integer> downstream = PostgresTest.lineageEdgeVersionFactory
+          .getDownstreamVersions(firstNodeVersionId, 1);
+
+      assertEquals(2, downstream.size());
+      assertEquals(1, (int) downstream.get(secondNodeVersionId));
+      assertEquals(1, (int) downstream.get(thirdNodeVersionId));
+
+      downstream = PostgresTest.lineageEdgeVersionFactory.getDownstreamVersions(firstNodeVersionId,
+          5);
+
+      assertEquals(3, downstream.size());
+      assertEquals(1, (int) downstream.get(thirdNodeVersionId));
+      assertEquals(2, (int) downstream.get(fourthNodeVersionId));
+      assertFalse(downstream.containsKey(firstNodeVersionId));
+    } finally {
+      PostgresTest.postgresClient.commit();
+    }
+  }
 }
@@ -0,0 +1,74 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dao.versions;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import models.models.Node;
+import models.models.Structure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ItemCacheTest {
+  private final TestDbClient dbClient = new TestDbClient();
+
+  @Test
+  public void testCreatedItemIsNotReloaded() throws Exception {
+    ItemCache cache = new ItemCache(10);
+    Node node = new Node(1, "test", "testKey", new HashMap<>());
+    cache.put(Node.class, "testKey", node, this.dbClient);
+    this.dbClient.commit();
+
+    AtomicInteger loads = new AtomicInteger();
+    Node retrieved = cache.get(Node.class, "testKey", sourceKey -> {
+      loads.incrementAndGet();
+      return null;
+    }, this.dbClient);
+
+    assertSame(node, retrieved);
+    assertEquals(0, loads.get());
+    assertEquals(1, cache.getStats().hitCount());
+  }
+
+  @Test
+  public void testSourceKeysAreScopedByType() throws Exception {
+    ItemCache cache = new ItemCache(10);
+    cache.put(Node.class, "testKey", new Node(1, "test", "testKey", new HashMap<>()),
+        this.dbClient);
+
+    Structure structure = new Structure(2, "test", "testKey", new HashMap<>());
+    Structure retrieved = cache.get(Structure.class, "testKey", sourceKey -> structure,
+        this.dbClient);
+    this.dbClient.commit();
+
+    assertSame(structure, retrieved);
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testAbortedCreationIsNotCached() throws Exception {
+    ItemCache cache = new ItemCache(10);
+    cache.put(Node.class, "testKey", new Node(1, "test", "testKey", new HashMap<>()),
+        this.dbClient);
+    assertEquals(0, cache.size());
+
+    this.dbClient.abort();
+    assertEquals(0, cache.size());
+  }
+}
@@ -0,0 +1,55 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dao.versions;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KnownVersionCacheTest {
+  private final TestDbClient dbClient = new TestDbClient();
+
+  @Test
+  public void testVersionIsKnownOnceCommitted() throws Exception {
+    KnownVersionCache cache = new KnownVersionCache(10);
+    cache.add(1, this.dbClient);
+    assertFalse(cache.contains(1));
+
+    this.dbClient.commit();
+    assertTrue(cache.contains(1));
+
+    cache.forget(1);
+    assertFalse(cache.contains(1));
+  }
+
+  @Test
+  public void testAbortedVersionIsNotKnown() throws Exception {
+    KnownVersionCache cache = new KnownVersionCache(10);
+    cache.add(1, this.dbClient);
+
+    this.dbClient.abort();
+    assertFalse(cache.contains(1));
+  }
+
+  @Test
+  public void testDisabledCacheKnowsNothing() throws Exception {
+    KnownVersionCache cache = new KnownVersionCache(0);
+    cache.add(1, this.dbClient);
+
+    this.dbClient.commit();
+    assertFalse(cache.contains(1));
+  }
+}
@@ -0,0 +1,36 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dao.versions;
+
+import db.DbClient;
+
+/**
+ * A client without a database. Committing or aborting only runs the actions that were registered
+ * with the unit of work.
+ */
+public class TestDbClient extends DbClient {
+  @Override
+  public void commit() {
+    this.finishUnitOfWork(true);
+  }
+
+  @Override
+  public void abort() {
+    this.finishUnitOfWork(false);
+  }
+
+  @Override
+  public void close() {}
+}
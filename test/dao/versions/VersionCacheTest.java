@@ -0,0 +1,155 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dao.versions;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import models.models.NodeVersion;
+import models.models.StructureVersion;
+import models.versions.Version;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class VersionCacheTest {
+  private final TestDbClient dbClient = new TestDbClient();
+
+  @Test
+  public void testRepeatedReadsHitCache() throws Exception {
+    VersionCache cache = new VersionCache(100);
+    AtomicInteger loads = new AtomicInteger();
+    NodeVersion version = new NodeVersion(1, new HashMap<>(), -1, null, new HashMap<>(), 2);
+
+    for (int i = 0; i < 3; i++) {
+      assertSame(version, cache.get(1, NodeVersion.class, id -> {
+        loads.incrementAndGet();
+        return version;
+      }, this.dbClient));
+      this.dbClient.commit();
+    }
+
+    assertEquals(1, loads.get());
+    assertEquals(2, cache.getStats().hitCount());
+    assertEquals(1, cache.getStats().missCount());
+  }
+
+  @Test
+  public void testInvalidateReloads() throws Exception {
+    VersionCache cache = new VersionCache(100);
+    AtomicInteger loads = new AtomicInteger();
+    VersionCache.Loader<Version> loader = id -> {
+      loads.incrementAndGet();
+      return new Version(id);
+    };
+
+    cache.get(1, Version.class, loader, this.dbClient);
+    this.dbClient.commit();
+    cache.invalidate(1);
+    cache.get(1, Version.class, loader, this.dbClient);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  public void testOtherTypeIsNotReturned() throws Exception {
+    VersionCache cache = new VersionCache(100);
+    cache.get(1, NodeVersion.class,
+        id -> new NodeVersion(id, new HashMap<>(), -1, null, new HashMap<>(), 2), this.dbClient);
+    this.dbClient.commit();
+
+    AtomicInteger loads = new AtomicInteger();
+    cache.get(1, StructureVersion.class, id -> {
+      loads.incrementAndGet();
+      return new StructureVersion(id, 3, new HashMap<>());
+    }, this.dbClient);
+
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void testZeroWeightDisablesCache() throws Exception {
+    VersionCache cache = new VersionCache(0);
+    AtomicInteger loads = new AtomicInteger();
+    VersionCache.Loader<Version> loader = id -> {
+      loads.incrementAndGet();
+      return new Version(id);
+    };
+
+    cache.get(1, Version.class, loader, this.dbClient);
+    this.dbClient.commit();
+    cache.get(1, Version.class, loader, this.dbClient);
+    this.dbClient.commit();
+
+    assertEquals(2, loads.get());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testLoadIsOnlyCachedOnCommit() throws Exception {
+    VersionCache cache = new VersionCache(100);
+    VersionCache.Loader<Version> loader = Version::new;
+
+    cache.get(1, Version.class, loader, this.dbClient);
+    assertEquals(0, cache.size());
+
+    this.dbClient.abort();
+    assertEquals(0, cache.size());
+
+    cache.get(1, Version.class, loader, this.dbClient);
+    this.dbClient.commit();
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testInvalidateDiscardsLoadInProgress() throws Exception {
+    VersionCache cache = new VersionCache(100);
+
+    cache.get(1, Version.class, Version::new, this.dbClient);
+    cache.invalidate(1);
+    this.dbClient.commit();
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testInvalidateOfAnotherVersionKeepsLoadInProgress() throws Exception {
+    VersionCache cache = new VersionCache(100);
+
+    cache.get(1, Version.class, Version::new, this.dbClient);
+    cache.invalidate(2);
+    this.dbClient.commit();
+
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testInvalidateWithUnitOfWorkEvictsAgainOnCommit() throws Exception {
+    VersionCache cache = new VersionCache(100);
+    TestDbClient writer = new TestDbClient();
+
+    cache.invalidate(1, writer);
+
+    // a reader that commits before the writer caches the old version
+    cache.get(1, Version.class, Version::new, this.dbClient);
+    this.dbClient.commit();
+    assertEquals(1, cache.size());
+
+    writer.commit();
+    assertEquals(0, cache.size());
+  }
+}
@@ -0,0 +1,171 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dao.versions;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import models.versions.Version;
+import models.versions.VersionHistoryDag;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class VersionHistoryDagCacheTest {
+  private final TestDbClient dbClient = new TestDbClient();
+
+  @Test
+  public void testCommittedEdgesAreAppliedToCachedDag() throws Exception {
+    VersionHistoryDagCache cache = new VersionHistoryDagCache(100);
+    AtomicInteger loads = new AtomicInteger();
+    VersionHistoryDagCache.Loader loader = itemId -> {
+      loads.incrementAndGet();
+      return new VersionHistoryDag<>(itemId, new ArrayList<>());
+    };
+
+    cache.get(1, loader, this.dbClient);
+    this.dbClient.commit();
+
+    VersionHistoryDag<Version> dag = cache.get(1, loader, this.dbClient);
+    assertTrue(dag.isShared());
+
+    this.dbClient.onCommit(() -> cache.addEdge(1, 0, 2, 10));
+    this.dbClient.onCommit(() -> cache.addEdge(1, 2, 3, 11));
+    this.dbClient.commit();
+
+    VersionHistoryDag<Version> cached = cache.get(1, loader, this.dbClient);
+
+    assertSame(dag, cached);
+    assertEquals(1, loads.get());
+    assertTrue(cached.checkItemInDag(2));
+    assertEquals(Arrays.asList(10L, 11L), cached.getEdgeIds());
+    assertEquals(Arrays.asList(3L), cached.getLeaves());
+  }
+
+  @Test
+  public void testUncommittedEdgesAreNotSeen() throws Exception {
+    VersionHistoryDagCache cache = new VersionHistoryDagCache(100);
+    VersionHistoryDagCache.Loader loader =
+        itemId -> new VersionHistoryDag<>(itemId, new ArrayList<>());
+
+    cache.get(1, loader, this.dbClient);
+    this.dbClient.commit();
+
+    this.dbClient.onCommit(() -> cache.addEdge(1, 0, 2, 10));
+
+    assertFalse(cache.get(1, loader, new TestDbClient()).checkItemInDag(2));
+
+    this.dbClient.abort();
+
+    assertFalse(cache.get(1, loader, this.dbClient).checkItemInDag(2));
+  }
+
+  @Test
+  public void testLoadedDagIsCachedWithItsOwnEdges() throws Exception {
+    VersionHistoryDagCache cache = new VersionHistoryDagCache(100);
+    VersionHistoryDagCache.Loader loader =
+        itemId -> new VersionHistoryDag<>(itemId, new ArrayList<>());
+
+    VersionHistoryDag<Version> dag = cache.get(1, loader, this.dbClient);
+    assertFalse(dag.isShared());
+
+    dag.addEdge(0, 2, 10);
+    this.dbClient.onCommit(() -> cache.addEdge(1, 0, 2, 10));
+    this.dbClient.commit();
+
+    VersionHistoryDag<Version> cached = cache.get(1, loader, this.dbClient);
+
+    assertSame(dag, cached);
+    assertEquals(Arrays.asList(10L), cached.getEdgeIds());
+  }
+
+  @Test
+  public void testEdgeOnAnotherItemDoesNotStopCaching() throws Exception {
+    VersionHistoryDagCache cache = new VersionHistoryDagCache(100);
+    VersionHistoryDagCache.Loader loader =
+        itemId -> new VersionHistoryDag<>(itemId, new ArrayList<>());
+
+    cache.get(1, loader, this.dbClient);
+    cache.addEdge(2, 0, 3, 10);
+    this.dbClient.commit();
+
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testAbortedLoadIsNotCached() throws Exception {
+    VersionHistoryDagCache cache = new VersionHistoryDagCache(100);
+    VersionHistoryDagCache.Loader loader =
+        itemId -> new VersionHistoryDag<>(itemId, new ArrayList<>());
+
+    cache.get(1, loader, this.dbClient);
+    this.dbClient.abort();
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testLoadRacingWithEdgeIsNotCached() throws Exception {
+    VersionHistoryDagCache cache = new VersionHistoryDagCache(100);
+    VersionHistoryDagCache.Loader loader =
+        itemId -> new VersionHistoryDag<>(itemId, new ArrayList<>());
+
+    cache.get(1, loader, this.dbClient);
+    cache.addEdge(1, 0, 2, 10);
+    this.dbClient.commit();
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testDisabledCacheAlwaysLoads() throws Exception {
+    VersionHistoryDagCache cache = new VersionHistoryDagCache(0);
+    AtomicInteger loads = new AtomicInteger();
+    VersionHistoryDagCache.Loader loader = itemId -> {
+      loads.incrementAndGet();
+      return new VersionHistoryDag<>(itemId, new ArrayList<>());
+    };
+
+    cache.get(1, loader, this.dbClient);
+    this.dbClient.commit();
+    cache.get(1, loader, this.dbClient);
+
+    assertEquals(2, loads.get());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testLeavesAfterBranching() {
+    VersionHistoryDag<Version> dag = new VersionHistoryDag<>(1, new ArrayList<>());
+    dag.addEdge(0, 2, 10);
+    dag.addEdge(2, 3, 11);
+    dag.addEdge(2, 4, 12);
+    dag.addEdge(3, 5, 13);
+    dag.addEdge(4, 5, 14);
+
+    assertEquals(new HashSet<>(Arrays.asList(5L)), new HashSet<>(dag.getLeaves()));
+    assertEquals(new HashSet<>(Arrays.asList(3L, 4L)), new HashSet<>(dag.getParent(5)));
+    assertTrue(dag.containsEdge(12));
+    assertFalse(dag.containsEdge(15));
+    assertTrue(dag.checkItemInDag(4));
+    assertFalse(dag.checkItemInDag(6));
+  }
+}
@@ -18,11 +18,16 @@ import org.junit.Test;
 
 import dao.CassandraTest;
 import dao.versions.cassandra.mock.TestCassandraVersionFactory;
+import db.DbDataContainer;
+import models.versions.GroundType;
 import models.versions.VersionHistoryDag;
 import models.versions.VersionSuccessor;
 import exceptions.GroundDbException;
 import exceptions.GroundException;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 public class CassandraVersionHistoryDagFactoryTest extends CassandraTest {
@@ -79,4 +84,37 @@ public class CassandraVersionHistoryDagFactoryTest extends CassandraTest {
       CassandraTest.cassandraClient.abort();
     }
   }
+
+  @Test
+  public void testExpiredParentIsRemoved() throws GroundException {
+    try {
+      long testId = 1;
+      VersionHistoryDag<?> dag = CassandraTest.versionHistoryDAGFactory.create(testId);
+
+      long parentId = 123;
+      long childId = 456;
+
+      this.versionFactory.insertIntoDatabase(parentId);
+      this.versionFactory.insertIntoDatabase(childId);
+
+      CassandraTest.versionHistoryDAGFactory.addEdge(dag, 0, parentId, testId);
+      CassandraTest.versionHistoryDAGFactory.addEdge(dag, parentId, childId, testId);
+
+      // simulate the parent's incoming edge expiring along with the parent
+      long rootEdgeId = dag.getEdgeIds().get(0);
+      List<DbDataContainer> predicates = new ArrayList<>();
+      predicates.add(new DbDataContainer("item_id", GroundType.LONG, testId));
+      predicates.add(new DbDataContainer("version_successor_id", GroundType.LONG, rootEdgeId));
+      CassandraTest.cassandraClient.delete(predicates, "version_history_dag");
+
+      VersionHistoryDag<?> retrieved = CassandraTest.versionHistoryDAGFactory.retrieveFromDatabase(testId);
+
+      assertEquals(1, retrieved.getEdgeIds().size());
+      assertEquals(childId, (long) retrieved.getLeaves().get(0));
+      assertEquals(0L, (long) retrieved.getParent(childId).get(0));
+      assertFalse(retrieved.checkItemInDag(parentId));
+    } finally {
+      CassandraTest.cassandraClient.abort();
+    }
+  }
 }
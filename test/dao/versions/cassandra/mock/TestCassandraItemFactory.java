@@ -8,6 +8,7 @@ import dao.versions.cassandra.CassandraVersionHistoryDagFactory;
 import db.CassandraClient;
 import exceptions.GroundException;
 import models.versions.Item;
+import util.Caches;
 
 public class TestCassandraItemFactory extends CassandraItemFactory<Item> {
 
@@ -15,7 +16,7 @@ public class TestCassandraItemFactory extends CassandraItemFactory<Item> {
                                    CassandraVersionHistoryDagFactory versionHistoryDagFactory,
                                    CassandraTagFactory tagFactory) {
 
-    super(cassandraClient, versionHistoryDagFactory, tagFactory);
+    super(cassandraClient, versionHistoryDagFactory, tagFactory, Caches.disabled());
   }
 
   public Class<Item> getType() {
@@ -26,7 +27,7 @@ public class TestCassandraItemFactory extends CassandraItemFactory<Item> {
     return new Item(id, super.retrieveItemTags(id));
   }
 
-  public Item retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected Item loadFromDatabase(String sourceKey) throws GroundException {
     throw new GroundException("This method should never be called.");
   }
 
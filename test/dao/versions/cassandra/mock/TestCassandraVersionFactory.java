@@ -4,18 +4,19 @@ package dao.versions.cassandra.mock;
 import dao.versions.cassandra.CassandraVersionFactory;
 import db.CassandraClient;
 import models.versions.Version;
+import util.Caches;
 
 public class TestCassandraVersionFactory extends CassandraVersionFactory<Version> {
 
   public TestCassandraVersionFactory(CassandraClient cassandraClient) {
-    super(cassandraClient);
+    super(cassandraClient, Caches.disabled());
   }
 
   public Class<Version> getType() {
     return Version.class;
   }
 
-  public Version retrieveFromDatabase(long id) {
+  protected Version loadFromDatabase(long id) {
     return new Version(id);
   }
 }
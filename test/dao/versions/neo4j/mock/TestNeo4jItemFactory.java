@@ -8,6 +8,7 @@ import dao.versions.neo4j.Neo4jVersionHistoryDagFactory;
 import db.Neo4jClient;
 import exceptions.GroundException;
 import models.versions.Item;
+import util.Caches;
 
 public class TestNeo4jItemFactory extends Neo4jItemFactory<Item> {
 
@@ -15,7 +16,7 @@ public class TestNeo4jItemFactory extends Neo4jItemFactory<Item> {
                                Neo4jVersionHistoryDagFactory versionHistoryDagFactory,
                                Neo4jTagFactory tagFactory) {
 
-    super(neo4jClient, versionHistoryDagFactory, tagFactory);
+    super(neo4jClient, versionHistoryDagFactory, tagFactory, Caches.disabled());
   }
 
   public Class<Item> getType() {
@@ -26,7 +27,7 @@ public class TestNeo4jItemFactory extends Neo4jItemFactory<Item> {
     return new Item(id, super.retrieveItemTags(id));
   }
 
-  public Item retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected Item loadFromDatabase(String sourceKey) throws GroundException {
     throw new GroundException("This method should never be called.");
   }
 
@@ -8,6 +8,7 @@ import dao.versions.postgres.PostgresVersionHistoryDagFactory;
 import db.PostgresClient;
 import exceptions.GroundException;
 import models.versions.Item;
+import util.Caches;
 
 public class TestPostgresItemFactory extends PostgresItemFactory<Item> {
 
@@ -15,7 +16,7 @@ public class TestPostgresItemFactory extends PostgresItemFactory<Item> {
                                   PostgresVersionHistoryDagFactory versionHistoryDagFactory,
                                   PostgresTagFactory tagFactory) {
 
-    super(postgresClient, versionHistoryDagFactory, tagFactory);
+    super(postgresClient, versionHistoryDagFactory, tagFactory, Caches.disabled());
   }
 
   public Class<Item> getType() {
@@ -26,7 +27,7 @@ public class TestPostgresItemFactory extends PostgresItemFactory<Item> {
     return new Item(id, super.retrieveItemTags(id));
   }
 
-  public Item retrieveFromDatabase(String sourceKey) throws GroundException {
+  protected Item loadFromDatabase(String sourceKey) throws GroundException {
     throw new GroundException("This method should never be called.");
   }
 
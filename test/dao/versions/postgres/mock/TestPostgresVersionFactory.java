@@ -3,18 +3,19 @@ package dao.versions.postgres.mock;
 import dao.versions.postgres.PostgresVersionFactory;
 import db.PostgresClient;
 import models.versions.Version;
+import util.Caches;
 
 public class TestPostgresVersionFactory extends PostgresVersionFactory<Version> {
 
   public TestPostgresVersionFactory(PostgresClient postgresClient) {
-    super(postgresClient);
+    super(postgresClient, Caches.disabled());
   }
 
   public Class<Version> getType() {
     return Version.class;
   }
 
-  public Version retrieveFromDatabase(long id) {
+  protected Version loadFromDatabase(long id) {
     return new Version(id);
   }
 }
@@ -1,6 +1,8 @@
 package db;
 
 import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.PagingState;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.exceptions.CodecNotFoundException;
@@ -155,6 +157,57 @@ public class CassandraResultsTest {
     assertThat(results.isNull("falseField")).isFalse();
   }
 
+  @Test
+  public void shouldPrefetchWhenFewRowsRemain() {
+    ResultSet rs = mock(ResultSet.class);
+    Row row = mock(Row.class);
+    when(rs.one()).thenReturn(row);
+    when(rs.isFullyFetched()).thenReturn(false);
+    when(rs.getAvailableWithoutFetching()).thenReturn(10).thenReturn(5);
+    CassandraResults results = new CassandraResults(rs, 5, false);
+    verify(rs, never()).fetchMoreResults();
+    assertThat(results.next()).isTrue();
+    verify(rs, times(1)).fetchMoreResults();
+  }
+
+  @Test
+  public void shouldNotPrefetchWhenFullyFetched() {
+    ResultSet rs = mock(ResultSet.class);
+    Row row = mock(Row.class);
+    when(rs.one()).thenReturn(row);
+    when(rs.isFullyFetched()).thenReturn(true);
+    when(rs.getAvailableWithoutFetching()).thenReturn(1);
+    CassandraResults results = new CassandraResults(rs, 5, false);
+    assertThat(results.next()).isTrue();
+    verify(rs, never()).fetchMoreResults();
+  }
+
+  @Test
+  public void shouldStopAtEndOfSinglePage() {
+    ResultSet rs = mock(ResultSet.class);
+    Row row = mock(Row.class);
+    when(rs.one()).thenReturn(row);
+    when(rs.getAvailableWithoutFetching()).thenReturn(2).thenReturn(1).thenReturn(0);
+    CassandraResults results = new CassandraResults(rs, 0, true);
+    assertThat(results.isEmpty()).isFalse();
+    assertThat(results.next()).isTrue();
+    assertThat(results.next()).isFalse();
+    verify(rs, times(2)).one();
+  }
+
+  @Test
+  public void shouldReturnPagingState() {
+    ResultSet rs = mock(ResultSet.class);
+    ExecutionInfo executionInfo = mock(ExecutionInfo.class);
+    PagingState pagingState = mock(PagingState.class);
+    when(pagingState.toString()).thenReturn("token");
+    when(executionInfo.getPagingState()).thenReturn(pagingState).thenReturn(null);
+    when(rs.getExecutionInfo()).thenReturn(executionInfo);
+    CassandraResults results = new CassandraResults(rs, 0, true);
+    assertThat(results.getPagingState()).isEqualTo("token");
+    assertThat(results.getPagingState()).isNull();
+  }
+
   private CassandraResults setupInvalidField(String fieldName) {
     ResultSet rs = mock(ResultSet.class);
     Row row = mock(Row.class);